@@ -0,0 +1,129 @@
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.AbstractListModel;
+
+/**
+ * ActiveStaffListModel class - list model of the staff who can be terminated
+ *
+ * Holds the active part-time staff who are not terminated, in the order
+ * they were added, as a sorted array of ordinals. Change events insert or
+ * remove single entries, found by binary search, and fire an event for
+ * just that entry, so terminating or hiring staff does not rebuild the
+ * list. The record list must hold the record with ordinal i at position i;
+ * add this to the RecordChangeDispatcher the records are attached to.
+ * Must be used on the EDT.
+ */
+public class ActiveStaffListModel extends AbstractListModel<StaffHire> implements RecordChangeListener {
+    private static final long serialVersionUID = 1L;
+
+    private List<StaffHire> records = List.of();
+    private int[] ordinals = new int[16];
+    private int size;
+
+    /**
+     * Sets the list of all records and fills the list with those that can be terminated
+     */
+    public void setRecords(List<StaffHire> records) {
+        this.records = records;
+        int oldSize = size;
+        size = 0;
+        ordinals = new int[Math.max(16, records.size() / 4)];
+        for (StaffHire staff : records) {
+            if (isListed(staff)) {
+                append(staff.getOrdinal());
+            }
+        }
+        if (oldSize > 0) {
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+        if (size > 0) {
+            fireIntervalAdded(this, 0, size - 1);
+        }
+    }
+
+    /**
+     * Returns true if the staff member belongs in the list
+     */
+    public static boolean isListed(StaffHire staff) {
+        return staff instanceof PartTimeStaffHire && staff.isActive()
+            && !((PartTimeStaffHire) staff).isTerminated();
+    }
+
+    // Changes
+
+    @Override
+    public void staffAdded(StaffHire staff) {
+        if (isListed(staff)) {
+            insert(staff.getOrdinal());
+        }
+    }
+
+    @Override
+    public void staffRemoved(StaffHire staff) {
+        int index = indexOf(staff.getOrdinal());
+        if (index >= 0) {
+            remove(index);
+        }
+    }
+
+    @Override
+    public void staffChanged(StaffHire staff, String property, Object oldValue) {
+        int index = indexOf(staff.getOrdinal());
+        boolean listed = isListed(staff);
+        if (index >= 0 && !listed) {
+            remove(index);
+        } else if (index < 0 && listed) {
+            insert(staff.getOrdinal());
+        } else if (index >= 0) {
+            // Name or designation shown in the entry may have changed
+            fireContentsChanged(this, index, index);
+        }
+    }
+
+    private void append(int ordinal) {
+        if (size == ordinals.length) {
+            ordinals = Arrays.copyOf(ordinals, size * 2);
+        }
+        ordinals[size++] = ordinal;
+    }
+
+    private void insert(int ordinal) {
+        int index = -Arrays.binarySearch(ordinals, 0, size, ordinal) - 1;
+        if (index < 0) {
+            return;
+        }
+        if (size == ordinals.length) {
+            ordinals = Arrays.copyOf(ordinals, size * 2);
+        }
+        System.arraycopy(ordinals, index, ordinals, index + 1, size - index);
+        ordinals[index] = ordinal;
+        size++;
+        fireIntervalAdded(this, index, index);
+    }
+
+    private void remove(int index) {
+        System.arraycopy(ordinals, index + 1, ordinals, index, size - index - 1);
+        size--;
+        fireIntervalRemoved(this, index, index);
+    }
+
+    /**
+     * Returns the position of a staff member in the list, or -1 if not listed
+     */
+    public int indexOf(int ordinal) {
+        int index = Arrays.binarySearch(ordinals, 0, size, ordinal);
+        return index >= 0 ? index : -1;
+    }
+
+    // AbstractListModel
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public StaffHire getElementAt(int index) {
+        return records.get(ordinals[index]);
+    }
+}
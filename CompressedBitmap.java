@@ -0,0 +1,411 @@
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * CompressedBitmap class - compressed set of non-negative ints
+ *
+ * The values are split into chunks of 65536 by their upper 16 bits. A chunk
+ * holding up to 4096 values stores them as a sorted char array; a fuller
+ * chunk stores a plain 65536-bit bitmap. Sparse and dense sets both stay
+ * small, and intersections work chunk by chunk with word-wide operations
+ * on dense chunks. The number of values is kept up to date, so size() takes
+ * constant time. Not thread-safe.
+ */
+public class CompressedBitmap {
+    // Chunks with more values than this use a bitmap
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    // Sorted chunk keys (upper 16 bits), and for each chunk a char[] or long[] and its size
+    private int[] keys = new int[4];
+    private Object[] chunks = new Object[4];
+    private int[] chunkSizes = new int[4];
+    private int chunkCount;
+    private int size;
+
+    /**
+     * Adds a value
+     * @param value the value, must not be negative
+     * @return true if the value was not already present
+     */
+    public boolean add(int value) {
+        int key = value >>> 16;
+        char low = (char) value;
+        int index = findChunk(key);
+        if (index < 0) {
+            index = -index - 1;
+            insertChunk(index, key, new char[4], 0);
+        }
+        Object chunk = chunks[index];
+        int chunkSize = chunkSizes[index];
+        if (chunk instanceof char[]) {
+            char[] values = (char[]) chunk;
+            int pos = Arrays.binarySearch(values, 0, chunkSize, low);
+            if (pos >= 0) {
+                return false;
+            }
+            pos = -pos - 1;
+            if (chunkSize == ARRAY_MAX) {
+                long[] bits = toBitmap(values, chunkSize);
+                bits[low >>> 6] |= 1L << low;
+                chunks[index] = bits;
+            } else {
+                if (chunkSize == values.length) {
+                    values = Arrays.copyOf(values, Math.min(ARRAY_MAX, chunkSize * 2));
+                    chunks[index] = values;
+                }
+                System.arraycopy(values, pos, values, pos + 1, chunkSize - pos);
+                values[pos] = low;
+            }
+        } else {
+            long[] bits = (long[]) chunk;
+            long mask = 1L << low;
+            if ((bits[low >>> 6] & mask) != 0) {
+                return false;
+            }
+            bits[low >>> 6] |= mask;
+        }
+        chunkSizes[index]++;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes a value
+     * @return true if the value was present
+     */
+    public boolean remove(int value) {
+        int index = findChunk(value >>> 16);
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) value;
+        Object chunk = chunks[index];
+        int chunkSize = chunkSizes[index];
+        if (chunk instanceof char[]) {
+            char[] values = (char[]) chunk;
+            int pos = Arrays.binarySearch(values, 0, chunkSize, low);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(values, pos + 1, values, pos, chunkSize - pos - 1);
+        } else {
+            long[] bits = (long[]) chunk;
+            long mask = 1L << low;
+            if ((bits[low >>> 6] & mask) == 0) {
+                return false;
+            }
+            bits[low >>> 6] &= ~mask;
+            // Convert back well below the limit, so values added and removed
+            // around it do not switch the chunk back and forth
+            if (chunkSize - 1 <= ARRAY_MAX / 2) {
+                chunks[index] = toArray(bits, chunkSize - 1);
+            }
+        }
+        size--;
+        if (--chunkSizes[index] == 0) {
+            removeChunk(index);
+        }
+        return true;
+    }
+
+    /**
+     * Adds or removes a value
+     * @param value the value
+     * @param present true to add the value, false to remove it
+     */
+    public void set(int value, boolean present) {
+        if (present) {
+            add(value);
+        } else {
+            remove(value);
+        }
+    }
+
+    /**
+     * Returns true if the value is present
+     */
+    public boolean contains(int value) {
+        int index = findChunk(value >>> 16);
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) value;
+        Object chunk = chunks[index];
+        if (chunk instanceof char[]) {
+            return Arrays.binarySearch((char[]) chunk, 0, chunkSizes[index], low) >= 0;
+        }
+        return (((long[]) chunk)[low >>> 6] & (1L << low)) != 0;
+    }
+
+    /**
+     * Returns the smallest value that is at least the given one, or -1 if
+     * there is none, so the values can be walked from any point without
+     * going through those before it
+     */
+    public int nextValue(int from) {
+        from = Math.max(from, 0);
+        int index = findChunk(from >>> 16);
+        int low = from & 0xFFFF;
+        if (index < 0) {
+            index = -index - 1;
+            low = 0;
+        }
+        for (; index < chunkCount; index++, low = 0) {
+            int high = keys[index] << 16;
+            Object chunk = chunks[index];
+            if (chunk instanceof char[]) {
+                char[] values = (char[]) chunk;
+                int pos = Arrays.binarySearch(values, 0, chunkSizes[index], (char) low);
+                pos = pos >= 0 ? pos : -pos - 1;
+                if (pos < chunkSizes[index]) {
+                    return high | values[pos];
+                }
+            } else {
+                long[] bits = (long[]) chunk;
+                int w = low >>> 6;
+                long word = bits[w] & (-1L << low);
+                while (true) {
+                    if (word != 0) {
+                        return high | (w << 6) | Long.numberOfTrailingZeros(word);
+                    }
+                    if (++w == BITMAP_WORDS) {
+                        break;
+                    }
+                    word = bits[w];
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of values, in constant time
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if there are no values
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns a new bitmap holding the same values
+     */
+    public CompressedBitmap copy() {
+        CompressedBitmap result = new CompressedBitmap();
+        for (int i = 0; i < chunkCount; i++) {
+            result.appendChunk(keys[i], copyChunk(chunks[i], chunkSizes[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new bitmap holding the values present in both bitmaps
+     */
+    public CompressedBitmap and(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < chunkCount && j < other.chunkCount) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.appendChunk(keys[i], combine(chunks[i], chunkSizes[i],
+                                                    other.chunks[j], other.chunkSizes[j], false));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new bitmap holding the values of this bitmap that are not in the other
+     */
+    public CompressedBitmap andNot(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+        int j = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            while (j < other.chunkCount && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.chunkCount && other.keys[j] == keys[i]) {
+                result.appendChunk(keys[i], combine(chunks[i], chunkSizes[i],
+                                                    other.chunks[j], other.chunkSizes[j], true));
+            } else {
+                result.appendChunk(keys[i], copyChunk(chunks[i], chunkSizes[i]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Calls the action for every value in ascending order
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < chunkCount; i++) {
+            int high = keys[i] << 16;
+            Object chunk = chunks[i];
+            if (chunk instanceof char[]) {
+                char[] values = (char[]) chunk;
+                for (int k = 0; k < chunkSizes[i]; k++) {
+                    action.accept(high | values[k]);
+                }
+            } else {
+                long[] bits = (long[]) chunk;
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    long word = bits[w];
+                    while (word != 0) {
+                        action.accept(high | (w << 6) | Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the values in ascending order
+     */
+    public int[] toArray() {
+        int[] result = new int[size];
+        int[] position = new int[1];
+        forEach(value -> result[position[0]++] = value);
+        return result;
+    }
+
+    // Chunk helpers
+
+    private int findChunk(int key) {
+        return Arrays.binarySearch(keys, 0, chunkCount, key);
+    }
+
+    private void insertChunk(int index, int key, Object chunk, int chunkSize) {
+        if (chunkCount == keys.length) {
+            int capacity = chunkCount * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            chunks = Arrays.copyOf(chunks, capacity);
+            chunkSizes = Arrays.copyOf(chunkSizes, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, chunkCount - index);
+        System.arraycopy(chunks, index, chunks, index + 1, chunkCount - index);
+        System.arraycopy(chunkSizes, index, chunkSizes, index + 1, chunkCount - index);
+        keys[index] = key;
+        chunks[index] = chunk;
+        chunkSizes[index] = chunkSize;
+        chunkCount++;
+    }
+
+    private void removeChunk(int index) {
+        int moved = chunkCount - index - 1;
+        System.arraycopy(keys, index + 1, keys, index, moved);
+        System.arraycopy(chunks, index + 1, chunks, index, moved);
+        System.arraycopy(chunkSizes, index + 1, chunkSizes, index, moved);
+        chunks[--chunkCount] = null;
+    }
+
+    /**
+     * Adds a chunk after all existing ones, skipping empty results
+     */
+    private void appendChunk(int key, Object[] chunkAndSize) {
+        int chunkSize = (Integer) chunkAndSize[1];
+        if (chunkSize > 0) {
+            insertChunk(chunkCount, key, chunkAndSize[0], chunkSize);
+            size += chunkSize;
+        }
+    }
+
+    private static Object[] copyChunk(Object chunk, int chunkSize) {
+        Object copy = chunk instanceof char[]
+            ? Arrays.copyOf((char[]) chunk, Math.max(chunkSize, 1))
+            : ((long[]) chunk).clone();
+        return new Object[] {copy, chunkSize};
+    }
+
+    /**
+     * Intersects two chunks, or subtracts the second from the first
+     * @return the resulting chunk and its size
+     */
+    private static Object[] combine(Object a, int aSize, Object b, int bSize, boolean subtract) {
+        if (a instanceof long[] && b instanceof long[]) {
+            long[] left = (long[]) a;
+            long[] right = (long[]) b;
+            long[] bits = new long[BITMAP_WORDS];
+            int count = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                bits[w] = subtract ? left[w] & ~right[w] : left[w] & right[w];
+                count += Long.bitCount(bits[w]);
+            }
+            return new Object[] {count <= ARRAY_MAX ? toArray(bits, count) : bits, count};
+        }
+        if (a instanceof long[]) {
+            // Bitmap and array
+            long[] bits = (long[]) a;
+            char[] values = (char[]) b;
+            if (!subtract) {
+                char[] result = new char[Math.max(bSize, 1)];
+                int count = 0;
+                for (int k = 0; k < bSize; k++) {
+                    char v = values[k];
+                    if ((bits[v >>> 6] & (1L << v)) != 0) {
+                        result[count++] = v;
+                    }
+                }
+                return new Object[] {result, count};
+            }
+            long[] copy = bits.clone();
+            int count = aSize;
+            for (int k = 0; k < bSize; k++) {
+                char v = values[k];
+                long mask = 1L << v;
+                if ((copy[v >>> 6] & mask) != 0) {
+                    copy[v >>> 6] &= ~mask;
+                    count--;
+                }
+            }
+            return new Object[] {count <= ARRAY_MAX ? toArray(copy, count) : copy, count};
+        }
+        // Array and bitmap or array
+        char[] values = (char[]) a;
+        char[] result = new char[Math.max(aSize, 1)];
+        int count = 0;
+        for (int k = 0; k < aSize; k++) {
+            char v = values[k];
+            boolean inB = b instanceof long[]
+                ? (((long[]) b)[v >>> 6] & (1L << v)) != 0
+                : Arrays.binarySearch((char[]) b, 0, bSize, v) >= 0;
+            if (inB != subtract) {
+                result[count++] = v;
+            }
+        }
+        return new Object[] {result, count};
+    }
+
+    private static long[] toBitmap(char[] values, int count) {
+        long[] bits = new long[BITMAP_WORDS];
+        for (int k = 0; k < count; k++) {
+            bits[values[k] >>> 6] |= 1L << values[k];
+        }
+        return bits;
+    }
+
+    private static char[] toArray(long[] bits, int count) {
+        char[] values = new char[Math.max(count, 1)];
+        int k = 0;
+        for (int w = 0; w < BITMAP_WORDS; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                values[k++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,68 @@
+import java.io.*;
+import java.util.ArrayList;
+
+/**
+ * DataMigrator class - one-shot conversion of the old Java serialization
+ * files (staff_data.ser, vacancy_data.ser) to the binary record format
+ *
+ * The old files are left in place. The new file is written atomically,
+ * so a migration cut short leaves no file behind and runs again. FileHandler
+ * runs the migration automatically when a binary data file is missing, and
+ * it can also be run by hand with: java DataMigrator
+ */
+public class DataMigrator {
+    // Old file paths
+    public static final String LEGACY_STAFF_FILE = "staff_data.ser";
+    public static final String LEGACY_VACANCY_FILE = "vacancy_data.ser";
+
+    /**
+     * Converts the old staff file to the binary format
+     * @param targetFile the binary file to write
+     * @return true if a file was converted, false if there was nothing to convert or it failed
+     */
+    @SuppressWarnings("unchecked")
+    public static boolean migrateStaffData(String targetFile) {
+        if (!new File(LEGACY_STAFF_FILE).exists()) {
+            return false;
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(LEGACY_STAFF_FILE))) {
+            ArrayList<StaffHire> staffList = (ArrayList<StaffHire>) in.readObject();
+            FileHandler.writeAtomically(targetFile, out -> RecordCodec.writeStaffList(out, staffList));
+            System.out.println("Migrated " + staffList.size() + " staff records to " + targetFile);
+            return true;
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Error migrating staff data: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Converts the old vacancy file to the binary format
+     * @param targetFile the binary file to write
+     * @return true if a file was converted, false if there was nothing to convert or it failed
+     */
+    @SuppressWarnings("unchecked")
+    public static boolean migrateVacancyData(String targetFile) {
+        if (!new File(LEGACY_VACANCY_FILE).exists()) {
+            return false;
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(LEGACY_VACANCY_FILE))) {
+            ArrayList<Vacancy> vacancyList = (ArrayList<Vacancy>) in.readObject();
+            FileHandler.writeAtomically(targetFile, out -> RecordCodec.writeVacancyList(out, vacancyList));
+            System.out.println("Migrated " + vacancyList.size() + " vacancy records to " + targetFile);
+            return true;
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Error migrating vacancy data: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Main method
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        migrateStaffData(FileHandler.STAFF_FILE);
+        migrateVacancyData(FileHandler.VACANCY_FILE);
+    }
+}
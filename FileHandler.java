@@ -1,75 +1,619 @@
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * FileHandler class to handle saving and loading data from files
+ *
+ * Data is kept as a snapshot file in the binary RecordCodec format plus
+ * an append-only journal. Each change (hire, terminate, vacancy open/close)
+ * is appended to the journal with an increasing sequence number, and the
+ * journal is replayed on top of the snapshot when the data is loaded.
+ *
+ * Snapshots are written to a temporary file, synced to disk and then
+ * renamed over the old snapshot, so a crash never leaves a half-written
+ * snapshot behind. Each snapshot records the last sequence number it
+ * includes, and replay skips journal entries up to that number.
  */
 public class FileHandler {
     // File paths
-    private static final String STAFF_FILE = "staff_data.ser";
-    private static final String VACANCY_FILE = "vacancy_data.ser";
-    
+    static final String STAFF_FILE = "staff_data.dat";
+    static final String VACANCY_FILE = "vacancy_data.dat";
+    static final String STAFF_JOURNAL_FILE = "staff_journal.log";
+    static final String VACANCY_JOURNAL_FILE = "vacancy_journal.log";
+
+    // Journal file header. Journals without it were written before entries had sequence numbers.
+    private static final int JOURNAL_MAGIC = 0x53524A32; // "SRJ2"
+
+    // Journal operation codes
+    private static final byte OP_HIRE = 1;
+    private static final byte OP_TERMINATE = 2;
+    private static final byte OP_VACANCY_ADDED = 3;
+    private static final byte OP_VACANCY_CLOSED = 4;
+    private static final byte OP_VACANCY_OPENED = 5;
+    private static final byte OP_STAFF_UPDATED = 6;
+
+    // Sequence number of the last entry created for each journal. Entries must be
+    // appended in the order they are numbered, or replay after a snapshot skips some;
+    // PersistenceWorker numbers and queues each entry in one step.
+    private static final AtomicLong staffSequence = new AtomicLong();
+    private static final AtomicLong vacancySequence = new AtomicLong();
+
+    // A decoded journal entry
+    private static class JournalEntry {
+        final byte op;
+        final long sequence;
+        final byte[] payload;
+
+        JournalEntry(byte op, long sequence, byte[] payload) {
+            this.op = op;
+            this.sequence = sequence;
+            this.payload = payload;
+        }
+    }
+
+    // Writes the contents of a snapshot file
+    interface SnapshotWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
     /**
-     * Saves staff list to file
+     * Saves staff list to file and clears the staff journal
      * @param staffList the list of staff to save
      * @return true if successful, false otherwise
      */
     public static boolean saveStaffData(ArrayList<StaffHire> staffList) {
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(STAFF_FILE))) {
-            out.writeObject(staffList);
-            return true;
+        return saveStaffData(staffList, staffSequence.get());
+    }
+
+    /**
+     * Saves staff list to file and clears the staff journal
+     * @param staffList the list of staff to save
+     * @param sequence the last staff journal sequence number the list includes
+     * @return true if successful, false otherwise
+     */
+    public static boolean saveStaffData(ArrayList<StaffHire> staffList, long sequence) {
+        try {
+            writeAtomically(STAFF_FILE, out -> RecordCodec.writeStaffList(out, staffList, sequence));
         } catch (IOException e) {
             System.err.println("Error saving staff data: " + e.getMessage());
             return false;
         }
+        return clearJournal(STAFF_JOURNAL_FILE);
     }
-    
+
     /**
-     * Loads staff list from file
+     * Loads staff list from file and replays the staff journal on top of it.
+     * An old staff_data.ser file is migrated first if there is no binary file yet.
      * @return the loaded list or a new empty list if file does not exist
+     * @throws UncheckedIOException if the file cannot be read
      */
-    @SuppressWarnings("unchecked")
     public static ArrayList<StaffHire> loadStaffData() {
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(STAFF_FILE))) {
-            return (ArrayList<StaffHire>) in.readObject();
-        } catch (FileNotFoundException e) {
-            System.out.println("No staff data file found. Creating new data list.");
-            return new ArrayList<>();
-        } catch (IOException | ClassNotFoundException e) {
-            System.err.println("Error loading staff data: " + e.getMessage());
-            return new ArrayList<>();
-        }
+        long[] sequence = new long[1];
+        ArrayList<StaffHire> staffList = readStaffData(sequence, true);
+        advance(staffSequence, sequence[0]);
+        return staffList;
     }
-    
+
     /**
-     * Saves vacancy list to file
+     * Saves vacancy list to file and clears the vacancy journal
      * @param vacancyList the list of vacancies to save
      * @return true if successful, false otherwise
      */
     public static boolean saveVacancyData(ArrayList<Vacancy> vacancyList) {
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(VACANCY_FILE))) {
-            out.writeObject(vacancyList);
-            return true;
+        return saveVacancyData(vacancyList, vacancySequence.get());
+    }
+
+    /**
+     * Saves vacancy list to file and clears the vacancy journal
+     * @param vacancyList the list of vacancies to save
+     * @param sequence the last vacancy journal sequence number the list includes
+     * @return true if successful, false otherwise
+     */
+    public static boolean saveVacancyData(ArrayList<Vacancy> vacancyList, long sequence) {
+        try {
+            writeAtomically(VACANCY_FILE, out -> RecordCodec.writeVacancyList(out, vacancyList, sequence));
         } catch (IOException e) {
             System.err.println("Error saving vacancy data: " + e.getMessage());
             return false;
         }
+        return clearJournal(VACANCY_JOURNAL_FILE);
     }
-    
+
     /**
-     * Loads vacancy list from file
+     * Loads vacancy list from file and replays the vacancy journal on top of it.
+     * An old vacancy_data.ser file is migrated first if there is no binary file yet.
      * @return the loaded list or a new empty list if file does not exist
+     * @throws UncheckedIOException if the file cannot be read
      */
-    @SuppressWarnings("unchecked")
     public static ArrayList<Vacancy> loadVacancyData() {
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(VACANCY_FILE))) {
-            return (ArrayList<Vacancy>) in.readObject();
-        } catch (FileNotFoundException e) {
+        long[] sequence = new long[1];
+        ArrayList<Vacancy> vacancyList = readVacancyData(sequence, true);
+        advance(vacancySequence, sequence[0]);
+        return vacancyList;
+    }
+
+    /**
+     * Folds the staff journal into a fresh staff snapshot. Must not run
+     * at the same time as appends to the staff journal.
+     * @return true if successful, false otherwise
+     */
+    public static boolean compactStaffJournal() {
+        long[] sequence = new long[1];
+        ArrayList<StaffHire> staffList;
+        try {
+            staffList = readStaffData(sequence, false);
+        } catch (UncheckedIOException e) {
+            System.err.println("Error compacting staff journal: " + e.getMessage());
+            return false;
+        }
+        return saveStaffData(staffList, sequence[0]);
+    }
+
+    /**
+     * Folds the vacancy journal into a fresh vacancy snapshot. Must not run
+     * at the same time as appends to the vacancy journal.
+     * @return true if successful, false otherwise
+     */
+    public static boolean compactVacancyJournal() {
+        long[] sequence = new long[1];
+        ArrayList<Vacancy> vacancyList;
+        try {
+            vacancyList = readVacancyData(sequence, false);
+        } catch (UncheckedIOException e) {
+            System.err.println("Error compacting vacancy journal: " + e.getMessage());
+            return false;
+        }
+        return saveVacancyData(vacancyList, sequence[0]);
+    }
+
+    /**
+     * Returns the combined size of both journal files in bytes
+     */
+    public static long getJournalSize() {
+        return new File(STAFF_JOURNAL_FILE).length() + new File(VACANCY_JOURNAL_FILE).length();
+    }
+
+    /**
+     * Returns the sequence number of the last staff journal entry created
+     */
+    public static long getStaffSequence() {
+        return staffSequence.get();
+    }
+
+    /**
+     * Returns the sequence number of the last vacancy journal entry created
+     */
+    public static long getVacancySequence() {
+        return vacancySequence.get();
+    }
+
+    /**
+     * Builds the staff journal entry for a hire, with the next sequence
+     * number. Entries must be appended in the order they were built.
+     * @param staff the staff that was hired
+     * @return the encoded entry
+     */
+    public static byte[] hireEntry(StaffHire staff) {
+        return entry(OP_HIRE, staffSequence.incrementAndGet(), RecordCodec.encodeStaff(staff));
+    }
+
+    /**
+     * Builds the staff journal entry for a termination, with the next sequence
+     * number. Entries must be appended in the order they were built.
+     * @param vacancyNumber the vacancy number of the terminated staff
+     * @return the encoded entry
+     */
+    public static byte[] terminateEntry(int vacancyNumber) {
+        return entry(OP_TERMINATE, staffSequence.incrementAndGet(), intPayload(vacancyNumber));
+    }
+
+    /**
+     * Builds the staff journal entry for a change of salary, weekly hours or
+     * shifts, with the next sequence number. Entries must be appended in the
+     * order they were built.
+     * @param staff the changed staff
+     * @return the encoded entry
+     */
+    public static byte[] staffUpdatedEntry(StaffHire staff) {
+        return entry(OP_STAFF_UPDATED, staffSequence.incrementAndGet(), RecordCodec.encodeStaff(staff));
+    }
+
+    /**
+     * Builds the vacancy journal entry for a new vacancy, with the next sequence
+     * number. Entries must be appended in the order they were built.
+     * @param vacancy the vacancy that was added
+     * @return the encoded entry
+     */
+    public static byte[] vacancyAddedEntry(Vacancy vacancy) {
+        return entry(OP_VACANCY_ADDED, vacancySequence.incrementAndGet(), RecordCodec.encodeVacancy(vacancy));
+    }
+
+    /**
+     * Builds the vacancy journal entry for a vacancy closing, with the next sequence
+     * number. Entries must be appended in the order they were built.
+     * @param vacancyId the id of the closed vacancy
+     * @return the encoded entry
+     */
+    public static byte[] vacancyClosedEntry(int vacancyId) {
+        return entry(OP_VACANCY_CLOSED, vacancySequence.incrementAndGet(), intPayload(vacancyId));
+    }
+
+    /**
+     * Builds the vacancy journal entry for a vacancy re-opening, with the next sequence
+     * number. Entries must be appended in the order they were built.
+     * @param vacancyId the id of the opened vacancy
+     * @return the encoded entry
+     */
+    public static byte[] vacancyOpenedEntry(int vacancyId) {
+        return entry(OP_VACANCY_OPENED, vacancySequence.incrementAndGet(), intPayload(vacancyId));
+    }
+
+    /**
+     * Appends a batch of entries to the staff journal with a single write
+     * @param entries entries built with hireEntry or terminateEntry
+     * @return true if successful, false otherwise
+     */
+    public static boolean appendStaffJournal(List<byte[]> entries) {
+        return appendJournal(STAFF_JOURNAL_FILE, entries);
+    }
+
+    /**
+     * Appends a batch of entries to the vacancy journal with a single write
+     * @param entries entries built with the vacancy entry methods
+     * @return true if successful, false otherwise
+     */
+    public static boolean appendVacancyJournal(List<byte[]> entries) {
+        return appendJournal(VACANCY_JOURNAL_FILE, entries);
+    }
+
+    /**
+     * Reads the staff snapshot and replays the staff journal on top of it
+     * @param sequence receives the last sequence number that was applied
+     * @param migrateAgain whether an unreadable snapshot may be replaced by migrating the old file again
+     * @throws UncheckedIOException if the snapshot cannot be read and is not replaced
+     */
+    private static ArrayList<StaffHire> readStaffData(long[] sequence, boolean migrateAgain) {
+        if (!new File(STAFF_FILE).exists()) {
+            DataMigrator.migrateStaffData(STAFF_FILE);
+        }
+        ArrayList<StaffHire> staffList;
+        try {
+            byte[] data = Files.readAllBytes(Paths.get(STAFF_FILE));
+            staffList = RecordCodec.readStaffList(data);
+            sequence[0] = RecordCodec.readSequence(data);
+        } catch (NoSuchFileException e) {
+            System.out.println("No staff data file found. Creating new data list.");
+            staffList = new ArrayList<>();
+        } catch (IOException e) {
+            System.err.println("Error loading staff data: " + e.getMessage());
+            setAsideForMigration(STAFF_FILE, DataMigrator.LEGACY_STAFF_FILE, migrateAgain, e);
+            return readStaffData(sequence, false);
+        }
+        replayStaffJournal(staffList, sequence);
+        return staffList;
+    }
+
+    /**
+     * Reads the vacancy snapshot and replays the vacancy journal on top of it
+     * @param sequence receives the last sequence number that was applied
+     * @param migrateAgain whether an unreadable snapshot may be replaced by migrating the old file again
+     * @throws UncheckedIOException if the snapshot cannot be read and is not replaced
+     */
+    private static ArrayList<Vacancy> readVacancyData(long[] sequence, boolean migrateAgain) {
+        if (!new File(VACANCY_FILE).exists()) {
+            DataMigrator.migrateVacancyData(VACANCY_FILE);
+        }
+        ArrayList<Vacancy> vacancyList;
+        try {
+            byte[] data = Files.readAllBytes(Paths.get(VACANCY_FILE));
+            vacancyList = RecordCodec.readVacancyList(data);
+            sequence[0] = RecordCodec.readSequence(data);
+        } catch (NoSuchFileException e) {
             System.out.println("No vacancy data file found. Creating new data list.");
-            return new ArrayList<>();
-        } catch (IOException | ClassNotFoundException e) {
+            vacancyList = new ArrayList<>();
+        } catch (IOException e) {
             System.err.println("Error loading vacancy data: " + e.getMessage());
-            return new ArrayList<>();
+            setAsideForMigration(VACANCY_FILE, DataMigrator.LEGACY_VACANCY_FILE, migrateAgain, e);
+            return readVacancyData(sequence, false);
         }
+        replayVacancyJournal(vacancyList, sequence);
+        return vacancyList;
+    }
+
+    /**
+     * Writes a snapshot to a temporary file, syncs it and renames it over the target
+     */
+    static void writeAtomically(String file, SnapshotWriter writer) throws IOException {
+        Path target = Paths.get(file).toAbsolutePath();
+        Path temp = Paths.get(file + ".tmp").toAbsolutePath();
+        try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+            writer.write(out);
+            out.getFD().sync();
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        // Sync the directory so the rename itself survives a crash (not supported on all platforms)
+        try (FileChannel directory = FileChannel.open(target.getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // Best effort only
+        }
+    }
+
+    /**
+     * Deals with a data file that cannot be read. If the old file it was
+     * migrated from is still there, it may be a migration cut short, so it is
+     * moved aside and the migration runs again. Otherwise loading stops and
+     * the file stays in place, so saving the empty lists cannot replace it.
+     * @throws UncheckedIOException if the file cannot be migrated again
+     */
+    private static void setAsideForMigration(String file, String legacyFile, boolean migrateAgain,
+                                             IOException cause) {
+        if (!migrateAgain || !new File(legacyFile).exists()) {
+            throw new UncheckedIOException(file + " cannot be read; restore it or move it aside to start without it",
+                                           cause);
+        }
+        quarantine(file);
+    }
+
+    /**
+     * Moves an unreadable data file aside so the next save does not overwrite it
+     */
+    private static void quarantine(String file) {
+        Path source = Paths.get(file);
+        Path target = Paths.get(file + ".corrupt-" + System.currentTimeMillis());
+        try {
+            Files.move(source, target);
+            System.err.println("Unreadable data file kept as " + target);
+        } catch (IOException e) {
+            System.err.println("Could not move aside " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Builds a journal entry: op code, sequence number, payload length, payload
+     */
+    private static byte[] entry(byte op, long sequence, byte[] payload) {
+        RecordCodec.Writer writer = new RecordCodec.Writer(13 + payload.length);
+        writer.writeByte(op);
+        writer.writeLong(sequence);
+        writer.writeInt(payload.length);
+        writer.writeBytes(payload);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Appends entries to a journal file and syncs it to disk
+     */
+    private static boolean appendJournal(String journalFile, List<byte[]> entries) {
+        if (entries.isEmpty()) {
+            return true;
+        }
+        boolean newJournal = new File(journalFile).length() == 0;
+        try (FileOutputStream file = new FileOutputStream(journalFile, true)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file));
+            if (newJournal) {
+                out.writeInt(JOURNAL_MAGIC);
+            }
+            for (byte[] entry : entries) {
+                out.write(entry);
+            }
+            out.flush();
+            file.getFD().sync();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing journal " + journalFile + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Deletes a journal file once its changes are part of a snapshot
+     */
+    private static boolean clearJournal(String journalFile) {
+        File file = new File(journalFile);
+        if (file.exists() && !file.delete()) {
+            System.err.println("Error clearing journal " + journalFile);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Replays the staff journal on top of the loaded snapshot, skipping
+     * entries the snapshot already includes
+     */
+    private static void replayStaffJournal(ArrayList<StaffHire> staffList, long[] sequence) {
+        long snapshotSequence = sequence[0];
+        List<JournalEntry> entries = readJournal(STAFF_JOURNAL_FILE);
+        if (entries.isEmpty()) {
+            return;
+        }
+        // Latest active staff per vacancy number, for terminations and updates
+        IntObjectMap<StaffHire> active = new IntObjectMap<>(staffList.size());
+        for (StaffHire staff : staffList) {
+            indexActive(active, staff);
+        }
+        for (JournalEntry entry : entries) {
+            if (entry.sequence != 0 && entry.sequence <= snapshotSequence) {
+                continue;
+            }
+            sequence[0] = Math.max(sequence[0], entry.sequence);
+            if (entry.op == OP_HIRE) {
+                StaffHire staff = (StaffHire) decodeRecord(entry.payload, true);
+                if (staff != null) {
+                    staffList.add(staff);
+                    indexActive(active, staff);
+                }
+            } else if (entry.op == OP_TERMINATE) {
+                StaffHire staff = active.get(readIntPayload(entry.payload));
+                if (staff instanceof PartTimeStaffHire) {
+                    ((PartTimeStaffHire) staff).applyTermination();
+                    active.remove(staff.getVacancyNumber());
+                }
+            } else if (entry.op == OP_STAFF_UPDATED) {
+                StaffHire update = (StaffHire) decodeRecord(entry.payload, true);
+                StaffHire staff = update == null ? null : active.get(update.getVacancyNumber());
+                if (staff != null) {
+                    applyUpdate(staff, update);
+                }
+            }
+        }
+    }
+
+    private static void indexActive(IntObjectMap<StaffHire> index, StaffHire staff) {
+        if (staff.isActive()) {
+            index.put(staff.getVacancyNumber(), staff);
+        }
+    }
+
+    /**
+     * Copies the fields a staff update can change onto the staff record
+     */
+    private static void applyUpdate(StaffHire staff, StaffHire update) {
+        if (staff instanceof FullTimeStaffHire && update instanceof FullTimeStaffHire) {
+            FullTimeStaffHire ftStaff = (FullTimeStaffHire) staff;
+            FullTimeStaffHire ftUpdate = (FullTimeStaffHire) update;
+            ftStaff.setSalary(ftUpdate.getSalary());
+            ftStaff.setWeeklyFractionalHours(ftUpdate.getWeeklyFractionalHours());
+        } else if (staff instanceof PartTimeStaffHire && update instanceof PartTimeStaffHire) {
+            ((PartTimeStaffHire) staff).setShifts(((PartTimeStaffHire) update).getShifts());
+        }
+    }
+
+    /**
+     * Replays the vacancy journal on top of the loaded snapshot, skipping
+     * entries the snapshot already includes
+     */
+    private static void replayVacancyJournal(ArrayList<Vacancy> vacancyList, long[] sequence) {
+        long snapshotSequence = sequence[0];
+        List<JournalEntry> entries = readJournal(VACANCY_JOURNAL_FILE);
+        if (entries.isEmpty()) {
+            return;
+        }
+        // First vacancy with each ID, matching the lookups in the GUI
+        IntObjectMap<Vacancy> byId = new IntObjectMap<>(vacancyList.size());
+        for (Vacancy vacancy : vacancyList) {
+            indexVacancy(byId, vacancy);
+        }
+        for (JournalEntry entry : entries) {
+            if (entry.sequence != 0 && entry.sequence <= snapshotSequence) {
+                continue;
+            }
+            sequence[0] = Math.max(sequence[0], entry.sequence);
+            if (entry.op == OP_VACANCY_ADDED) {
+                Vacancy vacancy = (Vacancy) decodeRecord(entry.payload, false);
+                if (vacancy != null) {
+                    vacancyList.add(vacancy);
+                    indexVacancy(byId, vacancy);
+                }
+            } else if (entry.op == OP_VACANCY_CLOSED || entry.op == OP_VACANCY_OPENED) {
+                Vacancy vacancy = byId.get(readIntPayload(entry.payload));
+                if (vacancy != null) {
+                    vacancy.setOpen(entry.op == OP_VACANCY_OPENED);
+                }
+            }
+        }
+    }
+
+    private static void indexVacancy(IntObjectMap<Vacancy> index, Vacancy vacancy) {
+        if (!index.containsKey(vacancy.getVacancyId())) {
+            index.put(vacancy.getVacancyId(), vacancy);
+        }
+    }
+
+    /**
+     * Reads all complete entries of a journal. A partially written last
+     * entry (e.g. after a crash) is ignored.
+     * @return the entries, empty if there is no journal
+     */
+    private static List<JournalEntry> readJournal(String journalFile) {
+        List<JournalEntry> entries = new ArrayList<>();
+        byte[] data;
+        try {
+            data = Files.readAllBytes(Paths.get(journalFile));
+        } catch (NoSuchFileException e) {
+            return entries;
+        } catch (IOException e) {
+            System.err.println("Error reading journal " + journalFile + ": " + e.getMessage());
+            return entries;
+        }
+
+        RecordCodec.Reader in = new RecordCodec.Reader(data, 0, data.length);
+        try {
+            boolean sequenced = data.length >= 4 && in.readInt() == JOURNAL_MAGIC;
+            if (!sequenced) {
+                in = new RecordCodec.Reader(data, 0, data.length);
+            }
+            while (in.hasRemaining()) {
+                byte op = (byte) in.readByte();
+                long sequence = sequenced ? in.readLong() : 0;
+                int length = in.readInt();
+                entries.add(new JournalEntry(op, sequence, in.readBytes(length)));
+            }
+        } catch (EOFException e) {
+            // Torn final entry
+        } catch (IOException e) {
+            System.err.println("Error reading journal " + journalFile + ": " + e.getMessage());
+        }
+        return entries;
+    }
+
+    /**
+     * Decodes the record of a journal entry. Entries written before the binary
+     * format was introduced hold a Java serialized object instead.
+     */
+    private static Object decodeRecord(byte[] payload, boolean staff) {
+        boolean javaSerialized = payload.length > 3
+            && (payload[0] & 0xFF) == 0xAC && (payload[1] & 0xFF) == 0xED
+            && payload[2] == 0x00 && payload[3] == 0x05;
+        try {
+            if (javaSerialized) {
+                try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+                    return in.readObject();
+                }
+            }
+            RecordCodec.Reader in = new RecordCodec.Reader(payload, 0, payload.length);
+            return staff ? RecordCodec.readStaff(in) : RecordCodec.readVacancy(in);
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Error reading journal record: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Raises a sequence counter to at least the given value
+     */
+    private static void advance(AtomicLong counter, long value) {
+        long current;
+        while ((current = counter.get()) < value) {
+            if (counter.compareAndSet(current, value)) {
+                return;
+            }
+        }
+    }
+
+    private static byte[] intPayload(int value) {
+        return new byte[] {
+            (byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value
+        };
+    }
+
+    private static int readIntPayload(byte[] payload) {
+        return ((payload[0] & 0xFF) << 24) | ((payload[1] & 0xFF) << 16)
+             | ((payload[2] & 0xFF) << 8) | (payload[3] & 0xFF);
     }
 } 
\ No newline at end of file
@@ -43,7 +43,9 @@ public class FullTimeStaffHire extends StaffHire {
      */
     public void setSalary(double salary) {
         if (isJoined()) {
+            double oldValue = this.salary;
             this.salary = salary;
+            fireChanged("salary", oldValue, salary);
         } else {
             System.out.println("No staff appointed to set the salary.");
         }
@@ -58,7 +60,9 @@ public class FullTimeStaffHire extends StaffHire {
      * @param weeklyFractionalHours the new weekly fractional hours
      */
     public void setWeeklyFractionalHours(int weeklyFractionalHours) {
+        int oldValue = this.weeklyFractionalHours;
         this.weeklyFractionalHours = weeklyFractionalHours;
+        fireChanged("weeklyFractionalHours", oldValue, weeklyFractionalHours);
     }
     
     /**
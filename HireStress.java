@@ -0,0 +1,99 @@
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HireStress class - races many hires for one vacancy through RecruitmentStore
+ *
+ * Each round adds a fresh vacancy and starts all threads at once, each
+ * trying to hire its own staff member for it. Exactly one hire must
+ * succeed, leaving the vacancy closed with one active staff member. A
+ * second pass races the hires for vacancies reopened while their staff
+ * member is still active, where every hire must fail and the vacancy must
+ * be left open. Prints the counts and exits with status 1 on any violation.
+ * Usage: java HireStress [threads] [rounds]   (default 16 threads, 2,000 rounds)
+ */
+public class HireStress {
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        RecruitmentStore store = new RecruitmentStore();
+        store.load(new ArrayList<>(), new ArrayList<>());
+        System.out.printf("%d threads, %,d rounds, %d cores%n", threads, rounds,
+                          Runtime.getRuntime().availableProcessors());
+
+        // Open vacancies: one winner per round
+        int violations = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            int vacancyId = round;
+            store.addVacancy(vacancyId, "Designation", "Temporary");
+            int hired = race(store, vacancyId, threads);
+            Vacancy vacancy = store.getVacancy(vacancyId);
+            if (hired != 1 || vacancy.isOpen() || store.getActiveStaff(vacancyId) == null) {
+                System.out.println("Round " + round + ": " + hired + " hires, open " + vacancy.isOpen());
+                violations++;
+            }
+        }
+        System.out.printf("Open vacancies:     %,d races, %,d staff, %.0f ms%n", rounds,
+                          store.getStaffCount(), (System.nanoTime() - start) / 1e6);
+        if (store.getStaffCount() != rounds) {
+            violations++;
+        }
+
+        // Reopened vacancies still held by active staff: every claim rolls back
+        start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            Vacancy vacancy = store.getVacancy(round);
+            vacancy.setOpen(true);
+            int hired = race(store, round, threads);
+            if (hired != 0 || !vacancy.isOpen()) {
+                System.out.println("Held round " + round + ": " + hired + " hires, open " + vacancy.isOpen());
+                violations++;
+            }
+        }
+        System.out.printf("Held vacancies:     %,d races, %,d staff, %.0f ms%n", rounds,
+                          store.getStaffCount(), (System.nanoTime() - start) / 1e6);
+        if (store.getStaffCount() != rounds) {
+            violations++;
+        }
+
+        System.out.println(violations == 0 ? "OK" : violations + " violations");
+        System.exit(violations == 0 ? 0 : 1);
+    }
+
+    /**
+     * Starts all threads at once, each hiring for the vacancy
+     * @return the number of hires that succeeded
+     */
+    private static int race(RecruitmentStore store, int vacancyId, int threads) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicInteger hired = new AtomicInteger();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            String name = "Staff " + vacancyId + "-" + t;
+            workers[t] = new Thread(() -> {
+                StaffHire staff = new PartTimeStaffHire(vacancyId, "Designation", "Temporary", name,
+                    "2024-01-01", "BSc", "Manager", true, 4, 15, "Morning");
+                ready.countDown();
+                try {
+                    go.await();
+                    store.hire(staff);
+                    hired.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    // Lost the race
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            workers[t].start();
+        }
+        ready.await();
+        go.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return hired.get();
+    }
+}
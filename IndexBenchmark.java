@@ -0,0 +1,128 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * IndexBenchmark class - compares lookups by vacancy number
+ *
+ * Times the linear list scans the GUI used to do against the IntObjectMap
+ * index and a boxed HashMap, for vacancies and staff.
+ * Usage: java IndexBenchmark [records]   (default 1,000,000)
+ */
+public class IndexBenchmark {
+    private static final int SCAN_LOOKUPS = 2_000;
+    private static final int INDEX_LOOKUPS = 5_000_000;
+    private static final int ROUNDS = 3;
+
+    // Keeps the JIT from discarding the lookups
+    private static long sink;
+
+    public static void main(String[] args) {
+        int records = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(42);
+
+        // Build the data, with vacancy numbers spread out like user-entered IDs
+        ArrayList<Vacancy> vacancyList = new ArrayList<>(records);
+        ArrayList<StaffHire> staffList = new ArrayList<>(records);
+        int[] ids = new int[records];
+        for (int i = 0; i < records; i++) {
+            int id = 1000 + i * 7;
+            ids[i] = id;
+            Vacancy vacancy = new Vacancy(id, "Designation " + (i % 50), "Type " + (i % 5));
+            vacancyList.add(vacancy);
+            if (i % 2 == 0) {
+                staffList.add(new PartTimeStaffHire(id, vacancy.getDesignation(), vacancy.getJobType(),
+                    "Staff " + i, "2024-01-01", "BSc", "Manager", true, 4, 15.0, "Morning"));
+            } else {
+                staffList.add(new FullTimeStaffHire(id, vacancy.getDesignation(), vacancy.getJobType(),
+                    "Staff " + i, "2024-01-01", "BSc", "Manager", true, 30000, 40));
+            }
+        }
+
+        long start = System.nanoTime();
+        IntObjectMap<Vacancy> vacancyIndex = new IntObjectMap<>(records);
+        for (Vacancy vacancy : vacancyList) {
+            vacancyIndex.put(vacancy.getVacancyId(), vacancy);
+        }
+        IntObjectMap<StaffHire> staffIndex = new IntObjectMap<>(records);
+        for (StaffHire staff : staffList) {
+            staffIndex.put(staff.getVacancyNumber(), staff);
+        }
+        long intMapBuild = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        HashMap<Integer, Vacancy> boxedVacancyIndex = new HashMap<>(records * 2);
+        for (Vacancy vacancy : vacancyList) {
+            boxedVacancyIndex.put(vacancy.getVacancyId(), vacancy);
+        }
+        long hashMapBuild = System.nanoTime() - start;
+
+        System.out.printf("%,d vacancies and %,d staff%n", records, records);
+        System.out.printf("Index build: IntObjectMap %.1f ms, HashMap %.1f ms%n",
+            intMapBuild / 1e6, hashMapBuild / 1e6);
+
+        // Keys to look up: mostly hits, some misses
+        int[] keys = new int[INDEX_LOOKUPS];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt(10) == 0 ? -random.nextInt(records) : ids[random.nextInt(records)];
+        }
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.println("Round " + round);
+            report("Vacancy scan", SCAN_LOOKUPS, () -> {
+                for (int i = 0; i < SCAN_LOOKUPS; i++) {
+                    sink += scanOpenVacancy(vacancyList, keys[i]) != null ? 1 : 0;
+                }
+            });
+            report("Vacancy IntObjectMap", INDEX_LOOKUPS, () -> {
+                for (int key : keys) {
+                    Vacancy vacancy = vacancyIndex.get(key);
+                    sink += vacancy != null && vacancy.isOpen() ? 1 : 0;
+                }
+            });
+            report("Vacancy HashMap", INDEX_LOOKUPS, () -> {
+                for (int key : keys) {
+                    Vacancy vacancy = boxedVacancyIndex.get(key);
+                    sink += vacancy != null && vacancy.isOpen() ? 1 : 0;
+                }
+            });
+            report("Staff scan", SCAN_LOOKUPS, () -> {
+                for (int i = 0; i < SCAN_LOOKUPS; i++) {
+                    sink += scanActiveStaff(staffList, keys[i]) != null ? 1 : 0;
+                }
+            });
+            report("Staff IntObjectMap", INDEX_LOOKUPS, () -> {
+                for (int key : keys) {
+                    StaffHire staff = staffIndex.get(key);
+                    sink += staff != null && staff.isActive() ? 1 : 0;
+                }
+            });
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    private static Vacancy scanOpenVacancy(ArrayList<Vacancy> vacancyList, int vacancyId) {
+        for (Vacancy vacancy : vacancyList) {
+            if (vacancy.getVacancyId() == vacancyId && vacancy.isOpen()) {
+                return vacancy;
+            }
+        }
+        return null;
+    }
+
+    private static StaffHire scanActiveStaff(ArrayList<StaffHire> staffList, int vacancyNumber) {
+        for (StaffHire staff : staffList) {
+            if (staff.getVacancyNumber() == vacancyNumber && staff.isActive()) {
+                return staff;
+            }
+        }
+        return null;
+    }
+
+    private static void report(String name, int lookups, Runnable run) {
+        long start = System.nanoTime();
+        run.run();
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("  %-22s %,12.1f ns/lookup%n", name, (double) elapsed / lookups);
+    }
+}
@@ -0,0 +1,151 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * LoadTest class - drives a running RecruitmentServer with many concurrent requests
+ *
+ * Keeps up to the given number of requests in flight at once over
+ * asynchronous HTTP/1.1 connections and prints the requests per second,
+ * the latency percentiles and the count of each response status. Reads
+ * are a mix of summaries and lookups of vacancies and staff, with IDs
+ * picked at random from the vacancies the server lists; the given
+ * percentage of requests are writes instead, each adding a vacancy
+ * numbered from the first write ID and then hiring for it, so runs with
+ * writes change the server's data. IDs that already exist get 409.
+ * Usage: java LoadTest [url] [requests] [concurrency] [write-percent] [first-write-id]
+ *        (default http://localhost:8080, 100,000 requests, 256 in flight, 0% writes, ID 1,000,000,000)
+ */
+public class LoadTest {
+    private static final Pattern VACANCY_ID = Pattern.compile("\"vacancyId\":(-?\\d+)");
+    private static final Pattern NEXT_CURSOR = Pattern.compile("\"nextCursor\":\"(\\d+)\"");
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0].replaceAll("/+$", "") : "http://localhost:8080";
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+        int writePercent = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        int firstWriteId = args.length > 4 ? Integer.parseInt(args[4]) : 1_000_000_000;
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+        String summary = client.send(HttpRequest.newBuilder(URI.create(url + "/summary")).build(),
+                                     HttpResponse.BodyHandlers.ofString()).body();
+        System.out.println("Server: " + summary);
+        // Random lookups are spread over the vacancy IDs the server has
+        int[] vacancyIds = readVacancyIds(client, url);
+
+        Semaphore inFlight = new Semaphore(concurrency);
+        long[] latencies = new long[requests];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicLong failures = new AtomicLong();
+        Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+        AtomicInteger nextWriteId = new AtomicInteger(firstWriteId);
+        Random random = new Random(42);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            HttpRequest request;
+            boolean write = random.nextInt(100) < writePercent;
+            int vacancyId = write ? nextWriteId.getAndIncrement() : vacancyIds[random.nextInt(vacancyIds.length)];
+            if (write) {
+                request = post(url + "/vacancies", "{\"vacancyId\":" + vacancyId
+                               + ",\"designation\":\"Load Test\",\"jobType\":\"Temporary\"}");
+            } else if (i % 3 == 0) {
+                request = HttpRequest.newBuilder(URI.create(url + "/summary")).build();
+            } else if (i % 3 == 1) {
+                request = HttpRequest.newBuilder(URI.create(url + "/vacancies/" + vacancyId)).build();
+            } else {
+                request = HttpRequest.newBuilder(URI.create(url + "/staff/" + vacancyId)).build();
+            }
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenCompose(response -> !write || response.statusCode() != 201 ? completedWith(response)
+                    : client.sendAsync(post(url + "/hires", "{\"type\":\"part-time\",\"vacancyNumber\":" + vacancyId
+                        + ",\"staffName\":\"Load " + vacancyId + "\",\"joiningDate\":\"2024-01-01\","
+                        + "\"qualification\":\"BSc\",\"appointedBy\":\"LoadTest\",\"joined\":true,"
+                        + "\"workingHour\":4,\"wagesPerHour\":15,\"shifts\":\"Morning\"}"),
+                        HttpResponse.BodyHandlers.ofString()))
+                .whenComplete((response, error) -> {
+                    latencies[index] = System.nanoTime() - sent;
+                    if (error != null) {
+                        failures.incrementAndGet();
+                    } else {
+                        statuses.computeIfAbsent(response.statusCode(), s -> new AtomicInteger()).incrementAndGet();
+                    }
+                    completed.incrementAndGet();
+                    inFlight.release();
+                });
+        }
+        inFlight.acquire(concurrency);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("%,d requests, %d in flight, %d%% writes: %.1f s, %,.0f requests/s%n",
+                          completed.get(), concurrency, writePercent, seconds, completed.get() / seconds);
+        System.out.printf("Latency ms: p50 %.2f, p90 %.2f, p99 %.2f, max %.2f%n",
+                          percentile(latencies, 50), percentile(latencies, 90),
+                          percentile(latencies, 99), latencies[requests - 1] / 1e6);
+        System.out.println("Statuses: " + new TreeMap<>(statuses) + ", failed: " + failures.get());
+        System.exit(failures.get() > 0 ? 1 : 0);
+    }
+
+    /**
+     * Reads the IDs of all the server's vacancies, a page at a time
+     * @return the IDs, or just 0 if there are none, so lookups get 404
+     */
+    private static int[] readVacancyIds(HttpClient client, String url) throws IOException, InterruptedException {
+        int[] ids = new int[1024];
+        int count = 0;
+        String cursor = null;
+        do {
+            String page = client.send(HttpRequest.newBuilder(URI.create(url + "/vacancies?fields=vacancyId&limit=1000"
+                                          + (cursor != null ? "&cursor=" + cursor : ""))).build(),
+                                      HttpResponse.BodyHandlers.ofString()).body();
+            Matcher id = VACANCY_ID.matcher(page);
+            while (id.find()) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                }
+                ids[count++] = Integer.parseInt(id.group(1));
+            }
+            Matcher next = NEXT_CURSOR.matcher(page);
+            cursor = next.find() ? next.group(1) : null;
+        } while (cursor != null);
+        return count > 0 ? Arrays.copyOf(ids, count) : new int[] {0};
+    }
+
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json))
+            .build();
+    }
+
+    private static <T> CompletableFuture<T> completedWith(T value) {
+        return CompletableFuture.completedFuture(value);
+    }
+
+    private static double percentile(long[] sorted, int percent) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percent / 100)] / 1e6;
+    }
+}
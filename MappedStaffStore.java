@@ -0,0 +1,676 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * MappedStaffStore class - staff records kept in memory-mapped files and
+ * changed in place
+ *
+ * Each staff record has a fixed-size slot at its ordinal, so the slots are
+ * in the order of the staff list and a vacancy hired again gets a new slot
+ * after the one of the terminated holder. Numeric fields and flags live
+ * directly in the slot; the text fields are kept in a separate string file
+ * and the slot holds their offset and length. Terminating staff or
+ * changing their salary, weekly hours or shifts writes a few bytes of one
+ * slot instead of a journal entry, and nothing has to be replayed at start.
+ *
+ * Designations, job types and shifts repeat across records and are stored
+ * once each. The text of terminated staff is left behind unused in the
+ * string file; once it is over half the file, open() writes both files
+ * again without it. Files are only ever replaced by writing new copies and
+ * renaming them over the old ones, never while they are mapped, and a
+ * replacement cut short is finished or dropped the next time they are
+ * opened.
+ *
+ * Changes reach the disk when the system writes the mapped pages back, or
+ * at once with force().
+ */
+public class MappedStaffStore implements Closeable {
+    // Default file paths
+    public static final String SLOT_FILE = "staff_slots.dat";
+    public static final String STRING_FILE = "staff_strings.dat";
+
+    // File layout
+    private static final int SLOT_MAGIC = 0x53524D53;  // "SRMS"
+    private static final int HEAP_MAGIC = 0x53524D48;  // "SRMH"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int SLOT_SIZE = 80;
+    private static final int INITIAL_SLOTS = 1024;
+    private static final int INITIAL_HEAP = 64 * 1024;
+    // Unused text the string file may hold before it is written again
+    private static final long MIN_COMPACTION_BYTES = 1024 * 1024;
+
+    // Slot file header offsets
+    private static final int SLOT_COUNT = 8;
+    private static final int SLOT_GENERATION = 16;
+    private static final int SYNC_MILLIS = 24;
+
+    // String file header offsets
+    private static final int HEAP_END = 8;
+    private static final int HEAP_GENERATION = 16;
+    private static final int HEAP_GARBAGE = 24;
+
+    // Slot field offsets
+    private static final int TAG = 0;
+    private static final int FLAGS = 1;
+    private static final int VACANCY_NUMBER = 4;
+    private static final int AMOUNT = 8;        // salary or wages per hour
+    private static final int HOURS = 16;        // weekly hours or working hours
+    private static final int DESIGNATION = 24;
+    private static final int JOB_TYPE = 32;
+    private static final int STAFF_NAME = 40;
+    private static final int JOINING_DATE = 48;
+    private static final int QUALIFICATION = 56;
+    private static final int APPOINTED_BY = 64;
+    private static final int SHIFTS = 72;
+
+    // Record tags and flags
+    private static final byte TAG_EMPTY = 0;
+    private static final byte TAG_STAFF = 1;
+    private static final byte TAG_FULL_TIME = 2;
+    private static final byte TAG_PART_TIME = 3;
+    private static final int FLAG_JOINED = 1;
+    private static final int FLAG_ACTIVE = 1 << 1;
+    private static final int FLAG_TERMINATED = 1 << 2;
+
+    private final FileChannel slotChannel;
+    private final FileChannel heapChannel;
+    // Mapped files, or plain buffers while files are read or written whole
+    private final boolean mapped;
+    private ByteBuffer slots;
+    private ByteBuffer heap;
+    private int slotCount;
+    private long heapEnd;
+    // Set once a change could not be written, so the store must not be marked in step
+    private boolean failed;
+
+    // Where each designation, job type and shifts value already is in the string file
+    private final HashMap<String, Integer> sharedStrings = new HashMap<>();
+
+    private MappedStaffStore(FileChannel slotChannel, FileChannel heapChannel, boolean mapped) {
+        this.slotChannel = slotChannel;
+        this.heapChannel = heapChannel;
+        this.mapped = mapped;
+    }
+
+    /**
+     * Opens the store, first filling it with the staff in staff_data.dat and
+     * the staff journal if it does not exist yet or they have changed since
+     * the store was last in step with them, as after running without it
+     * @param slotFile the file holding the fixed-size slots
+     * @param heapFile the file holding the text fields
+     * @return the opened store
+     * @throws UncheckedIOException if the staff data file cannot be read
+     */
+    public static MappedStaffStore openWithStaffData(String slotFile, String heapFile) throws IOException {
+        finishReplacement(slotFile, heapFile);
+        long staffDataModified = Math.max(new File(FileHandler.STAFF_FILE).lastModified(),
+                                          new File(FileHandler.STAFF_JOURNAL_FILE).lastModified());
+        if (!new File(slotFile).exists() || readSyncMillis(slotFile) < staffDataModified) {
+            ArrayList<StaffHire> staffList = FileHandler.loadStaffData();
+            // Staff changes are not journaled from now on, so the journal is folded in first
+            if (new File(FileHandler.STAFF_JOURNAL_FILE).length() > 0 && !FileHandler.saveStaffData(staffList)) {
+                throw new IOException("Could not fold the staff journal into " + FileHandler.STAFF_FILE);
+            }
+            replace(slotFile, heapFile, staffList, System.currentTimeMillis());
+            System.out.println("Imported " + staffList.size() + " staff records into " + slotFile);
+        }
+        return open(slotFile, heapFile);
+    }
+
+    /**
+     * Opens the store, creating empty files if they do not exist, and
+     * writes the files again first if the string file is mostly unused
+     * @param slotFile the file holding the fixed-size slots
+     * @param heapFile the file holding the text fields
+     * @return the opened store
+     */
+    public static MappedStaffStore open(String slotFile, String heapFile) throws IOException {
+        finishReplacement(slotFile, heapFile);
+        if (!new File(slotFile).exists()) {
+            replace(slotFile, heapFile, new ArrayList<>(), System.currentTimeMillis());
+        } else if (needsCompaction(heapFile)) {
+            ArrayList<StaffHire> staffList;
+            long syncMillis;
+            try (MappedStaffStore current = read(slotFile, heapFile)) {
+                staffList = current.loadAll();
+                syncMillis = current.getSyncMillis();
+            }
+            replace(slotFile, heapFile, staffList, syncMillis);
+        }
+
+        FileChannel slotChannel = FileChannel.open(Paths.get(slotFile),
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel heapChannel;
+        try {
+            heapChannel = FileChannel.open(Paths.get(heapFile),
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            slotChannel.close();
+            throw e;
+        }
+        MappedStaffStore store = new MappedStaffStore(slotChannel, heapChannel, true);
+        try {
+            store.slots = slotChannel.map(FileChannel.MapMode.READ_WRITE, 0, slotChannel.size());
+            store.heap = heapChannel.map(FileChannel.MapMode.READ_WRITE, 0, heapChannel.size());
+            store.checkHeaders();
+        } catch (IOException e) {
+            store.close();
+            throw e;
+        }
+        return store;
+    }
+
+    // Changes
+
+    /**
+     * Writes a new staff record into the slot of its ordinal, which must be
+     * the next free slot. Nothing is thrown; errors are printed.
+     * @param staff the staff to store
+     * @return true if the record was written
+     */
+    public synchronized boolean put(StaffHire staff) {
+        if (staff.getOrdinal() != slotCount) {
+            System.err.println("Error writing staff record: slot " + staff.getOrdinal()
+                               + " is not the next free slot " + slotCount);
+            failed = true;
+            return false;
+        }
+        try {
+            writeSlot(slotCount, staff);
+            slotCount++;
+            slots.putInt(SLOT_COUNT, slotCount);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing staff record: " + e.getMessage());
+            failed = true;
+            return false;
+        }
+    }
+
+    /**
+     * Terminates part-time staff in place, clearing the same fields as
+     * PartTimeStaffHire.terminateStaff
+     * @param ordinal the ordinal of the staff
+     * @return true if the staff was terminated
+     */
+    public synchronized boolean terminate(int ordinal) {
+        if (ordinal < 0 || ordinal >= slotCount || slots.get(slotOffset(ordinal) + TAG) != TAG_PART_TIME) {
+            System.err.println("Error terminating staff record: slot " + ordinal + " holds no part-time staff");
+            failed = true;
+            return false;
+        }
+        int base = slotOffset(ordinal);
+        long garbage = heap.getLong(HEAP_GARBAGE);
+        garbage += clearString(base + STAFF_NAME);
+        garbage += clearString(base + JOINING_DATE);
+        garbage += clearString(base + QUALIFICATION);
+        garbage += clearString(base + APPOINTED_BY);
+        heap.putLong(HEAP_GARBAGE, garbage);
+        slots.put(base + FLAGS, (byte) FLAG_TERMINATED);
+        return true;
+    }
+
+    /**
+     * Writes the salary, weekly hours, shifts and flags of a changed staff
+     * record into its slot. Nothing is thrown; errors are printed.
+     * @param staff the changed staff
+     * @return true if the slot was updated
+     */
+    public synchronized boolean update(StaffHire staff) {
+        int ordinal = staff.getOrdinal();
+        if (ordinal < 0 || ordinal >= slotCount) {
+            System.err.println("Error updating staff record: no slot " + ordinal);
+            failed = true;
+            return false;
+        }
+        try {
+            int base = slotOffset(ordinal);
+            if (staff instanceof PartTimeStaffHire) {
+                putString(base + SHIFTS, ((PartTimeStaffHire) staff).getShifts(), true);
+            }
+            writeNumbers(base, staff);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error updating staff record: " + e.getMessage());
+            failed = true;
+            return false;
+        }
+    }
+
+    // Reading
+
+    /**
+     * Reads every stored staff record in slot order, which is ordinal order
+     * @return the list of staff
+     * @throws IOException if a slot is empty or points outside the string file
+     */
+    public synchronized ArrayList<StaffHire> loadAll() throws IOException {
+        ArrayList<StaffHire> staffList = new ArrayList<>(slotCount);
+        for (int slot = 0; slot < slotCount; slot++) {
+            staffList.add(readSlot(slot));
+        }
+        return staffList;
+    }
+
+    /**
+     * Returns the number of stored records
+     */
+    public synchronized int size() {
+        return slotCount;
+    }
+
+    /**
+     * Returns when the store was last marked in step with staff_data.dat
+     */
+    public synchronized long getSyncMillis() {
+        return slots.getLong(SYNC_MILLIS);
+    }
+
+    /**
+     * Records that staff_data.dat has just been saved with the same staff,
+     * so the next openWithStaffData does not import it again. Does nothing
+     * once a change could not be written, so the next start imports the
+     * saved staff instead.
+     * @return true if the store was marked
+     */
+    public synchronized boolean markInStep() {
+        if (failed) {
+            return false;
+        }
+        slots.putLong(SYNC_MILLIS, System.currentTimeMillis());
+        force();
+        return true;
+    }
+
+    /**
+     * Flushes the mapped files to disk
+     */
+    public synchronized void force() {
+        if (mapped) {
+            // The strings first, so no slot on disk points at unwritten text
+            ((MappedByteBuffer) heap).force();
+            ((MappedByteBuffer) slots).force();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (slots != null && heap != null) {
+                force();
+            }
+        } finally {
+            try {
+                slotChannel.close();
+            } finally {
+                heapChannel.close();
+            }
+        }
+    }
+
+    // Slots
+
+    private static int slotOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private void writeSlot(int slot, StaffHire staff) throws IOException {
+        ensureSlotCapacity(slot + 1);
+        int base = slotOffset(slot);
+        byte tag = TAG_STAFF;
+        String shifts = "";
+        if (staff instanceof FullTimeStaffHire) {
+            tag = TAG_FULL_TIME;
+        } else if (staff instanceof PartTimeStaffHire) {
+            tag = TAG_PART_TIME;
+            shifts = ((PartTimeStaffHire) staff).getShifts();
+        }
+        slots.put(base + TAG, TAG_EMPTY);
+        slots.putInt(base + VACANCY_NUMBER, staff.getVacancyNumber());
+        writeNumbers(base, staff);
+        putString(base + DESIGNATION, staff.getDesignation(), true);
+        putString(base + JOB_TYPE, staff.getJobType(), true);
+        putString(base + STAFF_NAME, staff.getStaffName(), false);
+        putString(base + JOINING_DATE, staff.getJoiningDate(), false);
+        putString(base + QUALIFICATION, staff.getQualification(), false);
+        putString(base + APPOINTED_BY, staff.getAppointedBy(), false);
+        putString(base + SHIFTS, shifts, true);
+        // The tag is written last so a half-written slot reads as empty
+        slots.put(base + TAG, tag);
+    }
+
+    // Writes the flags and the numeric fields of a record into its slot
+    private void writeNumbers(int base, StaffHire staff) {
+        int flags = (staff.isJoined() ? FLAG_JOINED : 0) | (staff.isActive() ? FLAG_ACTIVE : 0);
+        double amount = 0;
+        int hours = 0;
+        if (staff instanceof FullTimeStaffHire) {
+            FullTimeStaffHire ftStaff = (FullTimeStaffHire) staff;
+            amount = ftStaff.getSalary();
+            hours = ftStaff.getWeeklyFractionalHours();
+        } else if (staff instanceof PartTimeStaffHire) {
+            PartTimeStaffHire ptStaff = (PartTimeStaffHire) staff;
+            amount = ptStaff.getWagesPerHour();
+            hours = ptStaff.getWorkingHour();
+            if (ptStaff.isTerminated()) {
+                flags |= FLAG_TERMINATED;
+            }
+        }
+        slots.put(base + FLAGS, (byte) flags);
+        slots.putDouble(base + AMOUNT, amount);
+        slots.putInt(base + HOURS, hours);
+    }
+
+    private StaffHire readSlot(int slot) throws IOException {
+        int base = slotOffset(slot);
+        byte tag = slots.get(base + TAG);
+        if (tag == TAG_EMPTY) {
+            throw new IOException("Staff slot " + slot + " is empty");
+        }
+        int flags = slots.get(base + FLAGS);
+        int vacancyNumber = slots.getInt(base + VACANCY_NUMBER);
+        double amount = slots.getDouble(base + AMOUNT);
+        int hours = slots.getInt(base + HOURS);
+        String designation = getString(base + DESIGNATION, true);
+        String jobType = getString(base + JOB_TYPE, true);
+        String staffName = getString(base + STAFF_NAME, false);
+        String joiningDate = getString(base + JOINING_DATE, false);
+        String qualification = getString(base + QUALIFICATION, false);
+        String appointedBy = getString(base + APPOINTED_BY, false);
+        boolean joined = (flags & FLAG_JOINED) != 0;
+
+        StaffHire staff;
+        if (tag == TAG_FULL_TIME) {
+            staff = new FullTimeStaffHire(vacancyNumber, designation, jobType, staffName,
+                                          joiningDate, qualification, appointedBy, joined,
+                                          amount, hours);
+        } else if (tag == TAG_PART_TIME) {
+            PartTimeStaffHire ptStaff = new PartTimeStaffHire(vacancyNumber, designation, jobType,
+                                                              staffName, joiningDate, qualification,
+                                                              appointedBy, joined, hours, amount,
+                                                              getString(base + SHIFTS, true));
+            ptStaff.setTerminated((flags & FLAG_TERMINATED) != 0);
+            staff = ptStaff;
+        } else {
+            staff = new StaffHire(vacancyNumber, designation, jobType, staffName,
+                                  joiningDate, qualification, appointedBy, joined);
+        }
+        staff.setActive((flags & FLAG_ACTIVE) != 0);
+        return staff;
+    }
+
+    // Strings
+
+    /**
+     * Stores a string and puts its offset and length at a slot position.
+     * A shared string already in the string file is not stored again.
+     */
+    private void putString(int position, String value, boolean shared) throws IOException {
+        if (value == null || value.isEmpty()) {
+            clearString(position);
+            return;
+        }
+        Integer existing = shared ? sharedStrings.get(value) : null;
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int offset;
+        if (existing != null) {
+            offset = existing;
+        } else {
+            ensureHeapCapacity(heapEnd + bytes.length);
+            offset = (int) heapEnd;
+            ByteBuffer target = heap.duplicate();
+            target.position(offset);
+            target.put(bytes);
+            heapEnd += bytes.length;
+            heap.putLong(HEAP_END, heapEnd);
+            if (shared) {
+                sharedStrings.put(value, offset);
+            }
+        }
+        slots.putInt(position, offset);
+        slots.putInt(position + 4, bytes.length);
+    }
+
+    /**
+     * Clears the string at a slot position
+     * @return the number of bytes it used
+     */
+    private int clearString(int position) {
+        int length = slots.getInt(position + 4);
+        slots.putInt(position, 0);
+        slots.putInt(position + 4, 0);
+        return length;
+    }
+
+    private String getString(int position, boolean shared) throws IOException {
+        int offset = slots.getInt(position);
+        int length = slots.getInt(position + 4);
+        if (length == 0) {
+            return "";
+        }
+        if (offset < HEADER_SIZE || length < 0 || length > heapEnd - offset) {
+            throw new IOException("Staff slot points outside the string file");
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer source = heap.duplicate();
+        source.position(offset);
+        source.get(bytes);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        if (shared) {
+            sharedStrings.putIfAbsent(value, offset);
+        }
+        return value;
+    }
+
+    private void ensureSlotCapacity(int count) throws IOException {
+        long needed = HEADER_SIZE + (long) count * SLOT_SIZE;
+        if (needed > slots.capacity()) {
+            long size = Math.max(needed, HEADER_SIZE + 2L * Math.max(INITIAL_SLOTS * SLOT_SIZE, slots.capacity() - HEADER_SIZE));
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Staff slot file is full");
+            }
+            slots = grow(slots, slotChannel, (int) size);
+        }
+    }
+
+    private void ensureHeapCapacity(long needed) throws IOException {
+        if (needed > heap.capacity()) {
+            long size = Math.max(needed, 2L * Math.max(INITIAL_HEAP, heap.capacity()));
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Staff string file is full");
+            }
+            heap = grow(heap, heapChannel, (int) size);
+        }
+    }
+
+    private ByteBuffer grow(ByteBuffer buffer, FileChannel channel, int size) throws IOException {
+        if (mapped) {
+            ((MappedByteBuffer) buffer).force();
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        ByteBuffer grown = ByteBuffer.allocate(size);
+        grown.put(buffer.duplicate().clear());
+        return grown;
+    }
+
+    // Whole files
+
+    private void checkHeaders() throws IOException {
+        if (slots.capacity() < HEADER_SIZE || slots.getInt(0) != SLOT_MAGIC || slots.getInt(4) != VERSION) {
+            throw new IOException("Not a staff slot file");
+        }
+        if (heap.capacity() < HEADER_SIZE || heap.getInt(0) != HEAP_MAGIC || heap.getInt(4) != VERSION) {
+            throw new IOException("Not a staff string file");
+        }
+        if (slots.getLong(SLOT_GENERATION) != heap.getLong(HEAP_GENERATION)) {
+            throw new IOException("Staff slot and string files were not written together");
+        }
+        slotCount = slots.getInt(SLOT_COUNT);
+        heapEnd = heap.getLong(HEAP_END);
+        if (slotCount < 0 || slotOffset(0) + (long) slotCount * SLOT_SIZE > slots.capacity()
+            || heapEnd < HEADER_SIZE || heapEnd > heap.capacity()) {
+            throw new IOException("Staff slot or string file is truncated");
+        }
+    }
+
+    /**
+     * Reads both files whole into plain buffers, without mapping them, so
+     * they can be replaced afterwards
+     */
+    private static MappedStaffStore read(String slotFile, String heapFile) throws IOException {
+        FileChannel slotChannel = FileChannel.open(Paths.get(slotFile), StandardOpenOption.READ);
+        FileChannel heapChannel;
+        try {
+            heapChannel = FileChannel.open(Paths.get(heapFile), StandardOpenOption.READ);
+        } catch (IOException e) {
+            slotChannel.close();
+            throw e;
+        }
+        MappedStaffStore store = new MappedStaffStore(slotChannel, heapChannel, false);
+        try {
+            store.slots = readWhole(slotChannel);
+            store.heap = readWhole(heapChannel);
+            store.checkHeaders();
+        } catch (IOException e) {
+            store.close();
+            throw e;
+        }
+        return store;
+    }
+
+    private static ByteBuffer readWhole(FileChannel channel) throws IOException {
+        if (channel.size() > Integer.MAX_VALUE) {
+            throw new IOException("Staff store file is too large");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // Keep reading until the buffer is full
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Reads the header of a file
+     * @return the header, or null if the file is shorter than a header or
+     *         does not start with the magic number
+     */
+    private static ByteBuffer readHeader(Path file, int magic) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header is full
+            }
+            return header.hasRemaining() || header.getInt(0) != magic ? null : header;
+        }
+    }
+
+    private static long readSyncMillis(String slotFile) throws IOException {
+        ByteBuffer header = readHeader(Paths.get(slotFile), SLOT_MAGIC);
+        return header == null ? 0 : header.getLong(SYNC_MILLIS);
+    }
+
+    private static boolean needsCompaction(String heapFile) throws IOException {
+        ByteBuffer header = readHeader(Paths.get(heapFile), HEAP_MAGIC);
+        if (header == null) {
+            return false;
+        }
+        long garbage = header.getLong(HEAP_GARBAGE);
+        long used = header.getLong(HEAP_END) - HEADER_SIZE;
+        return garbage >= MIN_COMPACTION_BYTES && garbage * 2 > used;
+    }
+
+    /**
+     * Replaces both files with new ones holding the given records, in slot
+     * order. The string file is renamed into place first, then the slot
+     * file; finishReplacement completes or drops a replacement cut short.
+     */
+    private static void replace(String slotFile, String heapFile, List<StaffHire> staffList,
+                                long syncMillis) throws IOException {
+        Path slotTemp = Paths.get(slotFile + ".tmp");
+        Path heapTemp = Paths.get(heapFile + ".tmp");
+        long generation = System.currentTimeMillis();
+        try (FileChannel slotChannel = FileChannel.open(slotTemp, StandardOpenOption.CREATE,
+                 StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             FileChannel heapChannel = FileChannel.open(heapTemp, StandardOpenOption.CREATE,
+                 StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            MappedStaffStore store = new MappedStaffStore(slotChannel, heapChannel, false);
+            store.slots = ByteBuffer.allocate(HEADER_SIZE + Math.max(1, staffList.size()) * SLOT_SIZE);
+            store.heap = ByteBuffer.allocate(INITIAL_HEAP);
+            store.slots.putInt(0, SLOT_MAGIC);
+            store.slots.putInt(4, VERSION);
+            store.slots.putLong(SLOT_GENERATION, generation);
+            store.slots.putLong(SYNC_MILLIS, syncMillis);
+            store.heap.putInt(0, HEAP_MAGIC);
+            store.heap.putInt(4, VERSION);
+            store.heap.putLong(HEAP_GENERATION, generation);
+            store.heapEnd = HEADER_SIZE;
+            store.heap.putLong(HEAP_END, store.heapEnd);
+            for (StaffHire staff : staffList) {
+                store.writeSlot(store.slotCount++, staff);
+            }
+            store.slots.putInt(SLOT_COUNT, store.slotCount);
+
+            writeWhole(slotChannel, store.slots, slotOffset(store.slotCount));
+            writeWhole(heapChannel, store.heap, (int) store.heapEnd);
+            slotChannel.force(true);
+            heapChannel.force(true);
+        }
+        rename(heapTemp, Paths.get(heapFile));
+        rename(slotTemp, Paths.get(slotFile));
+    }
+
+    private static void writeWhole(FileChannel channel, ByteBuffer buffer, int length) throws IOException {
+        ByteBuffer source = buffer.duplicate();
+        source.position(0).limit(length);
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    /**
+     * Completes or drops a replacement cut short. While the new string file
+     * is still there no old file was replaced, so the new ones are dropped;
+     * once the string file was replaced, the new slot file written with it
+     * must follow.
+     */
+    private static void finishReplacement(String slotFile, String heapFile) throws IOException {
+        Path slotTemp = Paths.get(slotFile + ".tmp");
+        Path heapTemp = Paths.get(heapFile + ".tmp");
+        if (Files.exists(slotTemp) && !Files.exists(heapTemp) && Files.exists(Paths.get(heapFile))
+            && writtenTogether(slotTemp, Paths.get(heapFile))) {
+            rename(slotTemp, Paths.get(slotFile));
+        } else {
+            Files.deleteIfExists(slotTemp);
+            Files.deleteIfExists(heapTemp);
+        }
+    }
+
+    private static boolean writtenTogether(Path slotFile, Path heapFile) throws IOException {
+        ByteBuffer slotHeader = readHeader(slotFile, SLOT_MAGIC);
+        ByteBuffer heapHeader = readHeader(heapFile, HEAP_MAGIC);
+        return slotHeader != null && heapHeader != null
+               && slotHeader.getLong(SLOT_GENERATION) == heapHeader.getLong(HEAP_GENERATION);
+    }
+
+    private static void rename(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
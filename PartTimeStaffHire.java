@@ -1,3 +1,8 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+
 /**
  * PartTimeStaffHire class - represents a part-time staff hire
  * Extends the StaffHire class to include part-time specific attributes and methods
@@ -5,9 +10,17 @@
 public class PartTimeStaffHire extends StaffHire {
     private static final long serialVersionUID = 1L;
     
+    // Saved form of the record, unchanged from when shifts was held as a String
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("workingHour", int.class),
+        new ObjectStreamField("wagesPerHour", double.class),
+        new ObjectStreamField("shifts", String.class),
+        new ObjectStreamField("terminated", boolean.class)
+    };
+    
     private int workingHour;
     private double wagesPerHour;
-    private String shifts;
+    private int shiftsCode;  // StringDictionary code
     private boolean terminated;
     
     /**
@@ -32,7 +45,7 @@ public class PartTimeStaffHire extends StaffHire {
               qualification, appointedBy, joined);
         this.workingHour = workingHour;
         this.wagesPerHour = wagesPerHour;
-        this.shifts = shifts;
+        this.shiftsCode = StringDictionary.global().intern(shifts);
         this.terminated = false;
     }
     
@@ -46,13 +59,27 @@ public class PartTimeStaffHire extends StaffHire {
     }
     
     public String getShifts() {
-        return shifts;
+        return StringDictionary.global().get(shiftsCode);
+    }
+    
+    int getShiftsCode() {
+        return shiftsCode;
     }
     
     public boolean isTerminated() {
         return terminated;
     }
-    
+
+    /**
+     * Restores the terminated flag when loading a saved record
+     * @param terminated whether the staff has been terminated
+     */
+    void setTerminated(boolean terminated) {
+        boolean oldValue = this.terminated;
+        this.terminated = terminated;
+        fireChanged("terminated", oldValue, terminated);
+    }
+
     /**
      * Method to set the shifts
      * Only allows setting if staff has joined and not terminated
@@ -60,7 +87,9 @@ public class PartTimeStaffHire extends StaffHire {
      */
     public void setShifts(String shifts) {
         if (isJoined() && !terminated) {
-            this.shifts = shifts;
+            String oldValue = getShifts();
+            this.shiftsCode = StringDictionary.global().intern(shifts);
+            fireChanged("shifts", oldValue, shifts);
         } else {
             System.out.println("Staff has not joined or has been terminated. Cannot change shifts.");
         }
@@ -74,17 +103,48 @@ public class PartTimeStaffHire extends StaffHire {
         if (terminated) {
             System.out.println("Staff is already terminated.");
         } else {
-            setStaffName("");
-            setJoiningDate("");
-            setQualification("");
-            setAppointedBy("");
-            setJoined(false);
-            setActive(false);
-            this.terminated = true;
+            applyTermination();
             System.out.println("Staff has been terminated.");
         }
     }
     
+    /**
+     * Clears the staff details and marks the staff as terminated
+     * without printing, e.g. when replaying saved changes
+     */
+    void applyTermination() {
+        setStaffName("");
+        setJoiningDate("");
+        setQualification("");
+        setAppointedBy("");
+        setJoined(false);
+        setActive(false);
+        setTerminated(true);
+    }
+    
+    /**
+     * Writes the record in its saved form
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("workingHour", workingHour);
+        fields.put("wagesPerHour", wagesPerHour);
+        fields.put("shifts", getShifts());
+        fields.put("terminated", terminated);
+        out.writeFields();
+    }
+    
+    /**
+     * Reads the record from its saved form
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        workingHour = fields.get("workingHour", 0);
+        wagesPerHour = fields.get("wagesPerHour", 0.0);
+        shiftsCode = StringDictionary.global().intern((String) fields.get("shifts", null));
+        terminated = fields.get("terminated", false);
+    }
+    
     /**
      * Method to display the details of the part-time staff
      * Overrides the display method in the StaffHire class
@@ -95,7 +155,7 @@ public class PartTimeStaffHire extends StaffHire {
         if (isJoined() && !terminated) {
             System.out.println("Working Hours: " + workingHour);
             System.out.println("Wages Per Hour: " + wagesPerHour);
-            System.out.println("Shifts: " + shifts);
+            System.out.println("Shifts: " + getShifts());
             System.out.println("Income per Day: " + (workingHour * wagesPerHour));
         }
         System.out.println("Terminated: " + (terminated ? "Yes" : "No"));
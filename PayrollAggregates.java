@@ -0,0 +1,179 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * PayrollAggregates class - running payroll totals and headcounts
+ *
+ * Keeps the total salary and weekly hours of full-time staff, the total
+ * income per day of part-time staff (working hours times wages per hour)
+ * and the headcount per designation and job type up to date as records are
+ * hired, terminated or changed. Each change takes the record's old share out
+ * of the totals and adds its new share, so reading a total never looks at
+ * the staff list.
+ *
+ * Only staff who are active and not terminated are counted. Follows the
+ * records through RecordChangeListener, so it must be added to the
+ * RecordChangeDispatcher the records are attached to. Not thread-safe.
+ */
+public class PayrollAggregates implements RecordChangeListener {
+    private int headcount;
+
+    private int fullTimeCount;
+    private double totalSalary;
+    private long totalWeeklyHours;
+
+    private int partTimeCount;
+    private double totalDailyIncome;
+
+    // Headcount per designation and job type, null counted as ""
+    private final HashMap<String, Integer> byDesignation = new HashMap<>();
+    private final HashMap<String, Integer> byJobType = new HashMap<>();
+
+    // Updates
+
+    @Override
+    public void staffAdded(StaffHire staff) {
+        apply(staff, 1, null, null);
+    }
+
+    @Override
+    public void staffRemoved(StaffHire staff) {
+        apply(staff, -1, null, null);
+    }
+
+    @Override
+    public void staffChanged(StaffHire staff, String property, Object oldValue) {
+        switch (property) {
+            case "salary":
+            case "weeklyFractionalHours":
+            case "active":
+            case "terminated":
+            case "designation":
+            case "jobType":
+                // Take out the share the record had before the change, then add the new one
+                apply(staff, -1, property, oldValue);
+                apply(staff, 1, null, null);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Adds or subtracts the share of one record
+     * @param staff the record
+     * @param sign 1 to add, -1 to subtract
+     * @param property a property to read from oldValue instead of the record, or null
+     * @param oldValue the value to use for that property
+     */
+    private void apply(StaffHire staff, int sign, String property, Object oldValue) {
+        boolean active = "active".equals(property) ? (Boolean) oldValue : staff.isActive();
+        boolean terminated = staff instanceof PartTimeStaffHire
+            && ("terminated".equals(property) ? (Boolean) oldValue : ((PartTimeStaffHire) staff).isTerminated());
+        if (!active || terminated) {
+            return;
+        }
+        headcount += sign;
+        if (staff instanceof FullTimeStaffHire) {
+            FullTimeStaffHire ftStaff = (FullTimeStaffHire) staff;
+            double salary = "salary".equals(property) ? (Double) oldValue : ftStaff.getSalary();
+            int hours = "weeklyFractionalHours".equals(property)
+                ? (Integer) oldValue : ftStaff.getWeeklyFractionalHours();
+            fullTimeCount += sign;
+            totalSalary += sign * salary;
+            totalWeeklyHours += sign * hours;
+        } else if (staff instanceof PartTimeStaffHire) {
+            PartTimeStaffHire ptStaff = (PartTimeStaffHire) staff;
+            partTimeCount += sign;
+            totalDailyIncome += sign * ptStaff.getWorkingHour() * ptStaff.getWagesPerHour();
+        }
+        String designation = "designation".equals(property) ? (String) oldValue : staff.getDesignation();
+        String jobType = "jobType".equals(property) ? (String) oldValue : staff.getJobType();
+        addCount(byDesignation, designation, sign);
+        addCount(byJobType, jobType, sign);
+    }
+
+    private static void addCount(HashMap<String, Integer> counts, String key, int delta) {
+        counts.merge(key == null ? "" : key, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    // Totals
+
+    /**
+     * Returns the number of active full-time staff
+     */
+    public int getFullTimeCount() {
+        return fullTimeCount;
+    }
+
+    /**
+     * Returns the total salary of active full-time staff
+     */
+    public double getTotalSalary() {
+        return totalSalary;
+    }
+
+    /**
+     * Returns the average salary of active full-time staff, or 0 if there are none
+     */
+    public double getAverageSalary() {
+        return fullTimeCount == 0 ? 0 : totalSalary / fullTimeCount;
+    }
+
+    /**
+     * Returns the total weekly fractional hours of active full-time staff
+     */
+    public long getTotalWeeklyHours() {
+        return totalWeeklyHours;
+    }
+
+    /**
+     * Returns the number of active part-time staff
+     */
+    public int getPartTimeCount() {
+        return partTimeCount;
+    }
+
+    /**
+     * Returns the total income per day of active part-time staff
+     */
+    public double getTotalDailyIncome() {
+        return totalDailyIncome;
+    }
+
+    /**
+     * Returns the number of active staff
+     */
+    public int getHeadcount() {
+        return headcount;
+    }
+
+    /**
+     * Returns the number of active staff per designation, sorted by designation
+     */
+    public Map<String, Integer> getHeadcountByDesignation() {
+        return new TreeMap<>(byDesignation);
+    }
+
+    /**
+     * Returns the number of active staff per job type, sorted by job type
+     */
+    public Map<String, Integer> getHeadcountByJobType() {
+        return new TreeMap<>(byJobType);
+    }
+
+    /**
+     * Returns the number of active staff with the given designation
+     */
+    public int getHeadcountForDesignation(String designation) {
+        return byDesignation.getOrDefault(designation == null ? "" : designation, 0);
+    }
+
+    /**
+     * Returns the number of active staff with the given job type
+     */
+    public int getHeadcountForJobType(String jobType) {
+        return byJobType.getOrDefault(jobType == null ? "" : jobType, 0);
+    }
+}
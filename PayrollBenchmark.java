@@ -0,0 +1,77 @@
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * PayrollBenchmark class - times the payroll run with different numbers of threads
+ *
+ * Runs PayrollEngine over a generated staff list in pools of 1, 2, 4, ...
+ * threads up to the number of cores and prints the time and speed-up of
+ * each, checking that every run gives the same total.
+ * Usage: java PayrollBenchmark [records]   (default 4,000,000)
+ */
+public class PayrollBenchmark {
+    private static final int ROUNDS = 5;
+    private static final int PART_TIME_DAYS = 22;
+
+    public static void main(String[] args) {
+        int records = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        Random random = new Random(42);
+
+        // Build the data, with a mix of designations, appointers and inactive staff
+        ArrayList<StaffHire> staffList = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            String designation = "Designation " + random.nextInt(50);
+            String appointedBy = "Manager " + random.nextInt(20);
+            StaffHire staff;
+            if (i % 2 == 0) {
+                staff = new PartTimeStaffHire(i, designation, "Temporary", "Staff " + i, "2024-01-01",
+                    "BSc", appointedBy, true, 1 + random.nextInt(8), 10 + random.nextInt(30), "Morning");
+            } else {
+                staff = new FullTimeStaffHire(i, designation, "Permanent", "Staff " + i, "2024-01-01",
+                    "BSc", appointedBy, true, 20000 + random.nextInt(40000), 35 + random.nextInt(6));
+            }
+            if (random.nextInt(10) == 0) {
+                staff.setActive(false);
+            }
+            staffList.add(staff);
+        }
+        System.out.printf("%,d staff, %d cores%n", records, Runtime.getRuntime().availableProcessors());
+
+        double baseline = 0;
+        double expectedTotal = Double.NaN;
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads = nextThreadCount(threads, cores)) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            PayrollEngine engine = new PayrollEngine(pool);
+            long best = Long.MAX_VALUE;
+            PayrollEngine.PayrollRun run = null;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                run = engine.run(staffList, PART_TIME_DAYS);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            pool.shutdown();
+
+            // Sums are added in a different order per pool, so allow for rounding
+            if (Double.isNaN(expectedTotal)) {
+                expectedTotal = run.getTotalPay();
+            } else if (Math.abs(run.getTotalPay() - expectedTotal) > expectedTotal * 1e-9) {
+                System.out.println("Total differs: " + run.getTotalPay() + " vs " + expectedTotal);
+            }
+            double millis = best / 1e6;
+            if (threads == 1) {
+                baseline = millis;
+            }
+            System.out.printf("  %2d threads %,10.1f ms  speed-up %.2fx  (%d groups, %,d paid)%n",
+                threads, millis, baseline / millis, run.getGroups().size(), run.getStaffCount());
+        }
+    }
+
+    /**
+     * Doubles the number of threads, ending with exactly the number of cores
+     */
+    private static int nextThreadCount(int threads, int cores) {
+        return threads == cores ? cores + 1 : Math.min(threads * 2, cores);
+    }
+}
@@ -0,0 +1,249 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+/**
+ * PayrollColumns class - columnar copy of the payroll fields of all staff
+ *
+ * Holds salary, weekly fractional hours, working hours and wages per hour
+ * in plain arrays indexed by staff ordinal, together with 0/1 columns
+ * marking payable full-time and part-time staff (active and not
+ * terminated). Totals and averages are simple loops over the arrays with no
+ * object access, type checks or branches. Values of rows that do not apply
+ * (e.g. the salary of a part-time row) are 0.
+ *
+ * Follows the records through RecordChangeListener, so it must be added to
+ * the RecordChangeDispatcher the records are attached to. Not thread-safe.
+ */
+public class PayrollColumns implements RecordChangeListener {
+    private static final StringDictionary DICTIONARY = StringDictionary.global();
+
+    private int size;
+
+    // Payable flags, 1 for rows that count towards the totals
+    private byte[] payableFullTime = new byte[0];
+    private byte[] payablePartTime = new byte[0];
+
+    // StringDictionary code of the designation
+    private int[] designation = new int[0];
+
+    // Full-time columns
+    private double[] salary = new double[0];
+    private int[] weeklyHours = new int[0];
+
+    // Part-time columns
+    private int[] workingHour = new int[0];
+    private double[] wagesPerHour = new double[0];
+
+    // Column updates
+
+    @Override
+    public void staffAdded(StaffHire staff) {
+        int row = staff.getOrdinal();
+        ensureCapacity(row + 1);
+        size = Math.max(size, row + 1);
+        designation[row] = designationCode(staff);
+        if (staff instanceof FullTimeStaffHire) {
+            FullTimeStaffHire ftStaff = (FullTimeStaffHire) staff;
+            salary[row] = ftStaff.getSalary();
+            weeklyHours[row] = ftStaff.getWeeklyFractionalHours();
+        } else if (staff instanceof PartTimeStaffHire) {
+            PartTimeStaffHire ptStaff = (PartTimeStaffHire) staff;
+            workingHour[row] = ptStaff.getWorkingHour();
+            wagesPerHour[row] = ptStaff.getWagesPerHour();
+        }
+        updatePayable(staff);
+    }
+
+    @Override
+    public void staffRemoved(StaffHire staff) {
+        int row = staff.getOrdinal();
+        if (row >= size) {
+            return;
+        }
+        payableFullTime[row] = 0;
+        payablePartTime[row] = 0;
+        designation[row] = 0;
+        salary[row] = 0;
+        weeklyHours[row] = 0;
+        workingHour[row] = 0;
+        wagesPerHour[row] = 0;
+        if (row == size - 1) {
+            size--;
+        }
+    }
+
+    @Override
+    public void staffChanged(StaffHire staff, String property, Object oldValue) {
+        int row = staff.getOrdinal();
+        if (row >= size) {
+            return;
+        }
+        switch (property) {
+            case "salary":
+                salary[row] = ((FullTimeStaffHire) staff).getSalary();
+                break;
+            case "weeklyFractionalHours":
+                weeklyHours[row] = ((FullTimeStaffHire) staff).getWeeklyFractionalHours();
+                break;
+            case "designation":
+                designation[row] = designationCode(staff);
+                break;
+            case "active":
+            case "terminated":
+                updatePayable(staff);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void updatePayable(StaffHire staff) {
+        int row = staff.getOrdinal();
+        boolean payable = staff.isActive()
+            && !(staff instanceof PartTimeStaffHire && ((PartTimeStaffHire) staff).isTerminated());
+        payableFullTime[row] = (byte) (payable && staff instanceof FullTimeStaffHire ? 1 : 0);
+        payablePartTime[row] = (byte) (payable && staff instanceof PartTimeStaffHire ? 1 : 0);
+    }
+
+    private static int designationCode(StaffHire staff) {
+        int code = staff.getDesignationCode();
+        return code == StringDictionary.NULL_CODE ? DICTIONARY.intern("") : code;
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows <= salary.length) {
+            return;
+        }
+        int capacity = Math.max(rows, Math.max(16, salary.length * 2));
+        payableFullTime = Arrays.copyOf(payableFullTime, capacity);
+        payablePartTime = Arrays.copyOf(payablePartTime, capacity);
+        designation = Arrays.copyOf(designation, capacity);
+        salary = Arrays.copyOf(salary, capacity);
+        weeklyHours = Arrays.copyOf(weeklyHours, capacity);
+        workingHour = Arrays.copyOf(workingHour, capacity);
+        wagesPerHour = Arrays.copyOf(wagesPerHour, capacity);
+    }
+
+    // Aggregates over payable staff
+
+    /**
+     * Returns the number of rows (staff records)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of payable full-time staff
+     */
+    public int getFullTimeCount() {
+        return count(payableFullTime);
+    }
+
+    /**
+     * Returns the number of payable part-time staff
+     */
+    public int getPartTimeCount() {
+        return count(payablePartTime);
+    }
+
+    /**
+     * Returns the total salary of payable full-time staff
+     */
+    public double getTotalSalary() {
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += salary[i] * payableFullTime[i];
+        }
+        return total;
+    }
+
+    /**
+     * Returns the average salary of payable full-time staff, or 0 if there are none
+     */
+    public double getAverageSalary() {
+        int count = getFullTimeCount();
+        return count == 0 ? 0 : getTotalSalary() / count;
+    }
+
+    /**
+     * Returns the total weekly fractional hours of payable full-time staff
+     */
+    public long getTotalWeeklyHours() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += weeklyHours[i] * payableFullTime[i];
+        }
+        return total;
+    }
+
+    /**
+     * Returns the total income per day of payable part-time staff
+     * (working hours times wages per hour)
+     */
+    public double getTotalDailyIncome() {
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += workingHour[i] * wagesPerHour[i] * payablePartTime[i];
+        }
+        return total;
+    }
+
+    /**
+     * Returns the average income per day of payable part-time staff, or 0 if there are none
+     */
+    public double getAverageDailyIncome() {
+        int count = getPartTimeCount();
+        return count == 0 ? 0 : getTotalDailyIncome() / count;
+    }
+
+    /**
+     * Returns the total salary of payable full-time staff per designation
+     */
+    public LinkedHashMap<String, Double> getSalaryByDesignation() {
+        double[] sums = new double[DICTIONARY.size()];
+        for (int i = 0; i < size; i++) {
+            sums[designation[i]] += salary[i] * payableFullTime[i];
+        }
+        return byDesignation(sums, payableFullTime);
+    }
+
+    /**
+     * Returns the total income per day of payable part-time staff per designation
+     */
+    public LinkedHashMap<String, Double> getDailyIncomeByDesignation() {
+        double[] sums = new double[DICTIONARY.size()];
+        for (int i = 0; i < size; i++) {
+            sums[designation[i]] += workingHour[i] * wagesPerHour[i] * payablePartTime[i];
+        }
+        return byDesignation(sums, payablePartTime);
+    }
+
+    private int count(byte[] flags) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            count += flags[i];
+        }
+        return count;
+    }
+
+    /**
+     * Turns sums indexed by designation code into a map, keeping only
+     * designations that have payable staff
+     */
+    private LinkedHashMap<String, Double> byDesignation(double[] sums, byte[] flags) {
+        boolean[] present = new boolean[sums.length];
+        for (int i = 0; i < size; i++) {
+            if (flags[i] != 0) {
+                present[designation[i]] = true;
+            }
+        }
+        LinkedHashMap<String, Double> result = new LinkedHashMap<>();
+        for (int code = 0; code < sums.length; code++) {
+            if (present[code]) {
+                result.put(DICTIONARY.get(code), sums[code]);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,286 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * PayrollEngine class - parallel payroll run over a staff list
+ *
+ * Computes the pay of every active staff member for one pay period and adds
+ * it up per designation and appointed by. The list is split in halves until
+ * the pieces are small enough, the pieces are run as fork/join tasks, and
+ * each task fills its own groups, which are merged as the tasks join. No
+ * task writes to data another task reads, so the run scales with the number
+ * of cores.
+ *
+ * Full-time staff are paid their salary. Part-time staff are paid their
+ * working hours per day times their wages per hour for each day worked in
+ * the period. Inactive and terminated staff are skipped.
+ *
+ * The records must not change during a run; the GUI runs it on the EDT,
+ * which is where records are changed.
+ */
+public class PayrollEngine {
+    // Pieces of the list below this size are not split further
+    private static final int MIN_CHUNK = 4096;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor for an engine using the common fork/join pool
+     */
+    public PayrollEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for an engine using the given pool
+     * @param pool the pool the tasks run in
+     */
+    public PayrollEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Runs the payroll for a pay period
+     * @param staffList the staff, should support fast random access
+     * @param partTimeDays the number of days part-time staff worked in the period
+     * @return the pay per designation and appointed by
+     */
+    public PayrollRun run(List<? extends StaffHire> staffList, int partTimeDays) {
+        // Split into a few pieces per worker thread, so idle threads can steal work
+        int chunk = Math.max(MIN_CHUNK, staffList.size() / (pool.getParallelism() * 8));
+        PayrollTask task = new PayrollTask(staffList, 0, staffList.size(), chunk, partTimeDays);
+        return new PayrollRun(pool.invoke(task));
+    }
+
+    /**
+     * Task computing the pay of one range of the list
+     */
+    private static class PayrollTask extends RecursiveTask<Groups> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends StaffHire> staffList;
+        private final int from;
+        private final int to;
+        private final int chunk;
+        private final int partTimeDays;
+
+        PayrollTask(List<? extends StaffHire> staffList, int from, int to, int chunk, int partTimeDays) {
+            this.staffList = staffList;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.partTimeDays = partTimeDays;
+        }
+
+        @Override
+        protected Groups compute() {
+            if (to - from <= chunk) {
+                return computeDirectly();
+            }
+            int middle = (from + to) >>> 1;
+            PayrollTask left = new PayrollTask(staffList, from, middle, chunk, partTimeDays);
+            PayrollTask right = new PayrollTask(staffList, middle, to, chunk, partTimeDays);
+            left.fork();
+            Groups groups = right.compute();
+            groups.merge(left.join());
+            return groups;
+        }
+
+        private Groups computeDirectly() {
+            Groups groups = new Groups();
+            for (int i = from; i < to; i++) {
+                StaffHire staff = staffList.get(i);
+                if (!staff.isActive()) {
+                    continue;
+                }
+                if (staff instanceof FullTimeStaffHire) {
+                    FullTimeStaffHire ftStaff = (FullTimeStaffHire) staff;
+                    Group group = groups.get(staff);
+                    group.fullTimeCount++;
+                    group.fullTimePay += ftStaff.getSalary();
+                    group.weeklyHours += ftStaff.getWeeklyFractionalHours();
+                } else if (staff instanceof PartTimeStaffHire) {
+                    PartTimeStaffHire ptStaff = (PartTimeStaffHire) staff;
+                    if (ptStaff.isTerminated()) {
+                        continue;
+                    }
+                    long hours = (long) ptStaff.getWorkingHour() * partTimeDays;
+                    Group group = groups.get(staff);
+                    group.partTimeCount++;
+                    group.partTimeHours += hours;
+                    group.partTimePay += hours * ptStaff.getWagesPerHour();
+                }
+            }
+            return groups;
+        }
+    }
+
+    /**
+     * Groups of one task, keyed by designation code and then appointed by
+     */
+    private static class Groups {
+        private final IntObjectMap<HashMap<String, Group>> byDesignation = new IntObjectMap<>();
+
+        Group get(StaffHire staff) {
+            return get(staff.getDesignationCode(), staff.getAppointedBy());
+        }
+
+        Group get(int designationCode, String appointedBy) {
+            HashMap<String, Group> byAppointedBy = byDesignation.get(designationCode);
+            if (byAppointedBy == null) {
+                byAppointedBy = new HashMap<>();
+                byDesignation.put(designationCode, byAppointedBy);
+            }
+            Group group = byAppointedBy.get(appointedBy);
+            if (group == null) {
+                group = new Group(designationCode, appointedBy);
+                byAppointedBy.put(appointedBy, group);
+            }
+            return group;
+        }
+
+        /**
+         * Adds the groups of another task to these groups
+         */
+        void merge(Groups other) {
+            other.byDesignation.forEachValue(byAppointedBy -> byAppointedBy.values().forEach(
+                group -> get(group.designationCode, group.appointedBy).add(group)));
+        }
+
+        List<Group> toList() {
+            ArrayList<Group> list = new ArrayList<>();
+            byDesignation.forEachValue(byAppointedBy -> list.addAll(byAppointedBy.values()));
+            return list;
+        }
+    }
+
+    /**
+     * Pay of the staff with one designation and appointed by
+     */
+    public static class Group {
+        private final int designationCode;
+        private final String appointedBy;
+
+        private int fullTimeCount;
+        private double fullTimePay;
+        private long weeklyHours;
+
+        private int partTimeCount;
+        private double partTimePay;
+        private long partTimeHours;
+
+        private Group(int designationCode, String appointedBy) {
+            this.designationCode = designationCode;
+            this.appointedBy = appointedBy;
+        }
+
+        private void add(Group other) {
+            fullTimeCount += other.fullTimeCount;
+            fullTimePay += other.fullTimePay;
+            weeklyHours += other.weeklyHours;
+            partTimeCount += other.partTimeCount;
+            partTimePay += other.partTimePay;
+            partTimeHours += other.partTimeHours;
+        }
+
+        public String getDesignation() {
+            return StringDictionary.global().get(designationCode);
+        }
+
+        public String getAppointedBy() {
+            return appointedBy;
+        }
+
+        public int getFullTimeCount() {
+            return fullTimeCount;
+        }
+
+        public double getFullTimePay() {
+            return fullTimePay;
+        }
+
+        public long getWeeklyHours() {
+            return weeklyHours;
+        }
+
+        public int getPartTimeCount() {
+            return partTimeCount;
+        }
+
+        public double getPartTimePay() {
+            return partTimePay;
+        }
+
+        public long getPartTimeHours() {
+            return partTimeHours;
+        }
+
+        public double getTotalPay() {
+            return fullTimePay + partTimePay;
+        }
+    }
+
+    /**
+     * Result of a payroll run
+     */
+    public static class PayrollRun {
+        private final List<Group> groups;
+        private final double totalPay;
+        private final int staffCount;
+
+        private PayrollRun(Groups groups) {
+            List<Group> list = groups.toList();
+            Comparator<String> nullsFirst = Comparator.nullsFirst(Comparator.naturalOrder());
+            list.sort(Comparator.comparing(Group::getDesignation, nullsFirst)
+                .thenComparing(Group::getAppointedBy, nullsFirst));
+            double total = 0;
+            int count = 0;
+            for (Group group : list) {
+                total += group.getTotalPay();
+                count += group.fullTimeCount + group.partTimeCount;
+            }
+            this.groups = list;
+            this.totalPay = total;
+            this.staffCount = count;
+        }
+
+        /**
+         * Returns the groups, sorted by designation and then appointed by
+         */
+        public List<Group> getGroups() {
+            return groups;
+        }
+
+        /**
+         * Returns the group for a designation and appointed by, or null if nobody was paid in it
+         */
+        public Group getGroup(String designation, String appointedBy) {
+            for (Group group : groups) {
+                if (Objects.equals(group.getDesignation(), designation)
+                        && Objects.equals(group.getAppointedBy(), appointedBy)) {
+                    return group;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the total pay of all staff
+         */
+        public double getTotalPay() {
+            return totalPay;
+        }
+
+        /**
+         * Returns the number of staff paid
+         */
+        public int getStaffCount() {
+            return staffCount;
+        }
+    }
+}
@@ -0,0 +1,353 @@
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * PersistenceWorker class - writes data to disk on a background thread
+ *
+ * Journal entries are encoded on the calling thread, so they capture the
+ * record as it was at the time of the change, and then queued. Each entry
+ * takes its sequence number and its place in the queue in one step, so
+ * entries reach the journal in sequence order even when several threads
+ * make changes at once. A single writer thread drains the queue in order:
+ * all journal entries waiting in the queue are appended with one write,
+ * and when several snapshots are waiting only the newest one is written.
+ *
+ * The writer thread also compacts the journals into fresh snapshots once
+ * they grow past a size threshold or their oldest entry passes an age
+ * threshold, so the journals (and the time needed to replay them at
+ * startup) stay bounded however long the system runs.
+ */
+public class PersistenceWorker implements RecruitmentStore.Journal {
+    // Queued operation: a staff or vacancy journal entry, or a snapshot
+    private static class Operation {
+        final byte[] staffEntry;
+        final byte[] vacancyEntry;
+        final ArrayList<StaffHire> staffSnapshot;
+        final ArrayList<Vacancy> vacancySnapshot;
+        final long staffSequence;
+        final long vacancySequence;
+
+        Operation(byte[] staffEntry, byte[] vacancyEntry) {
+            this(staffEntry, vacancyEntry, null, null, 0, 0);
+        }
+
+        Operation(byte[] staffEntry, byte[] vacancyEntry,
+                  ArrayList<StaffHire> staffSnapshot, ArrayList<Vacancy> vacancySnapshot,
+                  long staffSequence, long vacancySequence) {
+            this.staffEntry = staffEntry;
+            this.vacancyEntry = vacancyEntry;
+            this.staffSnapshot = staffSnapshot;
+            this.vacancySnapshot = vacancySnapshot;
+            this.staffSequence = staffSequence;
+            this.vacancySequence = vacancySequence;
+        }
+
+        boolean isSnapshot() {
+            return staffSnapshot != null;
+        }
+    }
+
+    // Default compaction thresholds
+    public static final long DEFAULT_COMPACTION_BYTES = 4L * 1024 * 1024;
+    public static final long DEFAULT_COMPACTION_AGE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final long COMPACTION_CHECK_SECONDS = 30;
+
+    private final ScheduledExecutorService executor;
+    private final ConcurrentLinkedQueue<Operation> queue = new ConcurrentLinkedQueue<>();
+    // Held while an operation takes its sequence numbers and is queued
+    private final Object sequenceLock = new Object();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final AtomicInteger queueDepth = new AtomicInteger();
+
+    // Statistics
+    private final AtomicLong savesCompleted = new AtomicLong();
+    private final AtomicLong failedSaves = new AtomicLong();
+    private volatile long lastSaveNanos;
+    private volatile long maxSaveNanos;
+    private final AtomicLong compactions = new AtomicLong();
+
+    // Compaction state, used on the writer thread only
+    private volatile long compactionBytes = DEFAULT_COMPACTION_BYTES;
+    private volatile long compactionAgeMillis = DEFAULT_COMPACTION_AGE_MILLIS;
+    private volatile boolean compactStaff = true;
+    private long journalStartMillis;
+
+    /**
+     * Constructor for the PersistenceWorker class
+     */
+    public PersistenceWorker() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "persistence-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Journals left over from the last run count as starting now
+        journalStartMillis = FileHandler.getJournalSize() > 0 ? System.currentTimeMillis() : 0;
+        executor.scheduleWithFixedDelay(this::compactIfNeeded,
+            COMPACTION_CHECK_SECONDS, COMPACTION_CHECK_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Sets when the journals are folded into a fresh snapshot
+     * @param maxJournalBytes compact once both journals together reach this size
+     * @param maxAgeMillis compact once the oldest journal entry is this old
+     */
+    public void setCompactionThresholds(long maxJournalBytes, long maxAgeMillis) {
+        this.compactionBytes = maxJournalBytes;
+        this.compactionAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Sets whether compactions rewrite the staff snapshot too. Turn it off
+     * when staff changes are kept in a MappedStaffStore instead of the
+     * journal, as staff_data.dat is then only written on shutdown.
+     */
+    public void setCompactStaff(boolean compactStaff) {
+        this.compactStaff = compactStaff;
+    }
+
+    /**
+     * Queues a hire for the staff journal
+     */
+    public void journalHire(StaffHire staff) {
+        enqueue(() -> new Operation(FileHandler.hireEntry(staff), null));
+    }
+
+    /**
+     * Queues a termination for the staff journal
+     */
+    public void journalTerminate(int vacancyNumber) {
+        enqueue(() -> new Operation(FileHandler.terminateEntry(vacancyNumber), null));
+    }
+
+    /**
+     * Queues a change of salary, weekly hours or shifts for the staff journal
+     */
+    public void journalStaffUpdated(StaffHire staff) {
+        enqueue(() -> new Operation(FileHandler.staffUpdatedEntry(staff), null));
+    }
+
+    /**
+     * Queues a new vacancy for the vacancy journal
+     */
+    public void journalVacancyAdded(Vacancy vacancy) {
+        enqueue(() -> new Operation(null, FileHandler.vacancyAddedEntry(vacancy)));
+    }
+
+    /**
+     * Queues a vacancy closing for the vacancy journal
+     */
+    public void journalVacancyClosed(int vacancyId) {
+        enqueue(() -> new Operation(null, FileHandler.vacancyClosedEntry(vacancyId)));
+    }
+
+    /**
+     * Queues a vacancy re-opening for the vacancy journal
+     */
+    public void journalVacancyOpened(int vacancyId) {
+        enqueue(() -> new Operation(null, FileHandler.vacancyOpenedEntry(vacancyId)));
+    }
+
+    /**
+     * Queues a full snapshot of both lists. The lists and the current journal
+     * sequence numbers are captured on the calling thread; the records
+     * themselves are encoded by the writer thread. Call it while no changes
+     * are being made, as on shutdown: a hire already in the lists but not
+     * yet journaled would be replayed on top of the snapshot a second time.
+     * @param staffList the staff to save
+     * @param vacancyList the vacancies to save
+     */
+    public void saveSnapshot(ArrayList<StaffHire> staffList, ArrayList<Vacancy> vacancyList) {
+        enqueue(() -> new Operation(null, null, new ArrayList<>(staffList), new ArrayList<>(vacancyList),
+                                    FileHandler.getStaffSequence(), FileHandler.getVacancySequence()));
+    }
+
+    /**
+     * Waits until everything queued before this call has been written
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return true if everything was written, false on timeout or interruption
+     */
+    public boolean awaitFlush(long timeout, TimeUnit unit) {
+        try {
+            executor.submit(() -> { }).get(timeout, unit);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the number of queued operations not yet written
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Returns the duration of the most recent write in milliseconds
+     */
+    public double getLastSaveMillis() {
+        return lastSaveNanos / 1_000_000.0;
+    }
+
+    /**
+     * Returns the duration of the slowest write so far in milliseconds
+     */
+    public double getMaxSaveMillis() {
+        return maxSaveNanos / 1_000_000.0;
+    }
+
+    /**
+     * Returns the number of completed writes
+     */
+    public long getSavesCompleted() {
+        return savesCompleted.get();
+    }
+
+    /**
+     * Returns the number of writes that failed
+     */
+    public long getFailedSaves() {
+        return failedSaves.get();
+    }
+
+    /**
+     * Returns the number of journal compactions done
+     */
+    public long getCompactions() {
+        return compactions.get();
+    }
+
+    /**
+     * Returns a one-line summary of the statistics
+     */
+    public String getStatus() {
+        return String.format("saves=%d failed=%d queued=%d last=%.2fms max=%.2fms compactions=%d",
+            getSavesCompleted(), getFailedSaves(), getQueueDepth(),
+            getLastSaveMillis(), getMaxSaveMillis(), getCompactions());
+    }
+
+    /**
+     * Builds an operation and queues it in one step, so operations are queued
+     * in the order of the sequence numbers they take
+     */
+    private void enqueue(Supplier<Operation> operation) {
+        synchronized (sequenceLock) {
+            queue.add(operation.get());
+        }
+        queueDepth.incrementAndGet();
+        if (drainScheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Writes everything currently queued. Runs on the writer thread only.
+     */
+    private void drain() {
+        drainScheduled.set(false);
+        ArrayList<Operation> batch = new ArrayList<>();
+        Operation operation;
+        while ((operation = queue.poll()) != null) {
+            batch.add(operation);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean ok = true;
+
+        // Entries queued before the newest snapshot are already part of it,
+        // once that snapshot is on disk; if saving it failed they are journaled
+        int lastSnapshot = -1;
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            if (batch.get(i).isSnapshot()) {
+                lastSnapshot = i;
+                break;
+            }
+        }
+        int firstStaffEntry = 0;
+        int firstVacancyEntry = 0;
+        if (lastSnapshot >= 0) {
+            Operation snapshot = batch.get(lastSnapshot);
+            boolean staffSaved = FileHandler.saveStaffData(snapshot.staffSnapshot, snapshot.staffSequence);
+            boolean vacanciesSaved = FileHandler.saveVacancyData(snapshot.vacancySnapshot, snapshot.vacancySequence);
+            firstStaffEntry = staffSaved ? lastSnapshot + 1 : 0;
+            firstVacancyEntry = vacanciesSaved ? lastSnapshot + 1 : 0;
+            ok = staffSaved && vacanciesSaved;
+            if (ok) {
+                journalStartMillis = 0;
+            }
+        }
+
+        ArrayList<byte[]> staffEntries = new ArrayList<>();
+        ArrayList<byte[]> vacancyEntries = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Operation op = batch.get(i);
+            if (op.staffEntry != null && i >= firstStaffEntry) {
+                staffEntries.add(op.staffEntry);
+            } else if (op.vacancyEntry != null && i >= firstVacancyEntry) {
+                vacancyEntries.add(op.vacancyEntry);
+            }
+        }
+        ok &= FileHandler.appendStaffJournal(staffEntries);
+        ok &= FileHandler.appendVacancyJournal(vacancyEntries);
+        if (journalStartMillis == 0 && !(staffEntries.isEmpty() && vacancyEntries.isEmpty())) {
+            journalStartMillis = System.currentTimeMillis();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        lastSaveNanos = elapsed;
+        if (elapsed > maxSaveNanos) {
+            maxSaveNanos = elapsed;
+        }
+        if (ok) {
+            savesCompleted.incrementAndGet();
+        } else {
+            failedSaves.incrementAndGet();
+        }
+        queueDepth.addAndGet(-batch.size());
+        compactIfNeeded();
+    }
+
+    /**
+     * Folds the journals into fresh snapshots once a threshold is reached.
+     * Runs on the writer thread only, so no journal append can interleave.
+     */
+    private void compactIfNeeded() {
+        if (journalStartMillis == 0) {
+            return;
+        }
+        long size = FileHandler.getJournalSize();
+        long age = System.currentTimeMillis() - journalStartMillis;
+        if (size < compactionBytes && age < compactionAgeMillis) {
+            return;
+        }
+        long start = System.nanoTime();
+        boolean ok = (!compactStaff || FileHandler.compactStaffJournal()) & FileHandler.compactVacancyJournal();
+        if (ok) {
+            compactions.incrementAndGet();
+            journalStartMillis = 0;
+        } else {
+            failedSaves.incrementAndGet();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (elapsed > maxSaveNanos) {
+            maxSaveNanos = elapsed;
+        }
+    }
+}
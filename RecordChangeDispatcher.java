@@ -0,0 +1,125 @@
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * RecordChangeDispatcher class - forwards record changes to several listeners
+ *
+ * Records hold a single listener; attaching them to a dispatcher lets any
+ * number of indexes and views follow the same records. The dispatcher also
+ * numbers the records in the order they are attached, separately for staff
+ * and vacancies, so listeners can keep per-record data in arrays indexed by
+ * these ordinals. If a listener fails while a staff record is added, the
+ * record can be detached again and its ordinal goes to the next record.
+ */
+public class RecordChangeDispatcher implements RecordChangeListener {
+    private final CopyOnWriteArrayList<RecordChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private int staffCount;
+    private int vacancyCount;
+    // Number of listeners told about the staff record attached last
+    private int lastStaffNotified;
+
+    /**
+     * Adds a listener for changes of all attached records
+     */
+    public void addListener(RecordChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener
+     */
+    public void removeListener(RecordChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Starts following a staff record, gives it the next staff ordinal and
+     * tells the listeners it was added. Each record is attached once.
+     */
+    public void attach(StaffHire staff) {
+        staff.setOrdinal(staffCount++);
+        staff.setChangeListener(this);
+        lastStaffNotified = 0;
+        for (RecordChangeListener listener : listeners) {
+            listener.staffAdded(staff);
+            lastStaffNotified++;
+        }
+    }
+
+    /**
+     * Takes back the staff record attached last, after a listener failed
+     * while it was added. The listeners that were told it was added are
+     * told it was removed, in reverse order, and the next record attached
+     * gets its ordinal.
+     * @throws IllegalStateException if the record is not the one attached last
+     */
+    public void detach(StaffHire staff) {
+        if (staff.getOrdinal() != staffCount - 1) {
+            throw new IllegalStateException("Only the staff record attached last can be detached");
+        }
+        staff.setChangeListener(null);
+        staffCount--;
+        for (int i = lastStaffNotified - 1; i >= 0; i--) {
+            listeners.get(i).staffRemoved(staff);
+        }
+        lastStaffNotified = 0;
+    }
+
+    /**
+     * Starts following a vacancy, gives it the next vacancy ordinal and
+     * tells the listeners it was added. Each vacancy is attached once.
+     */
+    public void attach(Vacancy vacancy) {
+        vacancy.setOrdinal(vacancyCount++);
+        vacancy.setChangeListener(this);
+        vacancyAdded(vacancy);
+    }
+
+    /**
+     * Returns the number of staff records attached so far
+     */
+    public int getStaffCount() {
+        return staffCount;
+    }
+
+    /**
+     * Returns the number of vacancies attached so far
+     */
+    public int getVacancyCount() {
+        return vacancyCount;
+    }
+
+    @Override
+    public void staffAdded(StaffHire staff) {
+        for (RecordChangeListener listener : listeners) {
+            listener.staffAdded(staff);
+        }
+    }
+
+    @Override
+    public void staffRemoved(StaffHire staff) {
+        for (RecordChangeListener listener : listeners) {
+            listener.staffRemoved(staff);
+        }
+    }
+
+    @Override
+    public void staffChanged(StaffHire staff, String property, Object oldValue) {
+        for (RecordChangeListener listener : listeners) {
+            listener.staffChanged(staff, property, oldValue);
+        }
+    }
+
+    @Override
+    public void vacancyAdded(Vacancy vacancy) {
+        for (RecordChangeListener listener : listeners) {
+            listener.vacancyAdded(vacancy);
+        }
+    }
+
+    @Override
+    public void vacancyChanged(Vacancy vacancy, String property, Object oldValue) {
+        for (RecordChangeListener listener : listeners) {
+            listener.vacancyChanged(vacancy, property, oldValue);
+        }
+    }
+}
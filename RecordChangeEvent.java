@@ -0,0 +1,93 @@
+/**
+ * RecordChangeEvent class - one change to a staff or vacancy record, as sent by RecordChangeFeed
+ *
+ * Events are numbered in the order the changes were made, one sequence
+ * for all records, so a subscriber that sees a number skipped knows it
+ * missed events and can read the records again. The record is the live
+ * object, which may have changed again by the time the event is handled;
+ * the property and its old value are those of this change.
+ */
+public final class RecordChangeEvent {
+    /**
+     * Kind of change
+     */
+    public enum Type {
+        STAFF_HIRED, STAFF_TERMINATED, STAFF_UPDATED, STAFF_REMOVED,
+        VACANCY_ADDED, VACANCY_OPENED, VACANCY_CLOSED, VACANCY_UPDATED
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final StaffHire staff;
+    private final Vacancy vacancy;
+    private final String property;
+    private final Object oldValue;
+
+    RecordChangeEvent(long sequence, Type type, StaffHire staff, Vacancy vacancy,
+                      String property, Object oldValue) {
+        this.sequence = sequence;
+        this.type = type;
+        this.staff = staff;
+        this.vacancy = vacancy;
+        this.property = property;
+        this.oldValue = oldValue;
+    }
+
+    /**
+     * Returns the number of this event; each event is one more than the last
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns true for changes to staff, false for changes to vacancies
+     */
+    public boolean isStaffEvent() {
+        return staff != null;
+    }
+
+    /**
+     * Returns the staff record, or null for a vacancy event
+     */
+    public StaffHire getStaff() {
+        return staff;
+    }
+
+    /**
+     * Returns the vacancy, or null for a staff event
+     */
+    public Vacancy getVacancy() {
+        return vacancy;
+    }
+
+    /**
+     * Returns the vacancy number of the record changed
+     */
+    public int getVacancyNumber() {
+        return staff != null ? staff.getVacancyNumber() : vacancy.getVacancyId();
+    }
+
+    /**
+     * Returns the name of the changed property, or null for a hire or a new vacancy
+     */
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Returns the value of the property before the change, or null for a hire or a new vacancy
+     */
+    public Object getOldValue() {
+        return oldValue;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + type + " " + getVacancyNumber() + (property != null ? " " + property : "");
+    }
+}
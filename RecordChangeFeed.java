@@ -0,0 +1,135 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RecordChangeFeed class - publishes record changes to asynchronous subscribers
+ *
+ * Turns the RecordChangeListener calls into RecordChangeEvents and publishes
+ * them through a java.util.concurrent.Flow publisher, so exporters, network
+ * streams and views that refresh on their own thread can follow the records
+ * without being called while the change is being made. Indexes and models
+ * that must be up to date as soon as a change is made, such as
+ * RecruitmentQuery or the table models, stay direct listeners.
+ *
+ * Each subscriber has its own bounded buffer and receives events on a
+ * thread of the feed, as many as it has requested. Publishing never waits:
+ * the store calls its listeners with a lock held, so when a subscriber's
+ * buffer is full the event is dropped for that subscriber alone and
+ * counted. The subscriber sees the gap in the sequence numbers and can
+ * read the records again. Add the feed to the store after loading, so the
+ * loaded records are not sent as new.
+ */
+public class RecordChangeFeed implements RecordChangeListener, Flow.Publisher<RecordChangeEvent>, AutoCloseable {
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    private final ExecutorService executor;
+    private final SubmissionPublisher<RecordChangeEvent> publisher;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Constructor for a feed with the default buffer size
+     */
+    public RecordChangeFeed() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor for the RecordChangeFeed class
+     * @param bufferSize the most events held for each subscriber, rounded up to a power of two
+     */
+    public RecordChangeFeed(int bufferSize) {
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        publisher = new SubmissionPublisher<>(executor, bufferSize);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super RecordChangeEvent> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    /**
+     * Returns the number of events dropped for subscribers whose buffer was full
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Returns the number of the last event published, or 0 if none
+     */
+    public long getLastSequence() {
+        return sequence.get();
+    }
+
+    public int getSubscriberCount() {
+        return publisher.getNumberOfSubscribers();
+    }
+
+    /**
+     * Sends the events already published, then completes every subscriber
+     */
+    @Override
+    public void close() {
+        publisher.close();
+        executor.shutdown();
+    }
+
+    // Changes
+
+    @Override
+    public void staffAdded(StaffHire staff) {
+        publish(RecordChangeEvent.Type.STAFF_HIRED, staff, null, null, null);
+    }
+
+    @Override
+    public void staffRemoved(StaffHire staff) {
+        publish(RecordChangeEvent.Type.STAFF_REMOVED, staff, null, null, null);
+    }
+
+    @Override
+    public void staffChanged(StaffHire staff, String property, Object oldValue) {
+        boolean terminated = property.equals("terminated") && staff instanceof PartTimeStaffHire
+                             && ((PartTimeStaffHire) staff).isTerminated();
+        publish(terminated ? RecordChangeEvent.Type.STAFF_TERMINATED : RecordChangeEvent.Type.STAFF_UPDATED,
+                staff, null, property, oldValue);
+    }
+
+    @Override
+    public void vacancyAdded(Vacancy vacancy) {
+        publish(RecordChangeEvent.Type.VACANCY_ADDED, null, vacancy, null, null);
+    }
+
+    @Override
+    public void vacancyChanged(Vacancy vacancy, String property, Object oldValue) {
+        RecordChangeEvent.Type type = RecordChangeEvent.Type.VACANCY_UPDATED;
+        if (property.equals("open")) {
+            type = vacancy.isOpen() ? RecordChangeEvent.Type.VACANCY_OPENED : RecordChangeEvent.Type.VACANCY_CLOSED;
+        }
+        publish(type, null, vacancy, property, oldValue);
+    }
+
+    private void publish(RecordChangeEvent.Type type, StaffHire staff, Vacancy vacancy,
+                         String property, Object oldValue) {
+        // Numbered even with no subscribers, so numbers match the changes made
+        RecordChangeEvent event = new RecordChangeEvent(sequence.incrementAndGet(), type, staff, vacancy,
+                                                        property, oldValue);
+        if (publisher.hasSubscribers()) {
+            try {
+                publisher.offer(event, (subscriber, item) -> {
+                    dropped.incrementAndGet();
+                    return false;
+                });
+            } catch (IllegalStateException e) {
+                // Closed while the change was being made; there is no one left to tell
+            }
+        }
+    }
+}
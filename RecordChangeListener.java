@@ -0,0 +1,46 @@
+/**
+ * RecordChangeListener interface - notified when staff and vacancy records change
+ *
+ * Records call their listener from their setters, passing the name of the
+ * changed property (e.g. "designation", "active", "open") and its old value,
+ * so listeners such as indexes can move the record out of its old bucket.
+ * All methods do nothing by default.
+ */
+public interface RecordChangeListener {
+    /**
+     * Called when a staff record is added
+     */
+    default void staffAdded(StaffHire staff) {
+    }
+
+    /**
+     * Called when the staff record added last is taken out again because
+     * adding it failed. Only listeners told it was added are told.
+     */
+    default void staffRemoved(StaffHire staff) {
+    }
+
+    /**
+     * Called after a property of a staff record has changed
+     * @param staff the changed record
+     * @param property the name of the property
+     * @param oldValue the value before the change
+     */
+    default void staffChanged(StaffHire staff, String property, Object oldValue) {
+    }
+
+    /**
+     * Called when a vacancy is added
+     */
+    default void vacancyAdded(Vacancy vacancy) {
+    }
+
+    /**
+     * Called after a property of a vacancy has changed
+     * @param vacancy the changed vacancy
+     * @param property the name of the property
+     * @param oldValue the value before the change
+     */
+    default void vacancyChanged(Vacancy vacancy, String property, Object oldValue) {
+    }
+}
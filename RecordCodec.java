@@ -0,0 +1,656 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * RecordCodec class - compact binary format for staff and vacancy records
+ *
+ * A data file starts with a magic number, a format version, the sequence
+ * number of the last journal entry included in it, a dictionary of the
+ * repeated strings used by the records and the record count, followed by
+ * the records. Each staff record starts with a type tag (full-time or
+ * part-time). Ints are written as zig-zag varints, strings as a varint
+ * length followed by UTF-8 bytes (length -1 for null), and the boolean
+ * flags of a record are packed into a single byte.
+ *
+ * In data files, designation, job type, qualification, appointed by and
+ * shifts are written as indexes into the file's dictionary, so each
+ * distinct value is stored once. Single records encoded for the journal
+ * are self-contained and write these strings in full.
+ *
+ * Records are encoded into and decoded from plain byte arrays, so a whole
+ * file is read or written with a single I/O call.
+ */
+public class RecordCodec {
+    // File header
+    public static final int STAFF_MAGIC = 0x53524653;   // "SRFS"
+    public static final int VACANCY_MAGIC = 0x53524656; // "SRFV"
+    public static final int FORMAT_VERSION = 4;
+
+    // Staff type tags
+    private static final int TAG_STAFF = 0;
+    private static final int TAG_FULL_TIME = 1;
+    private static final int TAG_PART_TIME = 2;
+
+    // Packed boolean flags
+    private static final int FLAG_JOINED = 1;
+    private static final int FLAG_ACTIVE = 1 << 1;
+    private static final int FLAG_TERMINATED = 1 << 2;
+    private static final int FLAG_OPEN = 1;
+
+    /**
+     * Writes a whole staff list including the file header
+     * @param out the stream to write to
+     * @param staffList the list of staff to write
+     */
+    public static void writeStaffList(OutputStream out, ArrayList<StaffHire> staffList) throws IOException {
+        writeStaffList(out, staffList, 0);
+    }
+
+    /**
+     * Writes a whole staff list including the file header
+     * @param out the stream to write to
+     * @param staffList the list of staff to write
+     * @param sequence the last journal sequence number included in the list
+     */
+    public static void writeStaffList(OutputStream out, ArrayList<StaffHire> staffList,
+                                      long sequence) throws IOException {
+        FileDictionary dictionary = new FileDictionary();
+        Writer records = new Writer(64 + staffList.size() * 48);
+        for (StaffHire staff : staffList) {
+            writeStaff(records, staff, dictionary);
+        }
+        Writer writer = new Writer(64 + dictionary.size() * 16);
+        writer.writeInt(STAFF_MAGIC);
+        writer.writeVarInt(FORMAT_VERSION);
+        writer.writeLong(sequence);
+        dictionary.writeTo(writer);
+        writer.writeVarInt(staffList.size());
+        writer.writeTo(out);
+        records.writeTo(out);
+    }
+
+    /**
+     * Reads a whole staff list including the file header
+     * @param data the file contents
+     * @return the list of staff
+     */
+    public static ArrayList<StaffHire> readStaffList(byte[] data) throws IOException {
+        Reader reader = new Reader(data, 0, data.length);
+        FileDictionary dictionary = readHeader(reader, STAFF_MAGIC);
+        int count = readRecordCount(reader);
+        ArrayList<StaffHire> staffList = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            staffList.add(readStaff(reader, dictionary));
+        }
+        return staffList;
+    }
+
+    /**
+     * Writes a whole vacancy list including the file header
+     * @param out the stream to write to
+     * @param vacancyList the list of vacancies to write
+     */
+    public static void writeVacancyList(OutputStream out, ArrayList<Vacancy> vacancyList) throws IOException {
+        writeVacancyList(out, vacancyList, 0);
+    }
+
+    /**
+     * Writes a whole vacancy list including the file header
+     * @param out the stream to write to
+     * @param vacancyList the list of vacancies to write
+     * @param sequence the last journal sequence number included in the list
+     */
+    public static void writeVacancyList(OutputStream out, ArrayList<Vacancy> vacancyList,
+                                        long sequence) throws IOException {
+        FileDictionary dictionary = new FileDictionary();
+        Writer records = new Writer(64 + vacancyList.size() * 8);
+        for (Vacancy vacancy : vacancyList) {
+            writeVacancy(records, vacancy, dictionary);
+        }
+        Writer writer = new Writer(64 + dictionary.size() * 16);
+        writer.writeInt(VACANCY_MAGIC);
+        writer.writeVarInt(FORMAT_VERSION);
+        writer.writeLong(sequence);
+        dictionary.writeTo(writer);
+        writer.writeVarInt(vacancyList.size());
+        writer.writeTo(out);
+        records.writeTo(out);
+    }
+
+    /**
+     * Reads a whole vacancy list including the file header
+     * @param data the file contents
+     * @return the list of vacancies
+     */
+    public static ArrayList<Vacancy> readVacancyList(byte[] data) throws IOException {
+        Reader reader = new Reader(data, 0, data.length);
+        FileDictionary dictionary = readHeader(reader, VACANCY_MAGIC);
+        int count = readRecordCount(reader);
+        ArrayList<Vacancy> vacancyList = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            vacancyList.add(readVacancy(reader, dictionary));
+        }
+        return vacancyList;
+    }
+
+    /**
+     * Writes a single self-contained staff record
+     */
+    public static void writeStaff(Writer out, StaffHire staff) {
+        writeStaff(out, staff, null);
+    }
+
+    /**
+     * Writes a single staff record
+     * @param dictionary the file dictionary for repeated strings, or null to write them in full
+     */
+    private static void writeStaff(Writer out, StaffHire staff, FileDictionary dictionary) {
+        int flags = (staff.isJoined() ? FLAG_JOINED : 0) | (staff.isActive() ? FLAG_ACTIVE : 0);
+        if (staff instanceof FullTimeStaffHire) {
+            out.writeByte(TAG_FULL_TIME);
+        } else if (staff instanceof PartTimeStaffHire) {
+            out.writeByte(TAG_PART_TIME);
+            if (((PartTimeStaffHire) staff).isTerminated()) {
+                flags |= FLAG_TERMINATED;
+            }
+        } else {
+            out.writeByte(TAG_STAFF);
+        }
+        out.writeVarInt(staff.getVacancyNumber());
+        writeRepeated(out, staff.getDesignationCode(), dictionary);
+        writeRepeated(out, staff.getJobTypeCode(), dictionary);
+        out.writeString(staff.getStaffName());
+        out.writeString(staff.getJoiningDate());
+        writeRepeated(out, staff.getQualification(), dictionary);
+        writeRepeated(out, staff.getAppointedBy(), dictionary);
+        out.writeByte(flags);
+
+        if (staff instanceof FullTimeStaffHire) {
+            FullTimeStaffHire ftStaff = (FullTimeStaffHire) staff;
+            out.writeDouble(ftStaff.getSalary());
+            out.writeVarInt(ftStaff.getWeeklyFractionalHours());
+        } else if (staff instanceof PartTimeStaffHire) {
+            PartTimeStaffHire ptStaff = (PartTimeStaffHire) staff;
+            out.writeVarInt(ptStaff.getWorkingHour());
+            out.writeDouble(ptStaff.getWagesPerHour());
+            writeRepeated(out, ptStaff.getShiftsCode(), dictionary);
+        }
+    }
+
+    /**
+     * Reads a single self-contained staff record
+     */
+    public static StaffHire readStaff(Reader in) throws IOException {
+        return readStaff(in, null);
+    }
+
+    /**
+     * Reads a single staff record
+     * @param dictionary the file dictionary for repeated strings, or null if they are written in full
+     */
+    private static StaffHire readStaff(Reader in, FileDictionary dictionary) throws IOException {
+        int tag = in.readByte();
+        int vacancyNumber = in.readVarInt();
+        String designation = readRepeated(in, dictionary);
+        String jobType = readRepeated(in, dictionary);
+        String staffName = in.readString();
+        String joiningDate = in.readString();
+        String qualification = readRepeated(in, dictionary);
+        String appointedBy = readRepeated(in, dictionary);
+        int flags = in.readByte();
+        boolean joined = (flags & FLAG_JOINED) != 0;
+
+        StaffHire staff;
+        if (tag == TAG_FULL_TIME) {
+            double salary = in.readDouble();
+            int weeklyHours = in.readVarInt();
+            staff = new FullTimeStaffHire(vacancyNumber, designation, jobType, staffName,
+                                          joiningDate, qualification, appointedBy, joined,
+                                          salary, weeklyHours);
+        } else if (tag == TAG_PART_TIME) {
+            int workingHour = in.readVarInt();
+            double wagesPerHour = in.readDouble();
+            String shifts = readRepeated(in, dictionary);
+            PartTimeStaffHire ptStaff = new PartTimeStaffHire(vacancyNumber, designation, jobType,
+                                                              staffName, joiningDate, qualification,
+                                                              appointedBy, joined, workingHour,
+                                                              wagesPerHour, shifts);
+            ptStaff.setTerminated((flags & FLAG_TERMINATED) != 0);
+            staff = ptStaff;
+        } else if (tag == TAG_STAFF) {
+            staff = new StaffHire(vacancyNumber, designation, jobType, staffName,
+                                  joiningDate, qualification, appointedBy, joined);
+        } else {
+            throw new IOException("Unknown staff record type " + tag);
+        }
+        staff.setActive((flags & FLAG_ACTIVE) != 0);
+        return staff;
+    }
+
+    /**
+     * Writes a single self-contained vacancy record
+     */
+    public static void writeVacancy(Writer out, Vacancy vacancy) {
+        writeVacancy(out, vacancy, null);
+    }
+
+    /**
+     * Writes a single vacancy record
+     * @param dictionary the file dictionary for repeated strings, or null to write them in full
+     */
+    private static void writeVacancy(Writer out, Vacancy vacancy, FileDictionary dictionary) {
+        out.writeVarInt(vacancy.getVacancyId());
+        writeRepeated(out, vacancy.getDesignationCode(), dictionary);
+        writeRepeated(out, vacancy.getJobTypeCode(), dictionary);
+        out.writeByte(vacancy.isOpen() ? FLAG_OPEN : 0);
+    }
+
+    /**
+     * Reads a single self-contained vacancy record
+     */
+    public static Vacancy readVacancy(Reader in) throws IOException {
+        return readVacancy(in, null);
+    }
+
+    /**
+     * Reads a single vacancy record
+     * @param dictionary the file dictionary for repeated strings, or null if they are written in full
+     */
+    private static Vacancy readVacancy(Reader in, FileDictionary dictionary) throws IOException {
+        int vacancyId = in.readVarInt();
+        String designation = readRepeated(in, dictionary);
+        String jobType = readRepeated(in, dictionary);
+        int flags = in.readByte();
+        Vacancy vacancy = new Vacancy(vacancyId, designation, jobType);
+        vacancy.setOpen((flags & FLAG_OPEN) != 0);
+        return vacancy;
+    }
+
+    /**
+     * Encodes a single staff record into a byte array
+     */
+    public static byte[] encodeStaff(StaffHire staff) {
+        Writer writer = new Writer(96);
+        writeStaff(writer, staff);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Encodes a single vacancy record into a byte array
+     */
+    public static byte[] encodeVacancy(Vacancy vacancy) {
+        Writer writer = new Writer(32);
+        writeVacancy(writer, vacancy);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Reads the journal sequence number stored in the header of a data file
+     * @param data the file contents
+     * @return the sequence number, or 0 for files written before it was recorded
+     */
+    public static long readSequence(byte[] data) throws IOException {
+        Reader in = new Reader(data, 0, data.length);
+        int magic = in.readInt();
+        if (magic != STAFF_MAGIC && magic != VACANCY_MAGIC) {
+            throw new IOException("Not a recruitment data file");
+        }
+        int version = in.readVarInt();
+        return version == 1 ? 0 : in.readLong();
+    }
+
+    /**
+     * Checks the magic number and format version of a data file and reads
+     * the rest of the header
+     * @return the file dictionary, or null for files written before it was added
+     */
+    private static FileDictionary readHeader(Reader in, int expectedMagic) throws IOException {
+        int magic = in.readInt();
+        if (magic != expectedMagic) {
+            throw new IOException("Not a recruitment data file");
+        }
+        int version = in.readVarInt();
+        if (version < 1 || version > FORMAT_VERSION) {
+            throw new IOException("Unsupported data file version " + version);
+        }
+        if (version >= 2) {
+            in.readLong(); // journal sequence number, see readSequence
+        }
+        return version >= 3 ? FileDictionary.read(in) : null;
+    }
+
+    /**
+     * Reads the record count of a data file. Every record takes at least one
+     * byte, so a count larger than the bytes left means the file is damaged.
+     */
+    private static int readRecordCount(Reader in) throws IOException {
+        int count = in.readVarInt();
+        if (count < 0 || count > in.remaining()) {
+            throw new IOException("Bad record count " + count);
+        }
+        return count;
+    }
+
+    /**
+     * Writes a repeated string, as a dictionary index if there is a dictionary
+     * @param code the StringDictionary code of the string
+     */
+    private static void writeRepeated(Writer out, int code, FileDictionary dictionary) {
+        if (dictionary != null) {
+            out.writeVarInt(dictionary.indexOf(code));
+        } else {
+            out.writeString(StringDictionary.global().get(code));
+        }
+    }
+
+    /**
+     * Writes a repeated string that is not in the global dictionary, as a
+     * dictionary index if there is a dictionary
+     */
+    private static void writeRepeated(Writer out, String value, FileDictionary dictionary) {
+        if (dictionary != null) {
+            out.writeVarInt(dictionary.indexOf(value));
+        } else {
+            out.writeString(value);
+        }
+    }
+
+    private static String readRepeated(Reader in, FileDictionary dictionary) throws IOException {
+        return dictionary != null ? dictionary.get(in.readVarInt()) : in.readString();
+    }
+
+    /**
+     * The distinct repeated strings of one data file, in the order they are
+     * first used. Records refer to them by their index in the file.
+     */
+    private static class FileDictionary {
+        private static final StringDictionary GLOBAL = StringDictionary.global();
+
+        // Strings in file order; when writing, the file index of each global code plus one
+        // and of each string that is not in the global dictionary
+        private String[] strings = new String[16];
+        private int size;
+        private int[] indexByCode = new int[0];
+        private final HashMap<String, Integer> indexByValue = new HashMap<>();
+        private int nullIndex = -1;
+
+        /**
+         * Returns the file index for a global code, adding the string if it is new
+         */
+        int indexOf(int code) {
+            if (code == StringDictionary.NULL_CODE) {
+                if (nullIndex < 0) {
+                    nullIndex = add(null);
+                }
+                return nullIndex;
+            }
+            if (code >= indexByCode.length) {
+                indexByCode = Arrays.copyOf(indexByCode, Math.max(code + 1, GLOBAL.size()));
+            }
+            int index = indexByCode[code] - 1;
+            if (index < 0) {
+                index = add(GLOBAL.get(code));
+                indexByCode[code] = index + 1;
+            }
+            return index;
+        }
+
+        /**
+         * Returns the file index for a string that is not in the global
+         * dictionary, adding the string if it is new
+         */
+        int indexOf(String value) {
+            if (value == null) {
+                return indexOf(StringDictionary.NULL_CODE);
+            }
+            Integer index = indexByValue.get(value);
+            if (index == null) {
+                index = add(value);
+                indexByValue.put(value, index);
+            }
+            return index;
+        }
+
+        String get(int index) throws IOException {
+            if (index < 0 || index >= size) {
+                throw new IOException("Bad dictionary index " + index);
+            }
+            return strings[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        private int add(String value) {
+            if (size == strings.length) {
+                strings = Arrays.copyOf(strings, size * 2);
+            }
+            strings[size] = value;
+            return size++;
+        }
+
+        void writeTo(Writer out) {
+            out.writeVarInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeString(strings[i]);
+            }
+        }
+
+        /**
+         * Reads a dictionary. Its strings are shared by the records of this
+         * file only; records intern the ones they keep as global codes.
+         */
+        static FileDictionary read(Reader in) throws IOException {
+            FileDictionary dictionary = new FileDictionary();
+            int count = in.readVarInt();
+            if (count < 0) {
+                throw new IOException("Bad dictionary size " + count);
+            }
+            for (int i = 0; i < count; i++) {
+                dictionary.add(in.readString());
+            }
+            return dictionary;
+        }
+    }
+
+    /**
+     * Growable byte buffer that records are encoded into
+     */
+    public static class Writer {
+        private byte[] buf;
+        private int size;
+
+        public Writer(int initialCapacity) {
+            buf = new byte[Math.max(16, initialCapacity)];
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + extra));
+            }
+        }
+
+        public void writeByte(int value) {
+            ensure(1);
+            buf[size++] = (byte) value;
+        }
+
+        public void writeInt(int value) {
+            ensure(4);
+            buf[size++] = (byte) (value >>> 24);
+            buf[size++] = (byte) (value >>> 16);
+            buf[size++] = (byte) (value >>> 8);
+            buf[size++] = (byte) value;
+        }
+
+        public void writeLong(long value) {
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+
+        public void writeDouble(double value) {
+            writeLong(Double.doubleToLongBits(value));
+        }
+
+        /**
+         * Writes an int as a zig-zag encoded varint (1 to 5 bytes)
+         */
+        public void writeVarInt(int value) {
+            ensure(5);
+            int v = (value << 1) ^ (value >> 31);
+            while ((v & ~0x7F) != 0) {
+                buf[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[size++] = (byte) v;
+        }
+
+        /**
+         * Writes a length-prefixed UTF-8 string. Null is written as length -1.
+         */
+        public void writeString(String value) {
+            if (value == null) {
+                writeVarInt(-1);
+                return;
+            }
+            if (value.isEmpty()) {
+                writeVarInt(0);
+                return;
+            }
+            int length = value.length();
+            boolean ascii = true;
+            for (int i = 0; i < length; i++) {
+                if (value.charAt(i) >= 0x80) {
+                    ascii = false;
+                    break;
+                }
+            }
+            if (ascii) {
+                writeVarInt(length);
+                ensure(length);
+                for (int i = 0; i < length; i++) {
+                    buf[size++] = (byte) value.charAt(i);
+                }
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(bytes.length);
+                ensure(bytes.length);
+                System.arraycopy(bytes, 0, buf, size, bytes.length);
+                size += bytes.length;
+            }
+        }
+
+        public void writeBytes(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, size, bytes.length);
+            size += bytes.length;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(buf, size);
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(buf, 0, size);
+        }
+    }
+
+    /**
+     * Cursor over a byte array that records are decoded from
+     */
+    public static class Reader {
+        private final byte[] buf;
+        private final int end;
+        private int pos;
+
+        public Reader(byte[] buf, int offset, int length) {
+            this.buf = buf;
+            this.pos = offset;
+            this.end = offset + length;
+        }
+
+        private void require(int count) throws IOException {
+            if (count < 0 || count > end - pos) {
+                throw new EOFException("Unexpected end of record data");
+            }
+        }
+
+        public int readByte() throws IOException {
+            require(1);
+            return buf[pos++] & 0xFF;
+        }
+
+        public int readInt() throws IOException {
+            require(4);
+            int value = ((buf[pos] & 0xFF) << 24) | ((buf[pos + 1] & 0xFF) << 16)
+                      | ((buf[pos + 2] & 0xFF) << 8) | (buf[pos + 3] & 0xFF);
+            pos += 4;
+            return value;
+        }
+
+        public long readLong() throws IOException {
+            long high = readInt() & 0xFFFFFFFFL;
+            return (high << 32) | (readInt() & 0xFFFFFFFFL);
+        }
+
+        public double readDouble() throws IOException {
+            return Double.longBitsToDouble(readLong());
+        }
+
+        /**
+         * Reads a zig-zag encoded varint
+         */
+        public int readVarInt() throws IOException {
+            int v = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                v |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return (v >>> 1) ^ -(v & 1);
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        /**
+         * Reads a length-prefixed UTF-8 string
+         * @return the string, or null if null was written
+         */
+        public String readString() throws IOException {
+            int length = readVarInt();
+            if (length == -1) {
+                return null;
+            }
+            if (length == 0) {
+                return "";
+            }
+            require(length);
+            String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        public byte[] readBytes(int length) throws IOException {
+            require(length);
+            byte[] bytes = Arrays.copyOfRange(buf, pos, pos + length);
+            pos += length;
+            return bytes;
+        }
+
+        public boolean hasRemaining() {
+            return pos < end;
+        }
+
+        public int remaining() {
+            return end - pos;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * RecordTableModel class - table model over staff or vacancy records
+ *
+ * Shows either all records, in the order they were attached to the
+ * RecordChangeDispatcher, or a fixed list of records such as a query
+ * result. The table only asks for the cells of visible rows, and adding or
+ * changing a record fires an event for that one row, so the table repaints
+ * in proportion to the change rather than the number of records.
+ *
+ * The record list must hold the record with ordinal i at position i, which
+ * holds as records are only appended, so rows can be kept as ordinals.
+ * Must be used on the EDT.
+ *
+ * @param <T> the type of the records
+ */
+public abstract class RecordTableModel<T> extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    private final String[] columnNames;
+    private final Class<?>[] columnClasses;
+
+    private List<T> records = List.of();
+
+    // Ordinals of the rows shown instead of all records, or null to show all records
+    private int[] rows;
+    // Row of each record by ordinal when showing a fixed list, -1 if not shown
+    private int[] rowByOrdinal = new int[0];
+
+    /**
+     * Constructor for a model with the given columns
+     * @param columnNames the column headers
+     * @param columnClasses the class of the values in each column
+     */
+    protected RecordTableModel(String[] columnNames, Class<?>[] columnClasses) {
+        this.columnNames = columnNames;
+        this.columnClasses = columnClasses;
+    }
+
+    /**
+     * Returns the value shown in a column for a record
+     */
+    protected abstract Object getValue(T record, int column);
+
+    /**
+     * Returns the ordinal the record was given when it was attached
+     */
+    protected abstract int ordinalOf(T record);
+
+    // Shown rows
+
+    /**
+     * Sets the list of all records and shows them. The list is not copied;
+     * records added to it must be reported through recordAdded.
+     */
+    public void setRecords(List<T> records) {
+        this.records = records;
+        showAll();
+    }
+
+    /**
+     * Shows all records
+     */
+    public void showAll() {
+        rows = null;
+        rowByOrdinal = new int[0];
+        fireTableDataChanged();
+    }
+
+    /**
+     * Shows only the given records, in the given order
+     */
+    public void showRows(List<T> rows) {
+        int[] ordinals = new int[rows.size()];
+        for (int row = 0; row < ordinals.length; row++) {
+            ordinals[row] = ordinalOf(rows.get(row));
+        }
+        showOrdinals(ordinals);
+    }
+
+    /**
+     * Shows only the records with the given ordinals, in the given order.
+     * The array is not copied and must not be changed afterwards.
+     */
+    public void showOrdinals(int[] ordinals) {
+        rows = ordinals;
+        rowByOrdinal = new int[records.size()];
+        Arrays.fill(rowByOrdinal, -1);
+        for (int row = 0; row < ordinals.length; row++) {
+            rowByOrdinal[ordinals[row]] = row;
+        }
+        fireTableDataChanged();
+    }
+
+    /**
+     * Returns true if all records are shown
+     */
+    public boolean isShowingAll() {
+        return rows == null;
+    }
+
+    /**
+     * Returns the record shown in a row
+     */
+    public T getRecordAt(int row) {
+        return records.get(rows == null ? row : rows[row]);
+    }
+
+    // Updates
+
+    /**
+     * Inserts the row of a record added to the list of all records
+     */
+    protected void recordAdded(T record) {
+        if (rows == null) {
+            int row = ordinalOf(record);
+            fireTableRowsInserted(row, row);
+        }
+    }
+
+    /**
+     * Removes the row of the record added last, once it is out of the list
+     */
+    protected void recordRemoved(T record) {
+        if (rows == null) {
+            int row = ordinalOf(record);
+            fireTableRowsDeleted(row, row);
+        }
+    }
+
+    /**
+     * Repaints the row of a changed record, if it is shown
+     */
+    protected void recordChanged(T record) {
+        int row = rowOf(record);
+        if (row >= 0) {
+            fireTableRowsUpdated(row, row);
+        }
+    }
+
+    private int rowOf(T record) {
+        int ordinal = ordinalOf(record);
+        if (rows == null) {
+            return ordinal < records.size() ? ordinal : -1;
+        }
+        return ordinal < rowByOrdinal.length ? rowByOrdinal[ordinal] : -1;
+    }
+
+    // AbstractTableModel
+
+    @Override
+    public int getRowCount() {
+        return rows == null ? records.size() : rows.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return columnClasses[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return getValue(getRecordAt(row), column);
+    }
+}
@@ -0,0 +1,376 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RecruitmentCli class - runs batches of commands without the GUI
+ *
+ * Loads the same data files as RecruitmentSystem, runs one command per line
+ * from a file or standard input, and appends all the changes to the
+ * journals with one write per journal at the end, so a batch of any size
+ * costs one disk sync. Only the lookups the commands need are built, and
+ * no AWT or Swing class is loaded. Do not run it while the GUI is open, as
+ * the GUI writes its own copy of the data when it closes.
+ *
+ * Usage: java RecruitmentCli [batch-file]   (reads standard input without a file or with -)
+ *
+ * Commands (quote values containing spaces; lines starting with # are skipped):
+ *   add-vacancy VACANCY_ID DESIGNATION JOB_TYPE
+ *   hire-fulltime VACANCY_NUMBER NAME JOINING_DATE QUALIFICATION APPOINTED_BY JOINED SALARY WEEKLY_HOURS
+ *   hire-parttime VACANCY_NUMBER NAME JOINING_DATE QUALIFICATION APPOINTED_BY JOINED WORKING_HOURS WAGES_PER_HOUR SHIFTS
+ *   terminate VACANCY_NUMBER
+ *   set-salary VACANCY_NUMBER SALARY
+ *   set-hours VACANCY_NUMBER WEEKLY_HOURS
+ *   set-shifts VACANCY_NUMBER SHIFTS
+ *   report [summary|vacancies|staff]
+ *
+ * The rules are those of RecruitmentStore, as in the GUI, and the
+ * designation and job type of a hire are those of its vacancy. A line
+ * that fails is reported on standard error and skipped; the exit status is
+ * 1 if any line failed.
+ */
+public class RecruitmentCli implements RecruitmentStore.Journal {
+    private static final int REPORT_PAGE_SIZE = 1000;
+
+    private final ArrayList<StaffHire> staffList;
+    private final ArrayList<Vacancy> vacancyList;
+    private final RecruitmentStore store = new RecruitmentStore();
+    private final PayrollAggregates payrollAggregates = new PayrollAggregates();
+
+    // Journal entries of the changes made, written when the batch is done
+    private final List<byte[]> staffEntries = new ArrayList<>();
+    private final List<byte[]> vacancyEntries = new ArrayList<>();
+
+    /**
+     * Constructor for a CLI over the given records
+     * @param staffList the loaded staff
+     * @param vacancyList the loaded vacancies
+     */
+    public RecruitmentCli(ArrayList<StaffHire> staffList, ArrayList<Vacancy> vacancyList) {
+        this.staffList = staffList;
+        this.vacancyList = vacancyList;
+        store.addListener(payrollAggregates);
+        store.load(staffList, vacancyList);
+        store.setJournal(this);
+    }
+
+    /**
+     * Runs each line of a batch
+     * @param in the batch
+     * @return the number of lines that failed
+     */
+    public int runBatch(BufferedReader in) throws IOException {
+        int failures = 0;
+        int lineNumber = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                runCommand(tokenize(line));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Error on line " + lineNumber + ": " + e.getMessage());
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Runs one command
+     * @param args the command name followed by its arguments
+     * @throws IllegalArgumentException if the command is unknown, invalid or cannot be done
+     */
+    public void runCommand(List<String> args) {
+        String command = args.get(0);
+        switch (command) {
+            case "add-vacancy":
+                expectArgs(args, 3, "add-vacancy VACANCY_ID DESIGNATION JOB_TYPE");
+                store.addVacancy(parseInt(args.get(1), "vacancy ID"), args.get(2), args.get(3));
+                break;
+            case "hire-fulltime":
+                expectArgs(args, 8, "hire-fulltime VACANCY_NUMBER NAME JOINING_DATE QUALIFICATION "
+                                    + "APPOINTED_BY JOINED SALARY WEEKLY_HOURS");
+                hireFullTime(args);
+                break;
+            case "hire-parttime":
+                expectArgs(args, 9, "hire-parttime VACANCY_NUMBER NAME JOINING_DATE QUALIFICATION "
+                                    + "APPOINTED_BY JOINED WORKING_HOURS WAGES_PER_HOUR SHIFTS");
+                hirePartTime(args);
+                break;
+            case "terminate":
+                expectArgs(args, 1, "terminate VACANCY_NUMBER");
+                store.terminate(parseInt(args.get(1), "vacancy number"));
+                break;
+            case "set-salary":
+                expectArgs(args, 2, "set-salary VACANCY_NUMBER SALARY");
+                store.setSalary(parseInt(args.get(1), "vacancy number"), parseDouble(args.get(2), "salary"));
+                break;
+            case "set-hours":
+                expectArgs(args, 2, "set-hours VACANCY_NUMBER WEEKLY_HOURS");
+                store.setWeeklyFractionalHours(parseInt(args.get(1), "vacancy number"),
+                                               parseInt(args.get(2), "weekly hours"));
+                break;
+            case "set-shifts":
+                expectArgs(args, 2, "set-shifts VACANCY_NUMBER SHIFTS");
+                store.setShifts(parseInt(args.get(1), "vacancy number"), args.get(2));
+                break;
+            case "report":
+                report(args.size() > 1 ? args.get(1) : "summary");
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown command " + command);
+        }
+    }
+
+    // Commands
+
+    private void hireFullTime(List<String> args) {
+        Vacancy vacancy = vacancyForHire(parseInt(args.get(1), "vacancy number"));
+        double salary = parseDouble(args.get(7), "salary");
+        int weeklyHours = parseInt(args.get(8), "weekly hours");
+        store.hire(new FullTimeStaffHire(vacancy.getVacancyId(), vacancy.getDesignation(),
+                                         vacancy.getJobType(), args.get(2), args.get(3), args.get(4),
+                                         args.get(5), parseBoolean(args.get(6), "joined"),
+                                         salary, weeklyHours));
+    }
+
+    private void hirePartTime(List<String> args) {
+        Vacancy vacancy = vacancyForHire(parseInt(args.get(1), "vacancy number"));
+        int workingHour = parseInt(args.get(7), "working hours");
+        double wagesPerHour = parseDouble(args.get(8), "wages per hour");
+        store.hire(new PartTimeStaffHire(vacancy.getVacancyId(), vacancy.getDesignation(),
+                                         vacancy.getJobType(), args.get(2), args.get(3), args.get(4),
+                                         args.get(5), parseBoolean(args.get(6), "joined"),
+                                         workingHour, wagesPerHour, args.get(9)));
+    }
+
+    /**
+     * Returns the open vacancy a staff member is being hired for, whose
+     * designation and job type they take; the store checks it again on hiring
+     */
+    private Vacancy vacancyForHire(int vacancyNumber) {
+        Vacancy vacancy = store.getOpenVacancy(vacancyNumber);
+        if (vacancy == null) {
+            throw new IllegalArgumentException("No open vacancy found with number " + vacancyNumber);
+        }
+        return vacancy;
+    }
+
+    private void report(String kind) {
+        switch (kind) {
+            case "summary":
+                printSummary();
+                break;
+            case "vacancies":
+                // A page at a time, so reports of any size take little memory
+                RecruitmentQuery.Page<Vacancy> vacancyPage = null;
+                do {
+                    vacancyPage = store.pageVacancies(null, null, true, nextCursor(vacancyPage), REPORT_PAGE_SIZE);
+                    for (Vacancy vacancy : vacancyPage.getItems()) {
+                        System.out.println(vacancy);
+                    }
+                } while (vacancyPage.hasMore());
+                break;
+            case "staff":
+                RecruitmentQuery.StaffCriteria active = new RecruitmentQuery.StaffCriteria().active(true);
+                RecruitmentQuery.Page<StaffHire> staffPage = null;
+                do {
+                    staffPage = store.pageStaff(active, nextCursor(staffPage), REPORT_PAGE_SIZE);
+                    for (StaffHire staff : staffPage.getItems()) {
+                        System.out.println(staff.getVacancyNumber() + " | " + staff.getStaffName() + " | "
+                                           + staff.getDesignation() + " | " + staff.getJobType() + " | "
+                                           + (staff instanceof FullTimeStaffHire ? "Full Time" : "Part Time"));
+                    }
+                } while (staffPage.hasMore());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown report " + kind + " (summary, vacancies or staff)");
+        }
+    }
+
+    private static int nextCursor(RecruitmentQuery.Page<?> page) {
+        return page == null ? -1 : page.getNextCursor();
+    }
+
+    private void printSummary() {
+        System.out.println("=== RECRUITMENT SUMMARY ===");
+        System.out.printf("Vacancies: %d (%d open)%n", store.getVacancyCount(), store.getOpenVacancyCount());
+        System.out.printf("Staff: %d (%d active)%n", store.getStaffCount(),
+                          store.countStaff(RecruitmentQuery.StaffFlag.ACTIVE));
+        System.out.printf("Full Time Staff: %d, Total Salary: %.2f, Average Salary: %.2f, Weekly Hours: %d%n",
+                          payrollAggregates.getFullTimeCount(), payrollAggregates.getTotalSalary(),
+                          payrollAggregates.getAverageSalary(), payrollAggregates.getTotalWeeklyHours());
+        System.out.printf("Part Time Staff: %d, Total Income Per Day: %.2f%n",
+                          payrollAggregates.getPartTimeCount(), payrollAggregates.getTotalDailyIncome());
+        System.out.println("--- Headcount by Designation ---");
+        for (Map.Entry<String, Integer> entry : payrollAggregates.getHeadcountByDesignation().entrySet()) {
+            System.out.printf("%-30s %d%n", entry.getKey(), entry.getValue());
+        }
+    }
+
+    // Persistence
+
+    @Override
+    public void journalVacancyAdded(Vacancy vacancy) {
+        vacancyEntries.add(FileHandler.vacancyAddedEntry(vacancy));
+    }
+
+    @Override
+    public void journalVacancyClosed(int vacancyId) {
+        vacancyEntries.add(FileHandler.vacancyClosedEntry(vacancyId));
+    }
+
+    @Override
+    public void journalHire(StaffHire staff) {
+        staffEntries.add(FileHandler.hireEntry(staff));
+    }
+
+    @Override
+    public void journalTerminate(int vacancyNumber) {
+        staffEntries.add(FileHandler.terminateEntry(vacancyNumber));
+    }
+
+    @Override
+    public void journalStaffUpdated(StaffHire staff) {
+        staffEntries.add(FileHandler.staffUpdatedEntry(staff));
+    }
+
+    /**
+     * Appends the changes made to the journals, one write per journal, and
+     * compacts the journals into snapshots once they grow large
+     * @return true if successful, false otherwise
+     */
+    public boolean commit() {
+        boolean saved = FileHandler.appendVacancyJournal(vacancyEntries)
+                        && FileHandler.appendStaffJournal(staffEntries);
+        if (saved) {
+            vacancyEntries.clear();
+            staffEntries.clear();
+            if (FileHandler.getJournalSize() > PersistenceWorker.DEFAULT_COMPACTION_BYTES) {
+                saved = FileHandler.saveVacancyData(vacancyList) && FileHandler.saveStaffData(staffList);
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Returns the number of changes not yet written
+     */
+    public int getPendingChanges() {
+        return staffEntries.size() + vacancyEntries.size();
+    }
+
+    // Parsing
+
+    /**
+     * Splits a line on spaces, keeping text in double quotes together
+     */
+    static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        boolean quoted = false;
+        boolean inToken = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+                inToken = true;
+            } else if (Character.isWhitespace(c) && !quoted) {
+                if (inToken) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                    inToken = false;
+                }
+            } else {
+                token.append(c);
+                inToken = true;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Missing closing quote");
+        }
+        if (inToken) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    private static void expectArgs(List<String> args, int count, String usage) {
+        if (args.size() != count + 1) {
+            throw new IllegalArgumentException("Usage: " + usage);
+        }
+        for (String arg : args) {
+            if (arg.isEmpty()) {
+                throw new IllegalArgumentException("Empty value; usage: " + usage);
+            }
+        }
+    }
+
+    private static int parseInt(String text, String name) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + text);
+        }
+    }
+
+    private static double parseDouble(String text, String name) {
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + text);
+        }
+    }
+
+    private static boolean parseBoolean(String text, String name) {
+        switch (text.toLowerCase()) {
+            case "yes": case "y": case "true":
+                return true;
+            case "no": case "n": case "false":
+                return false;
+            default:
+                throw new IllegalArgumentException("Invalid " + name + " (yes or no): " + text);
+        }
+    }
+
+    /**
+     * Main method
+     * @param args the batch file, or none or - for standard input
+     */
+    public static void main(String[] args) {
+        RecruitmentCli cli;
+        try {
+            cli = new RecruitmentCli(FileHandler.loadStaffData(), FileHandler.loadVacancyData());
+        } catch (UncheckedIOException e) {
+            System.err.println("Error loading data: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        int failures;
+        try (BufferedReader in = args.length == 0 || args[0].equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in))
+                : new BufferedReader(new FileReader(args[0]))) {
+            failures = cli.runBatch(in);
+        } catch (IOException e) {
+            System.err.println("Error reading batch: " + e.getMessage());
+            failures = 1;
+        }
+
+        int changes = cli.getPendingChanges();
+        if (!cli.commit()) {
+            System.err.println("Error saving " + changes + " changes");
+            System.exit(2);
+        }
+        System.err.println(changes + " changes saved" + (failures > 0 ? ", " + failures + " lines failed" : ""));
+        System.exit(failures > 0 ? 1 : 0);
+    }
+}
@@ -0,0 +1,677 @@
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * RecruitmentQuery class - indexed lookups and filtered queries over staff and vacancies
+ *
+ * Keeps indexes from vacancy number to record and secondary indexes on
+ * designation, job type, appointed by, qualification and status. The indexes
+ * follow the records through RecordChangeListener, so they stay correct when
+ * records are added, terminated or changed through their setters.
+ *
+ * Each index is a CompressedBitmap of record ordinals, the positions
+ * RecordChangeDispatcher gives records as they are attached. A query intersects
+ * the bitmaps it needs, starting from the smallest, so combined filters such
+ * as "active AND part-time" are word-wide bit operations, and the size of a
+ * single index is known in constant time. When the designation, job type and
+ * status of a vacancy are all given, a combined index holds exactly the result.
+ * Paged queries instead seek through the bitmaps from a cursor, so reading a
+ * page takes memory and time in proportion to the page, wherever it starts.
+ *
+ * Text values match ignoring case and surrounding spaces. The designation
+ * and job type indexes are keyed by folded StringDictionary codes, so matching
+ * a value is an int comparison. Appointed by and qualification are free text
+ * kept out of the global dictionary, so their indexes are keyed by the folded
+ * string and go away with this query.
+ */
+public class RecruitmentQuery implements RecordChangeListener {
+    /**
+     * Status and type flags with a bitmap index for staff
+     */
+    public enum StaffFlag {
+        ACTIVE, JOINED, TERMINATED, PART_TIME, FULL_TIME
+    }
+
+    /**
+     * Filter for staff queries. Criteria left unset match any record.
+     */
+    public static class StaffCriteria {
+        private String designation;
+        private String jobType;
+        private String appointedBy;
+        private String qualification;
+        private Boolean active;
+        private Boolean joined;
+        private Boolean terminated;
+        private Boolean partTime;
+
+        public StaffCriteria designation(String designation) {
+            this.designation = designation;
+            return this;
+        }
+
+        public StaffCriteria jobType(String jobType) {
+            this.jobType = jobType;
+            return this;
+        }
+
+        public StaffCriteria appointedBy(String appointedBy) {
+            this.appointedBy = appointedBy;
+            return this;
+        }
+
+        public StaffCriteria qualification(String qualification) {
+            this.qualification = qualification;
+            return this;
+        }
+
+        public StaffCriteria active(boolean active) {
+            this.active = active;
+            return this;
+        }
+
+        public StaffCriteria joined(boolean joined) {
+            this.joined = joined;
+            return this;
+        }
+
+        public StaffCriteria terminated(boolean terminated) {
+            this.terminated = terminated;
+            return this;
+        }
+
+        /**
+         * Selects part-time staff if true, full-time staff if false
+         */
+        public StaffCriteria partTime(boolean partTime) {
+            this.partTime = partTime;
+            return this;
+        }
+    }
+
+    /**
+     * One page of query results, with the cursor for the page after it
+     */
+    public static class Page<T> {
+        private final List<T> items;
+        private final int nextCursor;
+
+        Page(List<T> items, int nextCursor) {
+            this.items = items;
+            this.nextCursor = nextCursor;
+        }
+
+        /**
+         * Returns the records on this page, in the order they were added
+         */
+        public List<T> getItems() {
+            return items;
+        }
+
+        /**
+         * Returns the cursor to pass for the next page, or -1 if this is the last page
+         */
+        public int getNextCursor() {
+            return nextCursor;
+        }
+
+        public boolean hasMore() {
+            return nextCursor >= 0;
+        }
+    }
+
+    private static final StringDictionary DICTIONARY = StringDictionary.global();
+
+    // Records by ordinal
+    private final ArrayList<StaffHire> staffByOrdinal = new ArrayList<>();
+    private final ArrayList<Vacancy> vacanciesByOrdinal = new ArrayList<>();
+
+    // Primary indexes by vacancy number
+    private final IntObjectMap<Vacancy> vacancyById = new IntObjectMap<>();
+    private final IntObjectMap<StaffHire> staffByVacancy = new IntObjectMap<>();
+
+    // Staff secondary indexes
+    private final CompressedBitmap allStaff = new CompressedBitmap();
+    private final EnumMap<StaffFlag, CompressedBitmap> staffFlags = new EnumMap<>(StaffFlag.class);
+    private final IntObjectMap<CompressedBitmap> staffByDesignation = new IntObjectMap<>();
+    private final IntObjectMap<CompressedBitmap> staffByJobType = new IntObjectMap<>();
+    private final HashMap<String, CompressedBitmap> staffByAppointedBy = new HashMap<>();
+    private final HashMap<String, CompressedBitmap> staffByQualification = new HashMap<>();
+
+    // Vacancy secondary indexes
+    private final CompressedBitmap allVacancies = new CompressedBitmap();
+    private final CompressedBitmap openVacancies = new CompressedBitmap();
+    private final IntObjectMap<CompressedBitmap> vacanciesByDesignation = new IntObjectMap<>();
+    private final IntObjectMap<CompressedBitmap> vacanciesByJobType = new IntObjectMap<>();
+    private final HashMap<Long, CompressedBitmap> vacanciesByKey = new HashMap<>();
+
+    /**
+     * Constructor for an empty RecruitmentQuery
+     */
+    public RecruitmentQuery() {
+        for (StaffFlag flag : StaffFlag.values()) {
+            staffFlags.put(flag, new CompressedBitmap());
+        }
+    }
+
+    // Lookups
+
+    /**
+     * Returns the vacancy with the given ID
+     * @return the vacancy, or null if there is none
+     */
+    public Vacancy getVacancy(int vacancyId) {
+        return vacancyById.get(vacancyId);
+    }
+
+    /**
+     * Returns the staff record for a vacancy number. A vacancy number can
+     * have several records over time; the active one is returned if there is one.
+     * @return the staff record, or null if there is none
+     */
+    public StaffHire getStaff(int vacancyNumber) {
+        return staffByVacancy.get(vacancyNumber);
+    }
+
+    /**
+     * Returns the staff record with the given ordinal
+     */
+    public StaffHire getStaffAt(int ordinal) {
+        return staffByOrdinal.get(ordinal);
+    }
+
+    /**
+     * Returns the vacancy with the given ordinal
+     */
+    public Vacancy getVacancyAt(int ordinal) {
+        return vacanciesByOrdinal.get(ordinal);
+    }
+
+    // Queries
+
+    /**
+     * Returns the staff matching the criteria, in the order they were added
+     */
+    public List<StaffHire> findStaff(StaffCriteria criteria) {
+        List<StaffHire> result = new ArrayList<>();
+        matchStaff(criteria).forEach(ordinal -> result.add(staffByOrdinal.get(ordinal)));
+        return result;
+    }
+
+    /**
+     * Returns the number of staff matching the criteria
+     */
+    public int countStaff(StaffCriteria criteria) {
+        return matchStaff(criteria).size();
+    }
+
+    /**
+     * Returns the number of staff with a flag, in constant time
+     */
+    public int countStaff(StaffFlag flag) {
+        return staffFlags.get(flag).size();
+    }
+
+    /**
+     * Returns the ordinals of the staff matching the criteria
+     */
+    public CompressedBitmap matchStaff(StaffCriteria criteria) {
+        List<CompressedBitmap> required = new ArrayList<>();
+        List<CompressedBitmap> excluded = new ArrayList<>();
+        addStaffFilters(criteria, required, excluded);
+        return combine(allStaff, required, excluded);
+    }
+
+    /**
+     * Returns a page of the staff matching the criteria, in the order they were added
+     * @param criteria the filter
+     * @param cursor the cursor from the previous page, or -1 for the first page
+     * @param limit the most records on the page
+     */
+    public Page<StaffHire> pageStaff(StaffCriteria criteria, int cursor, int limit) {
+        List<CompressedBitmap> required = new ArrayList<>();
+        List<CompressedBitmap> excluded = new ArrayList<>();
+        addStaffFilters(criteria, required, excluded);
+        return page(staffByOrdinal, allStaff, required, excluded, cursor, limit);
+    }
+
+    private void addStaffFilters(StaffCriteria criteria, List<CompressedBitmap> required,
+                                 List<CompressedBitmap> excluded) {
+        addBucket(required, staffByDesignation, criteria.designation);
+        addBucket(required, staffByJobType, criteria.jobType);
+        addBucket(required, staffByAppointedBy, criteria.appointedBy);
+        addBucket(required, staffByQualification, criteria.qualification);
+        addFlag(required, excluded, StaffFlag.ACTIVE, criteria.active);
+        addFlag(required, excluded, StaffFlag.JOINED, criteria.joined);
+        addFlag(required, excluded, StaffFlag.TERMINATED, criteria.terminated);
+        addFlag(required, excluded, StaffFlag.PART_TIME, criteria.partTime);
+    }
+
+    /**
+     * Returns the vacancies matching all given values, in the order they were added
+     * @param designation the designation, or null for any
+     * @param jobType the job type, or null for any
+     * @param open true for open vacancies, false for closed ones, or null for any
+     */
+    public List<Vacancy> findVacancies(String designation, String jobType, Boolean open) {
+        List<Vacancy> result = new ArrayList<>();
+        matchVacancies(designation, jobType, open)
+            .forEach(ordinal -> result.add(vacanciesByOrdinal.get(ordinal)));
+        return result;
+    }
+
+    /**
+     * Returns the ordinals of the vacancies matching all given values
+     */
+    public CompressedBitmap matchVacancies(String designation, String jobType, Boolean open) {
+        List<CompressedBitmap> required = new ArrayList<>();
+        List<CompressedBitmap> excluded = new ArrayList<>();
+        addVacancyFilters(designation, jobType, open, required, excluded);
+        return combine(allVacancies, required, excluded);
+    }
+
+    /**
+     * Returns a page of the vacancies matching all given values, in the order they were added
+     * @param cursor the cursor from the previous page, or -1 for the first page
+     * @param limit the most vacancies on the page
+     */
+    public Page<Vacancy> pageVacancies(String designation, String jobType, Boolean open, int cursor, int limit) {
+        List<CompressedBitmap> required = new ArrayList<>();
+        List<CompressedBitmap> excluded = new ArrayList<>();
+        addVacancyFilters(designation, jobType, open, required, excluded);
+        return page(vacanciesByOrdinal, allVacancies, required, excluded, cursor, limit);
+    }
+
+    private void addVacancyFilters(String designation, String jobType, Boolean open,
+                                   List<CompressedBitmap> required, List<CompressedBitmap> excluded) {
+        if (designation != null && jobType != null && open != null) {
+            int designationCode = DICTIONARY.foldedCodeOf(designation);
+            int jobTypeCode = DICTIONARY.foldedCodeOf(jobType);
+            CompressedBitmap bucket = designationCode < 0 || jobTypeCode < 0 ? null
+                : vacanciesByKey.get(vacancyKey(designationCode, jobTypeCode, open));
+            required.add(bucket != null ? bucket : new CompressedBitmap());
+        } else {
+            addBucket(required, vacanciesByDesignation, designation);
+            addBucket(required, vacanciesByJobType, jobType);
+            if (open != null) {
+                (open ? required : excluded).add(openVacancies);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of staff records
+     */
+    public int getStaffCount() {
+        return allStaff.size();
+    }
+
+    /**
+     * Returns the number of vacancies
+     */
+    public int getVacancyCount() {
+        return allVacancies.size();
+    }
+
+    /**
+     * Returns the number of open vacancies, in constant time
+     */
+    public int getOpenVacancyCount() {
+        return openVacancies.size();
+    }
+
+    // Index maintenance
+
+    @Override
+    public void staffAdded(StaffHire staff) {
+        int ordinal = staff.getOrdinal();
+        if (!place(staffByOrdinal, ordinal, staff)) {
+            return;
+        }
+        allStaff.add(ordinal);
+        indexStaffNumber(staff);
+        add(staffByDesignation, folded(staff.getDesignationCode()), ordinal);
+        add(staffByJobType, folded(staff.getJobTypeCode()), ordinal);
+        add(staffByAppointedBy, fold(staff.getAppointedBy()), ordinal);
+        add(staffByQualification, fold(staff.getQualification()), ordinal);
+        staffFlags.get(StaffFlag.PART_TIME).set(ordinal, staff instanceof PartTimeStaffHire);
+        staffFlags.get(StaffFlag.FULL_TIME).set(ordinal, staff instanceof FullTimeStaffHire);
+        updateStaffStatus(staff);
+    }
+
+    @Override
+    public void staffRemoved(StaffHire staff) {
+        int ordinal = staff.getOrdinal();
+        if (ordinal >= staffByOrdinal.size() || staffByOrdinal.get(ordinal) != staff) {
+            return;
+        }
+        staffByOrdinal.set(ordinal, null);
+        allStaff.remove(ordinal);
+        remove(staffByDesignation, folded(staff.getDesignationCode()), ordinal);
+        remove(staffByJobType, folded(staff.getJobTypeCode()), ordinal);
+        remove(staffByAppointedBy, fold(staff.getAppointedBy()), ordinal);
+        remove(staffByQualification, fold(staff.getQualification()), ordinal);
+        for (CompressedBitmap flag : staffFlags.values()) {
+            flag.remove(ordinal);
+        }
+        if (staffByVacancy.get(staff.getVacancyNumber()) == staff) {
+            // Point the number back at the record it had before, found as when loading
+            staffByVacancy.remove(staff.getVacancyNumber());
+            for (StaffHire other : staffByOrdinal) {
+                if (other != null && other.getVacancyNumber() == staff.getVacancyNumber()) {
+                    indexStaffNumber(other);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void staffChanged(StaffHire staff, String property, Object oldValue) {
+        int ordinal = staff.getOrdinal();
+        if (ordinal >= staffByOrdinal.size() || staffByOrdinal.get(ordinal) != staff) {
+            return;
+        }
+        switch (property) {
+            case "vacancyNumber":
+                int oldNumber = (Integer) oldValue;
+                if (staffByVacancy.get(oldNumber) == staff) {
+                    staffByVacancy.remove(oldNumber);
+                }
+                indexStaffNumber(staff);
+                break;
+            case "designation":
+                move(staffByDesignation, folded((String) oldValue), folded(staff.getDesignationCode()), ordinal);
+                break;
+            case "jobType":
+                move(staffByJobType, folded((String) oldValue), folded(staff.getJobTypeCode()), ordinal);
+                break;
+            case "appointedBy":
+                move(staffByAppointedBy, fold((String) oldValue), fold(staff.getAppointedBy()), ordinal);
+                break;
+            case "qualification":
+                move(staffByQualification, fold((String) oldValue), fold(staff.getQualification()), ordinal);
+                break;
+            case "active":
+                updateStaffStatus(staff);
+                indexStaffNumber(staff);
+                break;
+            case "joined":
+            case "terminated":
+                updateStaffStatus(staff);
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void vacancyAdded(Vacancy vacancy) {
+        int ordinal = vacancy.getOrdinal();
+        if (!place(vacanciesByOrdinal, ordinal, vacancy)) {
+            return;
+        }
+        allVacancies.add(ordinal);
+        // The first vacancy with an ID keeps it
+        if (!vacancyById.containsKey(vacancy.getVacancyId())) {
+            vacancyById.put(vacancy.getVacancyId(), vacancy);
+        }
+        int designation = folded(vacancy.getDesignationCode());
+        int jobType = folded(vacancy.getJobTypeCode());
+        add(vacanciesByDesignation, designation, ordinal);
+        add(vacanciesByJobType, jobType, ordinal);
+        vacanciesByKey.computeIfAbsent(vacancyKey(designation, jobType, vacancy.isOpen()),
+                                       k -> new CompressedBitmap()).add(ordinal);
+        openVacancies.set(ordinal, vacancy.isOpen());
+    }
+
+    @Override
+    public void vacancyChanged(Vacancy vacancy, String property, Object oldValue) {
+        int ordinal = vacancy.getOrdinal();
+        if (ordinal >= vacanciesByOrdinal.size() || vacanciesByOrdinal.get(ordinal) != vacancy) {
+            return;
+        }
+        int designation = folded(vacancy.getDesignationCode());
+        int jobType = folded(vacancy.getJobTypeCode());
+        boolean open = vacancy.isOpen();
+        long newKey = vacancyKey(designation, jobType, open);
+        switch (property) {
+            case "vacancyId":
+                int oldId = (Integer) oldValue;
+                if (vacancyById.get(oldId) == vacancy) {
+                    vacancyById.remove(oldId);
+                }
+                if (!vacancyById.containsKey(vacancy.getVacancyId())) {
+                    vacancyById.put(vacancy.getVacancyId(), vacancy);
+                }
+                return;
+            case "designation":
+                move(vacanciesByDesignation, folded((String) oldValue), designation, ordinal);
+                designation = folded((String) oldValue);
+                break;
+            case "jobType":
+                move(vacanciesByJobType, folded((String) oldValue), jobType, ordinal);
+                jobType = folded((String) oldValue);
+                break;
+            case "open":
+                openVacancies.set(ordinal, open);
+                open = (Boolean) oldValue;
+                break;
+            default:
+                return;
+        }
+        // designation, jobType and open now hold the values before the change
+        CompressedBitmap oldBucket = vacanciesByKey.get(vacancyKey(designation, jobType, open));
+        if (oldBucket != null) {
+            oldBucket.remove(ordinal);
+            if (oldBucket.isEmpty()) {
+                vacanciesByKey.remove(vacancyKey(designation, jobType, open));
+            }
+        }
+        vacanciesByKey.computeIfAbsent(newKey, k -> new CompressedBitmap()).add(ordinal);
+    }
+
+    /**
+     * Stores a record at its ordinal
+     * @return false if the record is already there
+     */
+    private static <T> boolean place(ArrayList<T> byOrdinal, int ordinal, T record) {
+        if (ordinal < byOrdinal.size() && byOrdinal.get(ordinal) == record) {
+            return false;
+        }
+        while (byOrdinal.size() <= ordinal) {
+            byOrdinal.add(null);
+        }
+        byOrdinal.set(ordinal, record);
+        return true;
+    }
+
+    /**
+     * Points the vacancy number at this record unless another active record holds it
+     */
+    private void indexStaffNumber(StaffHire staff) {
+        StaffHire existing = staffByVacancy.get(staff.getVacancyNumber());
+        if (existing == null || existing == staff || !existing.isActive() || staff.isActive()) {
+            staffByVacancy.put(staff.getVacancyNumber(), staff);
+        }
+    }
+
+    private void updateStaffStatus(StaffHire staff) {
+        int ordinal = staff.getOrdinal();
+        staffFlags.get(StaffFlag.ACTIVE).set(ordinal, staff.isActive());
+        staffFlags.get(StaffFlag.JOINED).set(ordinal, staff.isJoined());
+        staffFlags.get(StaffFlag.TERMINATED).set(ordinal,
+            staff instanceof PartTimeStaffHire && ((PartTimeStaffHire) staff).isTerminated());
+    }
+
+    private void addFlag(List<CompressedBitmap> required, List<CompressedBitmap> excluded,
+                         StaffFlag flag, Boolean wanted) {
+        if (wanted != null) {
+            (wanted ? required : excluded).add(staffFlags.get(flag));
+        }
+    }
+
+    /**
+     * Walks the records matching the filters from the cursor, collecting one
+     * page. The smallest required bitmap proposes each candidate ordinal and
+     * the others are asked for their next value from it, so non-matching runs
+     * are skipped by seeking rather than by building the full result. Memory
+     * is bounded by the page, and a deep cursor costs no more than the first
+     * page: the cursor is the ordinal of the last record on the page, and the
+     * walk starts just after it. Ordinals are never reused, so a cursor stays
+     * valid while records are added and changed. No ordinal comes after
+     * Integer.MAX_VALUE, so that cursor gets an empty last page.
+     */
+    private static <T> Page<T> page(List<T> byOrdinal, CompressedBitmap all, List<CompressedBitmap> required,
+                                    List<CompressedBitmap> excluded, int cursor, int limit) {
+        if (cursor == Integer.MAX_VALUE) {
+            return new Page<>(new ArrayList<>(), -1);
+        }
+        required.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        CompressedBitmap driver = required.isEmpty() ? all : required.get(0);
+        List<T> items = new ArrayList<>(Math.min(limit, 1024));
+        int last = -1;
+        int candidate = cursor + 1;
+        // One match past a full page tells whether there is a next page
+        while (items.size() <= limit && (candidate = driver.nextValue(candidate)) >= 0) {
+            int next = candidate;
+            for (int i = 1; i < required.size() && next == candidate; i++) {
+                next = required.get(i).nextValue(candidate);
+            }
+            if (next < 0) {
+                break;
+            } else if (next != candidate) {
+                candidate = next;
+                continue;
+            }
+            boolean match = true;
+            for (CompressedBitmap bitmap : excluded) {
+                if (bitmap.contains(candidate)) {
+                    match = false;
+                    break;
+                }
+            }
+            if (match) {
+                if (items.size() == limit) {
+                    return new Page<>(items, last);
+                }
+                items.add(byOrdinal.get(candidate));
+                last = candidate;
+            }
+            candidate++;
+        }
+        return new Page<>(items, -1);
+    }
+
+    /**
+     * Intersects the required bitmaps, smallest first, and removes the excluded ones
+     * @param all the bitmap of every record, used when nothing is required
+     */
+    private static CompressedBitmap combine(CompressedBitmap all, List<CompressedBitmap> required,
+                                            List<CompressedBitmap> excluded) {
+        required.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        CompressedBitmap result = required.isEmpty() ? all : required.get(0);
+        if (required.size() <= 1 && excluded.isEmpty()) {
+            // Never hand out one of the indexes themselves
+            return result.copy();
+        }
+        for (int i = 1; i < required.size(); i++) {
+            result = result.and(required.get(i));
+        }
+        for (CompressedBitmap bitmap : excluded) {
+            result = result.andNot(bitmap);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the folded dictionary code of a value, the key of the text indexes
+     */
+    private static int folded(int code) {
+        return DICTIONARY.foldedCode(code);
+    }
+
+    private static int folded(String value) {
+        return DICTIONARY.foldedCode(DICTIONARY.intern(value));
+    }
+
+    /**
+     * Returns a free text value trimmed and in lower case, the key of the
+     * appointed by and qualification indexes. Null folds like the empty string.
+     */
+    private static String fold(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Combines folded designation and job type codes and the open flag into one key
+     */
+    private static long vacancyKey(int designation, int jobType, boolean open) {
+        return ((long) designation << 32) | ((long) jobType << 1) | (open ? 1 : 0);
+    }
+
+    /**
+     * Adds the bucket for a value to the list, or nothing if no value was asked for
+     */
+    private static void addBucket(List<CompressedBitmap> required, IntObjectMap<CompressedBitmap> index,
+                                  String value) {
+        if (value != null) {
+            int code = DICTIONARY.foldedCodeOf(value);
+            CompressedBitmap bucket = code >= 0 ? index.get(code) : null;
+            required.add(bucket != null ? bucket : new CompressedBitmap());
+        }
+    }
+
+    private static void addBucket(List<CompressedBitmap> required, HashMap<String, CompressedBitmap> index,
+                                  String value) {
+        if (value != null) {
+            CompressedBitmap bucket = index.get(fold(value));
+            required.add(bucket != null ? bucket : new CompressedBitmap());
+        }
+    }
+
+    private static void add(IntObjectMap<CompressedBitmap> index, int code, int ordinal) {
+        CompressedBitmap bucket = index.get(code);
+        if (bucket == null) {
+            bucket = new CompressedBitmap();
+            index.put(code, bucket);
+        }
+        bucket.add(ordinal);
+    }
+
+    private static void remove(IntObjectMap<CompressedBitmap> index, int code, int ordinal) {
+        CompressedBitmap bucket = index.get(code);
+        if (bucket != null) {
+            bucket.remove(ordinal);
+            if (bucket.isEmpty()) {
+                index.remove(code);
+            }
+        }
+    }
+
+    private static void move(IntObjectMap<CompressedBitmap> index, int oldCode, int newCode, int ordinal) {
+        remove(index, oldCode, ordinal);
+        add(index, newCode, ordinal);
+    }
+
+    private static void add(HashMap<String, CompressedBitmap> index, String key, int ordinal) {
+        index.computeIfAbsent(key, k -> new CompressedBitmap()).add(ordinal);
+    }
+
+    private static void remove(HashMap<String, CompressedBitmap> index, String key, int ordinal) {
+        CompressedBitmap bucket = index.get(key);
+        if (bucket != null) {
+            bucket.remove(ordinal);
+            if (bucket.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static void move(HashMap<String, CompressedBitmap> index, String oldKey, String newKey, int ordinal) {
+        remove(index, oldKey, ordinal);
+        add(index, newKey, ordinal);
+    }
+}
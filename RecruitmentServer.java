@@ -0,0 +1,822 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RecruitmentServer class - HTTP/JSON API over the records for many clerks at once
+ *
+ * Serves the same records as RecruitmentSystem through the JDK's built-in
+ * HTTP server. Each request runs on its own virtual thread where the JDK
+ * has them (Java 21 and later), otherwise on a fixed pool of threads, and
+ * goes straight to RecruitmentStore, which takes the locks, so requests
+ * for different vacancies run in parallel. Changes are journaled by the
+ * PersistenceWorker as in the GUI, and a snapshot is written on shutdown.
+ * With --mapped-staff the staff changes are written in place into a
+ * MappedStaffStore instead, and forced to disk every second. Do not run it
+ * while the GUI is open, as the GUI writes its own copy of the data when
+ * it closes.
+ *
+ * Usage: java RecruitmentServer [port] [--mapped-staff]   (default port 8080)
+ *
+ * Endpoints (bodies are JSON objects):
+ *   GET  /vacancies?designation=&jobType=&open=      vacancies matching the filters
+ *   POST /vacancies    {vacancyId, designation, jobType}
+ *   GET  /vacancies/ID
+ *   GET  /staff?designation=&jobType=&appointedBy=&qualification=&active=&joined=&terminated=&type=
+ *   GET  /staff/VACANCY_NUMBER
+ *   PATCH /staff/VACANCY_NUMBER {salary, weeklyFractionalHours} or {shifts}, any of them
+ *   POST /hires        {type: "full-time", vacancyNumber, staffName, joiningDate, qualification,
+ *                       appointedBy, joined, salary, weeklyFractionalHours}
+ *                      {type: "part-time", ..., workingHour, wagesPerHour, shifts}
+ *   POST /terminations {vacancyNumber}
+ *   GET  /summary
+ *   GET  /events       server-sent events, one for each change from now on
+ *
+ * Listings come a page at a time, {"items": [...], "nextCursor": "..."},
+ * in the order the records were added. Pass nextCursor back as cursor= for
+ * the next page; it is null on the last page. limit= sets the page size
+ * (default 100, at most 1,000). Any GET takes fields=name,name,... to
+ * return only those fields of each record.
+ *
+ * Each event of /events has the sequence number as its id, the
+ * RecordChangeEvent type as its name, and data {"sequence", "type",
+ * "vacancyNumber", "property", "oldValue", "record"}, with the record as it
+ * is when the event is sent. A client that reads too slowly has events
+ * dropped once its buffer of RecordChangeFeed.DEFAULT_BUFFER_SIZE fills,
+ * and sees the gap in the ids.
+ *
+ * Invalid requests get 400, unknown records 404, bodies over 64 KiB 413,
+ * and changes the rules refuse (a taken vacancy ID, a vacancy that is not
+ * open) 409, each with an {"error": message} body.
+ */
+public class RecruitmentServer {
+    private static final int DEFAULT_PORT = 8080;
+    private static final int BACKLOG = 1024;
+    // Threads serving requests when the JDK has no virtual threads
+    private static final int FALLBACK_THREADS = 64;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    // Fields a projection can select, in the order they are written
+    private static final List<String> VACANCY_FIELDS = List.of("vacancyId", "designation", "jobType", "open");
+    private static final List<String> STAFF_FIELDS = List.of(
+        "vacancyNumber", "type", "designation", "jobType", "staffName", "joiningDate", "qualification",
+        "appointedBy", "joined", "active", "salary", "weeklyFractionalHours", "workingHour", "wagesPerHour",
+        "shifts", "terminated");
+
+    static {
+        // Without TCP_NODELAY each small response waits on Nagle's algorithm
+        // and the client's delayed ACK, about 40 ms per request
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final RecruitmentStore store;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final RecordChangeFeed changeFeed = new RecordChangeFeed();
+
+    // A request body over MAX_BODY_BYTES
+    private static class BodyTooLargeException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        BodyTooLargeException() {
+            super("Request body is larger than " + MAX_BODY_BYTES + " bytes");
+        }
+    }
+
+    // A response status with its JSON body
+    private static class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Constructor for a server over a loaded store
+     * @param store the store to serve
+     * @param port the port to listen on, or 0 for any free port
+     */
+    public RecruitmentServer(RecruitmentStore store, int port) throws IOException {
+        this.store = store;
+        store.addListener(changeFeed);
+        executor = newRequestExecutor();
+        server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Returns an executor with a virtual thread per task where the JDK has
+     * them, looked up by reflection so the server still builds and runs on
+     * older JDKs, which get a fixed pool of platform threads instead
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(FALLBACK_THREADS);
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests and waits for those running to finish
+     * @param seconds the longest to wait
+     */
+    public void stop(int seconds) {
+        // Ends the event streams, which would otherwise hold the server open
+        changeFeed.close();
+        server.stop(seconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(seconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Requests
+
+    private void handle(HttpExchange exchange) throws IOException {
+        if (exchange.getRequestMethod().equals("GET") && exchange.getRequestURI().getPath().equals("/events")) {
+            streamEvents(exchange);
+            return;
+        }
+        Response response;
+        try {
+            response = route(exchange);
+        } catch (IllegalArgumentException e) {
+            response = error(400, e.getMessage());
+        } catch (BodyTooLargeException e) {
+            response = error(413, e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Error handling " + exchange.getRequestURI() + ": " + e);
+            response = error(500, "Internal error");
+        }
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private Response route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/");
+        String resource = path[0];
+        String id = path.length > 1 ? path[1] : null;
+        if (path.length > 2) {
+            return error(404, "Not found");
+        }
+
+        switch (resource) {
+            case "vacancies":
+                if (id != null) {
+                    return method.equals("GET") ? getVacancy(parseInt(id, "vacancy ID"), queryParams(exchange))
+                                                 : notAllowed();
+                } else if (method.equals("GET")) {
+                    return findVacancies(queryParams(exchange));
+                } else if (method.equals("POST")) {
+                    return addVacancy(readBody(exchange));
+                }
+                return notAllowed();
+            case "staff":
+                if (id != null) {
+                    if (method.equals("GET")) {
+                        return getStaff(parseInt(id, "vacancy number"), queryParams(exchange));
+                    } else if (method.equals("PATCH")) {
+                        return updateStaff(parseInt(id, "vacancy number"), readBody(exchange));
+                    }
+                    return notAllowed();
+                }
+                return method.equals("GET") ? findStaff(queryParams(exchange)) : notAllowed();
+            case "hires":
+                return id == null && method.equals("POST") ? hire(readBody(exchange)) : notAllowed();
+            case "terminations":
+                return id == null && method.equals("POST") ? terminate(readBody(exchange)) : notAllowed();
+            case "summary":
+                return id == null && method.equals("GET") ? summary() : notAllowed();
+            default:
+                return error(404, "Not found");
+        }
+    }
+
+    private Response getVacancy(int vacancyId, Map<String, String> params) {
+        Vacancy vacancy = store.getVacancy(vacancyId);
+        if (vacancy == null) {
+            return error(404, "No vacancy found with ID " + vacancyId);
+        }
+        Set<String> fields = parseFields(params, VACANCY_FIELDS);
+        return new Response(200, appendVacancy(new StringBuilder(), vacancy, fields).toString());
+    }
+
+    private Response findVacancies(Map<String, String> params) {
+        Set<String> fields = parseFields(params, VACANCY_FIELDS);
+        String open = params.get("open");
+        RecruitmentQuery.Page<Vacancy> page = store.pageVacancies(
+            params.get("designation"), params.get("jobType"), open == null ? null : parseBoolean(open, "open"),
+            parseCursor(params), parseLimit(params));
+        StringBuilder out = new StringBuilder("{\"items\":[");
+        List<Vacancy> vacancies = page.getItems();
+        for (int i = 0; i < vacancies.size(); i++) {
+            appendVacancy(i > 0 ? out.append(',') : out, vacancies.get(i), fields);
+        }
+        return new Response(200, appendNextCursor(out.append(']'), page).append('}').toString());
+    }
+
+    private Response addVacancy(Map<String, Object> body) {
+        int vacancyId = intField(body, "vacancyId");
+        String designation = stringField(body, "designation");
+        String jobType = stringField(body, "jobType");
+        try {
+            Vacancy vacancy = store.addVacancy(vacancyId, designation, jobType);
+            return new Response(201, appendVacancy(new StringBuilder(), vacancy, null).toString());
+        } catch (IllegalArgumentException e) {
+            return error(409, e.getMessage());
+        }
+    }
+
+    private Response getStaff(int vacancyNumber, Map<String, String> params) {
+        StaffHire staff = store.getStaff(vacancyNumber);
+        if (staff == null) {
+            return error(404, "No staff found with vacancy number " + vacancyNumber);
+        }
+        Set<String> fields = parseFields(params, STAFF_FIELDS);
+        return new Response(200, appendStaff(new StringBuilder(), staff, fields).toString());
+    }
+
+    private Response findStaff(Map<String, String> params) {
+        Set<String> fields = parseFields(params, STAFF_FIELDS);
+        RecruitmentQuery.StaffCriteria criteria = new RecruitmentQuery.StaffCriteria()
+            .designation(params.get("designation"))
+            .jobType(params.get("jobType"))
+            .appointedBy(params.get("appointedBy"))
+            .qualification(params.get("qualification"));
+        if (params.containsKey("active")) {
+            criteria.active(parseBoolean(params.get("active"), "active"));
+        }
+        if (params.containsKey("joined")) {
+            criteria.joined(parseBoolean(params.get("joined"), "joined"));
+        }
+        if (params.containsKey("terminated")) {
+            criteria.terminated(parseBoolean(params.get("terminated"), "terminated"));
+        }
+        if (params.containsKey("type")) {
+            criteria.partTime(parseType(params.get("type")));
+        }
+        RecruitmentQuery.Page<StaffHire> page = store.pageStaff(criteria, parseCursor(params), parseLimit(params));
+        StringBuilder out = new StringBuilder("{\"items\":[");
+        List<StaffHire> staff = page.getItems();
+        for (int i = 0; i < staff.size(); i++) {
+            appendStaff(i > 0 ? out.append(',') : out, staff.get(i), fields);
+        }
+        return new Response(200, appendNextCursor(out.append(']'), page).append('}').toString());
+    }
+
+    /**
+     * Hires a staff member; the designation and job type are those of the vacancy
+     */
+    private Response hire(Map<String, Object> body) {
+        boolean partTime = parseType(stringField(body, "type"));
+        int vacancyNumber = intField(body, "vacancyNumber");
+        String staffName = stringField(body, "staffName");
+        String joiningDate = stringField(body, "joiningDate");
+        String qualification = stringField(body, "qualification");
+        String appointedBy = stringField(body, "appointedBy");
+        boolean joined = booleanField(body, "joined");
+        Vacancy vacancy = store.getOpenVacancy(vacancyNumber);
+        if (vacancy == null) {
+            return error(409, "No open vacancy found with number " + vacancyNumber);
+        }
+
+        StaffHire staff;
+        if (partTime) {
+            staff = new PartTimeStaffHire(vacancyNumber, vacancy.getDesignation(), vacancy.getJobType(),
+                                          staffName, joiningDate, qualification, appointedBy, joined,
+                                          intField(body, "workingHour"), doubleField(body, "wagesPerHour"),
+                                          stringField(body, "shifts"));
+        } else {
+            staff = new FullTimeStaffHire(vacancyNumber, vacancy.getDesignation(), vacancy.getJobType(),
+                                          staffName, joiningDate, qualification, appointedBy, joined,
+                                          doubleField(body, "salary"), intField(body, "weeklyFractionalHours"));
+        }
+        try {
+            store.hire(staff);
+            return new Response(201, appendStaff(new StringBuilder(), staff, null).toString());
+        } catch (IllegalArgumentException e) {
+            return error(409, e.getMessage());
+        }
+    }
+
+    private Response terminate(Map<String, Object> body) {
+        int vacancyNumber = intField(body, "vacancyNumber");
+        try {
+            StaffHire staff = store.terminate(vacancyNumber);
+            return new Response(200, appendStaff(new StringBuilder(), staff, null).toString());
+        } catch (IllegalArgumentException e) {
+            return error(409, e.getMessage());
+        }
+    }
+
+    private Response updateStaff(int vacancyNumber, Map<String, Object> body) {
+        boolean salary = body.containsKey("salary");
+        boolean weeklyHours = body.containsKey("weeklyFractionalHours");
+        boolean shifts = body.containsKey("shifts");
+        if (!salary && !weeklyHours && !shifts) {
+            throw new IllegalArgumentException("Nothing to change (salary, weeklyFractionalHours or shifts)");
+        }
+        // Read every field first, so an invalid one changes nothing
+        double newSalary = salary ? doubleField(body, "salary") : 0;
+        int newWeeklyHours = weeklyHours ? intField(body, "weeklyFractionalHours") : 0;
+        String newShifts = shifts ? stringField(body, "shifts") : null;
+        if (store.getStaff(vacancyNumber) == null) {
+            return error(404, "No staff found with vacancy number " + vacancyNumber);
+        }
+        try {
+            StaffHire staff = null;
+            if (salary) {
+                staff = store.setSalary(vacancyNumber, newSalary);
+            }
+            if (weeklyHours) {
+                staff = store.setWeeklyFractionalHours(vacancyNumber, newWeeklyHours);
+            }
+            if (shifts) {
+                staff = store.setShifts(vacancyNumber, newShifts);
+            }
+            return new Response(200, appendStaff(new StringBuilder(), staff, null).toString());
+        } catch (IllegalArgumentException e) {
+            return error(409, e.getMessage());
+        }
+    }
+
+    private Response summary() {
+        return new Response(200, "{\"vacancies\":" + store.getVacancyCount()
+                                 + ",\"openVacancies\":" + store.getOpenVacancyCount()
+                                 + ",\"staff\":" + store.getStaffCount()
+                                 + ",\"activeStaff\":" + store.countStaff(RecruitmentQuery.StaffFlag.ACTIVE)
+                                 + ",\"eventSubscribers\":" + changeFeed.getSubscriberCount()
+                                 + ",\"droppedEvents\":" + changeFeed.getDroppedCount() + "}");
+    }
+
+    private static Response error(int status, String message) {
+        return new Response(status, Json.appendString(new StringBuilder("{\"error\":"), message).append('}').toString());
+    }
+
+    private static Response notAllowed() {
+        return error(405, "Method not allowed");
+    }
+
+    // Events
+
+    /**
+     * Starts a server-sent event stream of the changes. The handler returns
+     * at once; the events are written by the change feed's threads, and the
+     * stream stays open until the client goes away or the server stops.
+     */
+    private void streamEvents(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        changeFeed.subscribe(new EventStream(exchange));
+    }
+
+    /**
+     * Subscriber writing events to one client, asking for the next event
+     * only once the last one is written, so a slow client holds no thread
+     * while it waits and only fills its own buffer in the feed
+     */
+    private static class EventStream implements Flow.Subscriber<RecordChangeEvent> {
+        private final HttpExchange exchange;
+        private final OutputStream out;
+        private Flow.Subscription subscription;
+
+        EventStream(HttpExchange exchange) {
+            this.exchange = exchange;
+            this.out = exchange.getResponseBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            try {
+                // A comment line, so the client sees the stream open at once
+                out.write(": connected\n\n".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                subscription.request(1);
+            } catch (IOException e) {
+                subscription.cancel();
+                exchange.close();
+            }
+        }
+
+        @Override
+        public void onNext(RecordChangeEvent event) {
+            StringBuilder text = new StringBuilder("id: ").append(event.getSequence())
+                .append("\nevent: ").append(event.getType()).append("\ndata: ");
+            appendEvent(text, event).append("\n\n");
+            try {
+                out.write(text.toString().getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                subscription.request(1);
+            } catch (IOException e) {
+                // The client has gone
+                subscription.cancel();
+                exchange.close();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            exchange.close();
+        }
+
+        @Override
+        public void onComplete() {
+            exchange.close();
+        }
+    }
+
+    // JSON
+
+    private static StringBuilder appendEvent(StringBuilder out, RecordChangeEvent event) {
+        out.append("{\"sequence\":").append(event.getSequence());
+        Json.appendString(out.append(",\"type\":"), event.getType().name());
+        out.append(",\"vacancyNumber\":").append(event.getVacancyNumber());
+        Json.appendString(out.append(",\"property\":"), event.getProperty());
+        out.append(",\"oldValue\":");
+        Object oldValue = event.getOldValue();
+        if (oldValue instanceof Number || oldValue instanceof Boolean) {
+            out.append(oldValue);
+        } else {
+            Json.appendString(out, oldValue == null ? null : oldValue.toString());
+        }
+        out.append(",\"record\":");
+        if (event.isStaffEvent()) {
+            appendStaff(out, event.getStaff(), null);
+        } else {
+            appendVacancy(out, event.getVacancy(), null);
+        }
+        return out.append('}');
+    }
+
+
+    /**
+     * Appends a vacancy as a JSON object
+     * @param fields the fields to write, or null for all
+     */
+    private static StringBuilder appendVacancy(StringBuilder out, Vacancy vacancy, Set<String> fields) {
+        int start = out.length();
+        if (wants(fields, "vacancyId")) {
+            out.append(",\"vacancyId\":").append(vacancy.getVacancyId());
+        }
+        if (wants(fields, "designation")) {
+            Json.appendString(out.append(",\"designation\":"), vacancy.getDesignation());
+        }
+        if (wants(fields, "jobType")) {
+            Json.appendString(out.append(",\"jobType\":"), vacancy.getJobType());
+        }
+        if (wants(fields, "open")) {
+            out.append(",\"open\":").append(vacancy.isOpen());
+        }
+        return closeObject(out, start);
+    }
+
+    /**
+     * Appends a staff member as a JSON object; fields of the other kind of
+     * staff are left out
+     * @param fields the fields to write, or null for all
+     */
+    private static StringBuilder appendStaff(StringBuilder out, StaffHire staff, Set<String> fields) {
+        int start = out.length();
+        if (wants(fields, "vacancyNumber")) {
+            out.append(",\"vacancyNumber\":").append(staff.getVacancyNumber());
+        }
+        if (wants(fields, "type")) {
+            Json.appendString(out.append(",\"type\":"),
+                              staff instanceof PartTimeStaffHire ? "part-time" : "full-time");
+        }
+        if (wants(fields, "designation")) {
+            Json.appendString(out.append(",\"designation\":"), staff.getDesignation());
+        }
+        if (wants(fields, "jobType")) {
+            Json.appendString(out.append(",\"jobType\":"), staff.getJobType());
+        }
+        if (wants(fields, "staffName")) {
+            Json.appendString(out.append(",\"staffName\":"), staff.getStaffName());
+        }
+        if (wants(fields, "joiningDate")) {
+            Json.appendString(out.append(",\"joiningDate\":"), staff.getJoiningDate());
+        }
+        if (wants(fields, "qualification")) {
+            Json.appendString(out.append(",\"qualification\":"), staff.getQualification());
+        }
+        if (wants(fields, "appointedBy")) {
+            Json.appendString(out.append(",\"appointedBy\":"), staff.getAppointedBy());
+        }
+        if (wants(fields, "joined")) {
+            out.append(",\"joined\":").append(staff.isJoined());
+        }
+        if (wants(fields, "active")) {
+            out.append(",\"active\":").append(staff.isActive());
+        }
+        if (staff instanceof FullTimeStaffHire) {
+            FullTimeStaffHire fullTime = (FullTimeStaffHire) staff;
+            if (wants(fields, "salary")) {
+                out.append(",\"salary\":").append(fullTime.getSalary());
+            }
+            if (wants(fields, "weeklyFractionalHours")) {
+                out.append(",\"weeklyFractionalHours\":").append(fullTime.getWeeklyFractionalHours());
+            }
+        } else if (staff instanceof PartTimeStaffHire) {
+            PartTimeStaffHire partTime = (PartTimeStaffHire) staff;
+            if (wants(fields, "workingHour")) {
+                out.append(",\"workingHour\":").append(partTime.getWorkingHour());
+            }
+            if (wants(fields, "wagesPerHour")) {
+                out.append(",\"wagesPerHour\":").append(partTime.getWagesPerHour());
+            }
+            if (wants(fields, "shifts")) {
+                Json.appendString(out.append(",\"shifts\":"), partTime.getShifts());
+            }
+            if (wants(fields, "terminated")) {
+                out.append(",\"terminated\":").append(partTime.isTerminated());
+            }
+        }
+        return closeObject(out, start);
+    }
+
+    private static boolean wants(Set<String> fields, String name) {
+        return fields == null || fields.contains(name);
+    }
+
+    /**
+     * Turns the fields appended since start, each led by a comma, into an object
+     */
+    private static StringBuilder closeObject(StringBuilder out, int start) {
+        if (out.length() == start) {
+            return out.append("{}");
+        }
+        out.setCharAt(start, '{');
+        return out.append('}');
+    }
+
+    private static StringBuilder appendNextCursor(StringBuilder out, RecruitmentQuery.Page<?> page) {
+        out.append(",\"nextCursor\":");
+        return page.hasMore() ? Json.appendString(out, Integer.toString(page.getNextCursor())) : out.append("null");
+    }
+
+    // Parsing
+
+    /**
+     * Reads the JSON body, never more than one byte past MAX_BODY_BYTES
+     * @throws BodyTooLargeException if the body is larger
+     */
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            throw new BodyTooLargeException();
+        }
+        return Json.parseObject(new String(body, StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, String> queryParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            // An empty value leaves the filter unset
+            if (!value.isEmpty()) {
+                params.put(name, value);
+            }
+        }
+        return params;
+    }
+
+    /**
+     * Returns the fields listed in fields=, or null for all
+     * @throws IllegalArgumentException if a field is not one of the known ones
+     */
+    private static Set<String> parseFields(Map<String, String> params, List<String> known) {
+        String list = params.get("fields");
+        if (list == null) {
+            return null;
+        }
+        Set<String> fields = new HashSet<>();
+        for (String name : list.split(",")) {
+            name = name.trim();
+            if (!known.contains(name)) {
+                throw new IllegalArgumentException("Unknown field " + name + " (one of "
+                                                   + String.join(", ", known) + ")");
+            }
+            fields.add(name);
+        }
+        return fields;
+    }
+
+    private static int parseCursor(Map<String, String> params) {
+        String cursor = params.get("cursor");
+        if (cursor == null) {
+            return -1;
+        }
+        int ordinal = parseInt(cursor, "cursor");
+        if (ordinal < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return ordinal;
+    }
+
+    private static int parseLimit(Map<String, String> params) {
+        String limit = params.get("limit");
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        int size = parseInt(limit, "limit");
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Invalid limit (1 to " + MAX_PAGE_SIZE + "): " + limit);
+        }
+        return size;
+    }
+
+    private static Object field(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        return value;
+    }
+
+    private static String stringField(Map<String, Object> body, String name) {
+        Object value = field(body, name);
+        if (!(value instanceof String) || ((String) value).trim().isEmpty()) {
+            throw new IllegalArgumentException("Invalid " + name + ": expected a non-empty string");
+        }
+        return ((String) value).trim();
+    }
+
+    private static int intField(Map<String, Object> body, String name) {
+        Object value = field(body, name);
+        if (!(value instanceof Long) || (Long) value != ((Long) value).intValue()) {
+            throw new IllegalArgumentException("Invalid " + name + ": expected a whole number");
+        }
+        return ((Long) value).intValue();
+    }
+
+    private static double doubleField(Map<String, Object> body, String name) {
+        Object value = field(body, name);
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException("Invalid " + name + ": expected a number");
+        }
+        return ((Number) value).doubleValue();
+    }
+
+    private static boolean booleanField(Map<String, Object> body, String name) {
+        Object value = field(body, name);
+        if (!(value instanceof Boolean)) {
+            throw new IllegalArgumentException("Invalid " + name + ": expected true or false");
+        }
+        return (Boolean) value;
+    }
+
+    private static int parseInt(String text, String name) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + text);
+        }
+    }
+
+    private static boolean parseBoolean(String text, String name) {
+        switch (text.toLowerCase()) {
+            case "true":
+                return true;
+            case "false":
+                return false;
+            default:
+                throw new IllegalArgumentException("Invalid " + name + " (true or false): " + text);
+        }
+    }
+
+    /**
+     * Returns true for part-time, false for full-time
+     */
+    private static boolean parseType(String type) {
+        switch (type) {
+            case "part-time":
+                return true;
+            case "full-time":
+                return false;
+            default:
+                throw new IllegalArgumentException("Invalid type (full-time or part-time): " + type);
+        }
+    }
+
+    /**
+     * Main method
+     * @param args the port, or none for 8080, and --mapped-staff to keep
+     *             the staff in a MappedStaffStore
+     */
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        boolean useMappedStaff = false;
+        for (String arg : args) {
+            if (arg.equals("--mapped-staff")) {
+                useMappedStaff = true;
+            } else {
+                port = Integer.parseInt(arg);
+            }
+        }
+        ArrayList<StaffHire> staffList;
+        ArrayList<Vacancy> vacancyList;
+        MappedStaffStore mappedStaff = null;
+        try {
+            if (useMappedStaff) {
+                mappedStaff = MappedStaffStore.openWithStaffData(MappedStaffStore.SLOT_FILE,
+                                                                 MappedStaffStore.STRING_FILE);
+                staffList = mappedStaff.loadAll();
+            } else {
+                staffList = FileHandler.loadStaffData();
+            }
+            vacancyList = FileHandler.loadVacancyData();
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error loading data: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        RecruitmentStore store = new RecruitmentStore();
+        store.load(staffList, vacancyList);
+        PersistenceWorker persistence = new PersistenceWorker();
+        store.setJournal(persistence);
+        if (mappedStaff != null) {
+            store.setMappedStaff(mappedStaff);
+            persistence.setCompactStaff(false);
+            ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "mapped-staff-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(mappedStaff::force, 1, 1, TimeUnit.SECONDS);
+        }
+
+        RecruitmentServer server = new RecruitmentServer(store, port);
+        MappedStaffStore finalMappedStaff = mappedStaff;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            // No requests run once stopped, so the snapshot has every change
+            server.stop(5);
+            long failedSaves = persistence.getFailedSaves();
+            persistence.saveSnapshot(staffList, vacancyList);
+            boolean saved = persistence.awaitFlush(30, TimeUnit.SECONDS);
+            if (!saved) {
+                System.err.println("Timed out saving data: " + persistence.getStatus());
+            }
+            if (finalMappedStaff != null) {
+                try (MappedStaffStore closing = finalMappedStaff) {
+                    // Only a complete staff_data.dat may be skipped on the next import
+                    if (saved && persistence.getFailedSaves() == failedSaves) {
+                        closing.markInStep();
+                    }
+                } catch (IOException e) {
+                    System.err.println("Error closing the mapped staff store: " + e.getMessage());
+                }
+            }
+        }));
+        server.start();
+        System.out.println("Serving " + vacancyList.size() + " vacancies and " + staffList.size()
+                           + " staff on port " + server.getPort());
+    }
+}
@@ -0,0 +1,583 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * RecruitmentStore class - thread-safe owner of the staff and vacancy records
+ *
+ * Holds the records, applies the rules for adding vacancies, hiring and
+ * terminating staff, and answers lookups and queries, from any number of
+ * threads at once.
+ *
+ * Vacancy numbers are spread over stripes, each with its own StampedLock
+ * and its own maps of the vacancies and staff whose numbers fall in it. A
+ * lookup, hire, termination or new vacancy locks only the stripe of its
+ * number, so operations on different numbers go ahead in parallel, and the
+ * checks for one number (the vacancy is open, nobody active holds it) are
+ * made and acted on as one step.
+ *
+ * The record lists, the RecruitmentQuery indexes and the listeners are
+ * shared by all numbers and guarded by a separate StampedLock. Writers hold
+ * it only while a change is applied and its events delivered; queries hold
+ * it for reading and run in parallel with each other. A stripe lock is
+ * always taken before the shared lock, never the other way round.
+ *
+ * Staff changes go to the journal with the vacancy changes, or, once a
+ * MappedStaffStore is set, are written into it in place instead.
+ *
+ * Listeners are called on the thread making the change with the shared lock
+ * held, and must not call back into the store. Once loaded, the records must
+ * only be changed through the store.
+ */
+public class RecruitmentStore {
+    private static final int STRIPES = 64;
+
+    /**
+     * Journal the store reports each change to, while the stripe of the
+     * change is locked, so the changes to one number are journaled in order
+     */
+    public interface Journal {
+        void journalVacancyAdded(Vacancy vacancy);
+
+        void journalVacancyClosed(int vacancyId);
+
+        void journalHire(StaffHire staff);
+
+        void journalTerminate(int vacancyNumber);
+
+        void journalStaffUpdated(StaffHire staff);
+    }
+
+    // The vacancies and staff of the numbers in one stripe
+    private static final class Stripe {
+        final StampedLock lock = new StampedLock();
+        final IntObjectMap<Vacancy> vacancies = new IntObjectMap<>();
+        final IntObjectMap<StaffHire> staff = new IntObjectMap<>();
+    }
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    // Guards the lists, the dispatcher and its listeners, and the query indexes
+    private final StampedLock sharedLock = new StampedLock();
+    private ArrayList<StaffHire> staffList = new ArrayList<>();
+    private ArrayList<Vacancy> vacancyList = new ArrayList<>();
+    private final RecordChangeDispatcher changeDispatcher = new RecordChangeDispatcher();
+    private final RecruitmentQuery query = new RecruitmentQuery();
+
+    private volatile Journal journal;
+    private volatile MappedStaffStore mappedStaff;
+
+    /**
+     * Constructor for an empty store
+     */
+    public RecruitmentStore() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        changeDispatcher.addListener(query);
+    }
+
+    /**
+     * Takes over loaded lists of records and tells the listeners about each
+     * record. The store appends to these lists from then on; read them
+     * directly only on the thread making all the changes, otherwise use
+     * copyStaffList and copyVacancyList.
+     */
+    public void load(ArrayList<StaffHire> staff, ArrayList<Vacancy> vacancies) {
+        long[] stamps = new long[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stamps[i] = stripes[i].lock.writeLock();
+        }
+        long stamp = sharedLock.writeLock();
+        try {
+            staffList = staff;
+            vacancyList = vacancies;
+            for (Vacancy vacancy : vacancies) {
+                changeDispatcher.attach(vacancy);
+                // The first vacancy with an ID keeps it
+                IntObjectMap<Vacancy> map = stripeFor(vacancy.getVacancyId()).vacancies;
+                if (!map.containsKey(vacancy.getVacancyId())) {
+                    map.put(vacancy.getVacancyId(), vacancy);
+                }
+            }
+            for (StaffHire record : staff) {
+                changeDispatcher.attach(record);
+                indexStaffNumber(stripeFor(record.getVacancyNumber()), record);
+            }
+        } finally {
+            sharedLock.unlockWrite(stamp);
+            for (int i = STRIPES - 1; i >= 0; i--) {
+                stripes[i].lock.unlockWrite(stamps[i]);
+            }
+        }
+    }
+
+    /**
+     * Adds a listener for changes of all records, such as an index or a view
+     */
+    public void addListener(RecordChangeListener listener) {
+        long stamp = sharedLock.writeLock();
+        try {
+            changeDispatcher.addListener(listener);
+        } finally {
+            sharedLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Sets the journal told about each change, or null for none
+     */
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Sets the mapped store the staff changes are written to in place of the
+     * journal, or null to journal them. Set it before any change is made,
+     * holding the loaded staff list in slot order.
+     */
+    public void setMappedStaff(MappedStaffStore mappedStaff) {
+        this.mappedStaff = mappedStaff;
+    }
+
+    // Changes
+
+    /**
+     * Adds a new open vacancy
+     * @return the vacancy
+     * @throws IllegalArgumentException if a vacancy with this ID exists
+     */
+    public Vacancy addVacancy(int vacancyId, String designation, String jobType) {
+        Stripe stripe = stripeFor(vacancyId);
+        long stamp = stripe.lock.writeLock();
+        try {
+            if (stripe.vacancies.containsKey(vacancyId)) {
+                throw new IllegalArgumentException("Vacancy ID " + vacancyId + " already exists");
+            }
+            Vacancy vacancy = new Vacancy(vacancyId, designation, jobType);
+            long shared = sharedLock.writeLock();
+            try {
+                vacancyList.add(vacancy);
+                changeDispatcher.attach(vacancy);
+            } finally {
+                sharedLock.unlockWrite(shared);
+            }
+            stripe.vacancies.put(vacancyId, vacancy);
+
+            Journal journal = this.journal;
+            if (journal != null) {
+                journal.journalVacancyAdded(vacancy);
+            }
+            return vacancy;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Hires a new staff member for the open vacancy with their vacancy
+     * number, and closes the vacancy.
+     *
+     * The vacancy is first claimed by switching it from open to closed with
+     * a compare-and-set, which takes no lock: of any number of hires racing
+     * for one vacancy, exactly one claims it and the rest fail straight away.
+     * The claim is then either committed with the hire, when listeners see
+     * the vacancy close and the staff member added together, or released if
+     * the hire cannot go ahead, leaving the vacancy open as it was. If a
+     * listener fails while the hire is committed, the staff member is taken
+     * out of the list and detached again, so the listeners that saw it added
+     * drop it, and the vacancy is opened again, so it can still be filled.
+     *
+     * While a claim is pending the vacancy reads as closed but listeners
+     * have not yet been told: getOpenVacancy returns null for it while
+     * findVacancies with open set to true still lists it, and a released
+     * claim makes it open again. Both agree once hire returns.
+     * @throws IllegalArgumentException if there is no open vacancy with the
+     *         number, or it already has an active staff member
+     */
+    public void hire(StaffHire staff) {
+        int vacancyNumber = staff.getVacancyNumber();
+        Vacancy vacancy = getVacancy(vacancyNumber);
+        if (vacancy == null || !vacancy.claim()) {
+            throw new IllegalArgumentException("No open vacancy found with number " + vacancyNumber);
+        }
+        boolean committed = false;
+        Stripe stripe = stripeFor(vacancyNumber);
+        long stamp = stripe.lock.writeLock();
+        try {
+            StaffHire current = stripe.staff.get(vacancyNumber);
+            if (current != null && current.isActive()) {
+                throw new IllegalArgumentException("Vacancy " + vacancyNumber + " already has an active staff member");
+            }
+            long shared = sharedLock.writeLock();
+            boolean added = false;
+            try {
+                vacancy.commitClaim();
+                staffList.add(staff);
+                added = true;
+                changeDispatcher.attach(staff);
+                committed = true;
+                MappedStaffStore mappedStaff = this.mappedStaff;
+                if (mappedStaff != null) {
+                    // Written in attach order, so each record goes to the slot of its ordinal
+                    mappedStaff.put(staff);
+                }
+            } finally {
+                if (!committed) {
+                    // Listeners may have seen the vacancy close or the staff added
+                    if (added) {
+                        staffList.remove(staffList.size() - 1);
+                        changeDispatcher.detach(staff);
+                    }
+                    vacancy.setOpen(true);
+                }
+                sharedLock.unlockWrite(shared);
+            }
+            indexStaffNumber(stripe, staff);
+
+            Journal journal = this.journal;
+            if (journal != null) {
+                journal.journalVacancyClosed(vacancyNumber);
+                if (mappedStaff == null) {
+                    journal.journalHire(staff);
+                }
+            }
+        } finally {
+            if (!committed) {
+                vacancy.releaseClaim();
+            }
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Terminates the active part-time staff member with the given vacancy
+     * number. Nothing is printed; the caller reports the termination.
+     * @return the terminated staff member
+     * @throws IllegalArgumentException if there is no such staff member
+     */
+    public PartTimeStaffHire terminate(int vacancyNumber) {
+        Stripe stripe = stripeFor(vacancyNumber);
+        long stamp = stripe.lock.writeLock();
+        try {
+            StaffHire staff = stripe.staff.get(vacancyNumber);
+            if (!(staff instanceof PartTimeStaffHire) || !staff.isActive()) {
+                throw new IllegalArgumentException("No active part-time staff found with number " + vacancyNumber);
+            }
+            PartTimeStaffHire partTimeStaff = (PartTimeStaffHire) staff;
+            long shared = sharedLock.writeLock();
+            try {
+                partTimeStaff.applyTermination();
+            } finally {
+                sharedLock.unlockWrite(shared);
+            }
+
+            MappedStaffStore mappedStaff = this.mappedStaff;
+            Journal journal = this.journal;
+            if (mappedStaff != null) {
+                mappedStaff.terminate(partTimeStaff.getOrdinal());
+            } else if (journal != null) {
+                journal.journalTerminate(vacancyNumber);
+            }
+            return partTimeStaff;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Sets the salary of the active full-time staff member with the given
+     * vacancy number
+     * @return the changed staff member
+     * @throws IllegalArgumentException if there is no such staff member or
+     *         they have not joined
+     */
+    public FullTimeStaffHire setSalary(int vacancyNumber, double salary) {
+        return updateStaff(vacancyNumber, FullTimeStaffHire.class, "full-time", staff -> {
+            if (!staff.isJoined()) {
+                throw new IllegalArgumentException("Staff with number " + vacancyNumber
+                                                   + " has not joined, so has no salary to set");
+            }
+            staff.setSalary(salary);
+        });
+    }
+
+    /**
+     * Sets the weekly fractional hours of the active full-time staff member
+     * with the given vacancy number
+     * @return the changed staff member
+     * @throws IllegalArgumentException if there is no such staff member
+     */
+    public FullTimeStaffHire setWeeklyFractionalHours(int vacancyNumber, int weeklyFractionalHours) {
+        return updateStaff(vacancyNumber, FullTimeStaffHire.class, "full-time",
+                           staff -> staff.setWeeklyFractionalHours(weeklyFractionalHours));
+    }
+
+    /**
+     * Sets the shifts of the active part-time staff member with the given
+     * vacancy number
+     * @return the changed staff member
+     * @throws IllegalArgumentException if there is no such staff member or
+     *         they have not joined
+     */
+    public PartTimeStaffHire setShifts(int vacancyNumber, String shifts) {
+        return updateStaff(vacancyNumber, PartTimeStaffHire.class, "part-time", staff -> {
+            if (!staff.isJoined()) {
+                throw new IllegalArgumentException("Staff with number " + vacancyNumber
+                                                   + " has not joined, so has no shifts to set");
+            }
+            staff.setShifts(shifts);
+        });
+    }
+
+    /**
+     * Applies a change to the active staff member of a type with the given
+     * vacancy number, then writes or journals it, with the stripe locked
+     */
+    private <T extends StaffHire> T updateStaff(int vacancyNumber, Class<T> type, String typeName,
+                                                Consumer<T> change) {
+        Stripe stripe = stripeFor(vacancyNumber);
+        long stamp = stripe.lock.writeLock();
+        try {
+            StaffHire staff = stripe.staff.get(vacancyNumber);
+            if (!type.isInstance(staff) || !staff.isActive()) {
+                throw new IllegalArgumentException("No active " + typeName + " staff found with number " + vacancyNumber);
+            }
+            T typedStaff = type.cast(staff);
+            long shared = sharedLock.writeLock();
+            try {
+                change.accept(typedStaff);
+            } finally {
+                sharedLock.unlockWrite(shared);
+            }
+
+            MappedStaffStore mappedStaff = this.mappedStaff;
+            Journal journal = this.journal;
+            if (mappedStaff != null) {
+                mappedStaff.update(typedStaff);
+            } else if (journal != null) {
+                journal.journalStaffUpdated(typedStaff);
+            }
+            return typedStaff;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    // Lookups, locking only the stripe of the number
+
+    /**
+     * Returns the vacancy with the given ID, or null
+     */
+    public Vacancy getVacancy(int vacancyId) {
+        Stripe stripe = stripeFor(vacancyId);
+        long stamp = stripe.lock.readLock();
+        try {
+            return stripe.vacancies.get(vacancyId);
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the open vacancy with the given ID, or null
+     */
+    public Vacancy getOpenVacancy(int vacancyId) {
+        Stripe stripe = stripeFor(vacancyId);
+        long stamp = stripe.lock.readLock();
+        try {
+            Vacancy vacancy = stripe.vacancies.get(vacancyId);
+            return vacancy != null && vacancy.isOpen() ? vacancy : null;
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the staff record for a vacancy number, the active one if there is one, or null
+     */
+    public StaffHire getStaff(int vacancyNumber) {
+        Stripe stripe = stripeFor(vacancyNumber);
+        long stamp = stripe.lock.readLock();
+        try {
+            return stripe.staff.get(vacancyNumber);
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the active staff member for a vacancy number, or null
+     */
+    public StaffHire getActiveStaff(int vacancyNumber) {
+        Stripe stripe = stripeFor(vacancyNumber);
+        long stamp = stripe.lock.readLock();
+        try {
+            StaffHire staff = stripe.staff.get(vacancyNumber);
+            return staff != null && staff.isActive() ? staff : null;
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    // Queries, under the shared read lock
+
+    /**
+     * Returns the staff matching the criteria, in the order they were added
+     */
+    public List<StaffHire> findStaff(RecruitmentQuery.StaffCriteria criteria) {
+        long stamp = sharedLock.readLock();
+        try {
+            return query.findStaff(criteria);
+        } finally {
+            sharedLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of staff matching the criteria
+     */
+    public int countStaff(RecruitmentQuery.StaffCriteria criteria) {
+        long stamp = sharedLock.readLock();
+        try {
+            return query.countStaff(criteria);
+        } finally {
+            sharedLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of staff with a flag set
+     */
+    public int countStaff(RecruitmentQuery.StaffFlag flag) {
+        long stamp = sharedLock.readLock();
+        try {
+            return query.countStaff(flag);
+        } finally {
+            sharedLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the vacancies matching the designation, job type and open state
+     * @param designation the designation, or null for any
+     * @param jobType the job type, or null for any
+     * @param open the open state, or null for any
+     */
+    public List<Vacancy> findVacancies(String designation, String jobType, Boolean open) {
+        long stamp = sharedLock.readLock();
+        try {
+            return query.findVacancies(designation, jobType, open);
+        } finally {
+            sharedLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns a page of the staff matching the criteria, in the order they were added
+     * @param criteria the filter
+     * @param cursor the cursor from the previous page, or -1 for the first page
+     * @param limit the most records on the page, at least 1
+     */
+    public RecruitmentQuery.Page<StaffHire> pageStaff(RecruitmentQuery.StaffCriteria criteria, int cursor, int limit) {
+        checkLimit(limit);
+        long stamp = sharedLock.readLock();
+        try {
+            return query.pageStaff(criteria, cursor, limit);
+        } finally {
+            sharedLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns a page of the vacancies matching the designation, job type and
+     * open state, each null for any, in the order they were added
+     * @param cursor the cursor from the previous page, or -1 for the first page
+     * @param limit the most vacancies on the page, at least 1
+     */
+    public RecruitmentQuery.Page<Vacancy> pageVacancies(String designation, String jobType, Boolean open,
+                                                        int cursor, int limit) {
+        checkLimit(limit);
+        long stamp = sharedLock.readLock();
+        try {
+            return query.pageVacancies(designation, jobType, open, cursor, limit);
+        } finally {
+            sharedLock.unlockRead(stamp);
+        }
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be at least 1: " + limit);
+        }
+    }
+
+    public int getStaffCount() {
+        long stamp = sharedLock.readLock();
+        try {
+            return query.getStaffCount();
+        } finally {
+            sharedLock.unlockRead(stamp);
+        }
+    }
+
+    public int getVacancyCount() {
+        long stamp = sharedLock.readLock();
+        try {
+            return query.getVacancyCount();
+        } finally {
+            sharedLock.unlockRead(stamp);
+        }
+    }
+
+    public int getOpenVacancyCount() {
+        long stamp = sharedLock.readLock();
+        try {
+            return query.getOpenVacancyCount();
+        } finally {
+            sharedLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns a copy of the staff list, in the order the records were added
+     */
+    public ArrayList<StaffHire> copyStaffList() {
+        long stamp = sharedLock.readLock();
+        try {
+            return new ArrayList<>(staffList);
+        } finally {
+            sharedLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns a copy of the vacancy list, in the order the vacancies were added
+     */
+    public ArrayList<Vacancy> copyVacancyList() {
+        long stamp = sharedLock.readLock();
+        try {
+            return new ArrayList<>(vacancyList);
+        } finally {
+            sharedLock.unlockRead(stamp);
+        }
+    }
+
+    // Stripes
+
+    private Stripe stripeFor(int vacancyNumber) {
+        return stripes[(vacancyNumber ^ (vacancyNumber >>> 16)) & (STRIPES - 1)];
+    }
+
+    /**
+     * Makes a staff record the one returned for its number, unless another
+     * record for the number is active and this one is not
+     */
+    private static void indexStaffNumber(Stripe stripe, StaffHire staff) {
+        StaffHire existing = stripe.staff.get(staff.getVacancyNumber());
+        if (existing == null || !existing.isActive() || staff.isActive()) {
+            stripe.staff.put(staff.getVacancyNumber(), staff);
+        }
+    }
+}
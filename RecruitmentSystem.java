@@ -1,9 +1,26 @@
 import javax.swing.*;
 import javax.swing.border.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * RecruitmentSystem class - the main class for the recruitment system GUI
@@ -13,9 +30,29 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
     private ArrayList<StaffHire> staffList;
     private ArrayList<Vacancy> vacancyList;
     
+    // Owner of the records and the rules for changing them, and indexes
+    // over the records kept up to date through its change events
+    private RecruitmentStore store;
+    private PayrollColumns payrollColumns;
+    private PayrollAggregates payrollAggregates;
+    private PayrollEngine payrollEngine;
+    private VacancyLookupCache vacancyLookupCache;
+    
+    // Change events for the views that refresh on their own, such as the tab counts
+    private RecordChangeFeed changeFeed;
+    
+    // Background writer for the journals and snapshots
+    private PersistenceWorker persistence;
+    
+    // Set on the EDT once both data files have been loaded
+    private boolean dataLoaded;
+    
     // GUI components - main panels
     private JTabbedPane tabbedPane;
-    private JPanel fullTimePanel, partTimePanel, vacancyPanel, staffDisplayPanel, terminatePanel;
+    // Builds the panel of each tab not yet shown, keyed by the tab's container
+    private Map<Component, Supplier<JPanel>> tabBuilders = new HashMap<>();
+    private JPanel fullTimePanel, partTimePanel, vacancyPanel, staffDisplayPanel, terminatePanel, 
+                   payrollSummaryPanel, consolePanel;
     
     // Full Time Panel components
     private JTextField ftVacancyNumberField, ftDesignationField, ftJobTypeField, ftStaffNameField, 
@@ -37,15 +74,34 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
     
     // Staff Display Panel components
     private JButton displayAllStaffButton, displayTerminatedStaffButton;
-    private JTextArea staffDisplayArea;
+    private StaffTableModel staffTableModel;
+    private StaffOrderings staffOrderings;
+    private StaffSortFilter staffSortFilter;
+    private JLabel staffDisplayLabel;
+    private JTextField staffFilterField;
     
     // Terminate Panel components
-    private JComboBox<String> activeStaffComboBox;
-    private JButton terminateButton, refreshButton;
+    private JButton terminateButton;
+    private ActiveStaffListModel activeStaffListModel;
+    
+    // Payroll Summary Panel components
+    private JTextArea payrollSummaryArea, payrollRunArea;
+    private JTextField partTimeDaysField;
+    private JButton runPayrollButton;
+    
+    // Console Panel components
+    private JTextArea consoleArea;
+    private JButton clearConsoleButton;
+    private PrintConsoleToTextArea console;
+    
+    // Loading status components
+    private JLabel statusLabel;
+    private JProgressBar loadProgressBar;
     
     // Vacancy Display components
-    private JButton displayAllVacanciesButton;
-    private JTextArea vacancyDisplayArea;
+    private JButton displayAllVacanciesButton, searchOpenVacanciesButton;
+    private VacancyTableModel vacancyTableModel;
+    private JLabel vacancyListLabel;
     
     // Colors
     private Color backgroundColor = new Color(240, 248, 255); // AliceBlue
@@ -61,28 +117,169 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
     public RecruitmentSystem() {
         super("Staff Recruitment System");
         
-        // Load data from files
-        staffList = FileHandler.loadStaffData();
-        vacancyList = FileHandler.loadVacancyData();
+        // Start with empty lists; the data files are loaded in the background
+        staffList = new ArrayList<>();
+        vacancyList = new ArrayList<>();
+        store = new RecruitmentStore();
+        payrollColumns = new PayrollColumns();
+        store.addListener(payrollColumns);
+        payrollAggregates = new PayrollAggregates();
+        store.addListener(payrollAggregates);
+        payrollEngine = new PayrollEngine();
+        vacancyLookupCache = new VacancyLookupCache();
+        
+        // The models behind the tables and lists exist before their tabs are built
+        staffTableModel = new StaffTableModel();
+        staffOrderings = new StaffOrderings();
+        staffSortFilter = new StaffSortFilter(staffTableModel, staffOrderings);
+        staffSortFilter.setRefreshListener(this::updateStaffDisplayLabel);
+        vacancyTableModel = new VacancyTableModel();
+        activeStaffListModel = new ActiveStaffListModel();
         
         // Set up the GUI
         setupGUI();
         
+        // Show what the records print on the Console tab, keeping the last 5,000 lines
+        consoleArea = new JTextArea();
+        console = new PrintConsoleToTextArea(System.out, consoleArea, 5000);
+        System.setOut(console);
+        
         // Configure the JFrame
         setSize(1000, 750);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
         
-        // Add window listener to save data on close
+        // Add window listener to write a full snapshot on close, which also clears the journals,
+        // and wait for it so nothing is lost on exit
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
-                FileHandler.saveStaffData(staffList);
-                FileHandler.saveVacancyData(vacancyList);
+                // The console is going away; print straight to the original stream again
+                console.stopDrain();
+                System.setOut(console.getOriginalOut());
+                if (!dataLoaded) {
+                    // Nothing can have changed yet, and saving now would overwrite the files
+                    return;
+                }
+                changeFeed.close();
+                persistence.saveSnapshot(staffList, vacancyList);
+                if (!persistence.awaitFlush(30, TimeUnit.SECONDS)) {
+                    System.err.println("Timed out saving data: " + persistence.getStatus());
+                }
             }
         });
         
         setVisible(true);
+        loadDataAsync();
+    }
+    
+    /**
+     * Loads the staff and vacancy files at the same time on background
+     * threads and fills in the panels once both have arrived
+     */
+    private void loadDataAsync() {
+        ExecutorService loader = Executors.newFixedThreadPool(2, r -> {
+            Thread thread = new Thread(r, "data-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        CompletableFuture<ArrayList<StaffHire>> staffLoaded =
+            CompletableFuture.supplyAsync(FileHandler::loadStaffData, loader);
+        CompletableFuture<ArrayList<Vacancy>> vacancyFuture =
+            CompletableFuture.supplyAsync(FileHandler::loadVacancyData, loader);
+        staffLoaded.thenRun(() -> SwingUtilities.invokeLater(() -> advanceLoadProgress("Staff loaded")));
+        
+        // Sort the staff for the staff table before handing them to the EDT
+        CompletableFuture<ArrayList<StaffHire>> staffFuture = staffLoaded.thenApplyAsync(staff -> {
+            staffOrderings.prepare(staff);
+            return staff;
+        }, loader);
+        vacancyFuture.thenRun(() -> SwingUtilities.invokeLater(() -> advanceLoadProgress("Vacancies loaded")));
+        
+        staffFuture.thenAcceptBoth(vacancyFuture, (staff, vacancies) ->
+            SwingUtilities.invokeLater(() -> onDataLoaded(staff, vacancies)))
+            .whenComplete((result, error) -> {
+                loader.shutdown();
+                if (error != null) {
+                    SwingUtilities.invokeLater(() -> {
+                        statusLabel.setText("Error loading data: " + error.getMessage());
+                        loadProgressBar.setVisible(false);
+                    });
+                }
+            });
+    }
+    
+    /**
+     * Moves the loading progress bar one step forward
+     */
+    private void advanceLoadProgress(String message) {
+        loadProgressBar.setValue(loadProgressBar.getValue() + 1);
+        statusLabel.setText(message + "...");
+    }
+    
+    /**
+     * Installs the loaded data and fills in the panels. Runs on the EDT.
+     */
+    private void onDataLoaded(ArrayList<StaffHire> staff, ArrayList<Vacancy> vacancies) {
+        staffList = staff;
+        vacancyList = vacancies;
+        attachRecords();
+        showRecordTables();
+        persistence = new PersistenceWorker();
+        store.setJournal(persistence);
+        changeFeed = new RecordChangeFeed();
+        store.addListener(changeFeed);
+        changeFeed.subscribe(new CountsRefresher());
+        dataLoaded = true;
+        
+        displayAllVacancies();
+        updateTabCounts();
+        updatePayrollSummary();
+        
+        statusLabel.setText("Loaded " + staffList.size() + " staff and " + 
+                            vacancyList.size() + " vacancies");
+        loadProgressBar.setVisible(false);
+    }
+    
+    /**
+     * Hands the loaded records to the store, which builds the indexes
+     */
+    private void attachRecords() {
+        store.load(staffList, vacancyList);
+        // Built in one pass, then kept up to date like the indexes
+        vacancyLookupCache.setVacancies(vacancyList);
+        store.addListener(vacancyLookupCache);
+    }
+    
+    /**
+     * Points the tables at the loaded records, which the staff orderings
+     * were prepared with, and keeps their rows up to date from then on. Added after the records are attached, so loading
+     * fires one table change rather than one per record.
+     */
+    private void showRecordTables() {
+        staffTableModel.setRecords(staffList);
+        vacancyTableModel.setRecords(vacancyList);
+        store.addListener(staffOrderings);
+        store.addListener(staffTableModel);
+        store.addListener(staffSortFilter);
+        if (!tabBuilders.containsKey(terminatePanel)) {
+            showActiveStaffList();
+        }
+        store.addListener(vacancyTableModel);
+        displayAllStaff();
+    }
+    
+    /**
+     * Shows a message if the data is still loading
+     * @return true if the data is loaded and changes can be made
+     */
+    private boolean checkDataLoaded() {
+        if (!dataLoaded) {
+            JOptionPane.showMessageDialog(this, "Data is still loading, please wait.", 
+                                         "Loading", JOptionPane.INFORMATION_MESSAGE);
+        }
+        return dataLoaded;
     }
     
     /**
@@ -95,22 +292,56 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
         tabbedPane.setForeground(headerColor);
         tabbedPane.setFont(new Font("Arial", Font.BOLD, 16));
         
-        // Create main panels
-        fullTimePanel = createFullTimePanel();
-        partTimePanel = createPartTimePanel();
-        vacancyPanel = createVacancyPanel();
-        staffDisplayPanel = createStaffDisplayPanel();
-        terminatePanel = createTerminatePanel();
-        
-        // Add panels to tabbed pane
-        tabbedPane.addTab("Full Time Staff", fullTimePanel);
-        tabbedPane.addTab("Part Time Staff", partTimePanel);
-        tabbedPane.addTab("Vacancy Management", vacancyPanel);
-        tabbedPane.addTab("Staff Display", staffDisplayPanel);
-        tabbedPane.addTab("Terminate Staff", terminatePanel);
-        
-        // Add tabbed pane to frame
+        // Add tabs; each panel is built the first time its tab is selected
+        fullTimePanel = addTab("Full Time Staff", this::createFullTimePanel);
+        partTimePanel = addTab("Part Time Staff", this::createPartTimePanel);
+        vacancyPanel = addTab("Vacancy Management", this::createVacancyPanel);
+        staffDisplayPanel = addTab("Staff Display", this::createStaffDisplayPanel);
+        terminatePanel = addTab("Terminate Staff", this::createTerminatePanel);
+        payrollSummaryPanel = addTab("Payroll Summary", this::createPayrollSummaryPanel);
+        consolePanel = addTab("Console", this::createConsolePanel);
+        tabbedPane.addChangeListener(e -> buildTab(tabbedPane.getSelectedComponent()));
+        buildTab(tabbedPane.getSelectedComponent());
+        
+        // Create status bar showing the loading progress
+        JPanel statusPanel = new JPanel(new BorderLayout(10, 0));
+        statusPanel.setBackground(backgroundColor);
+        statusPanel.setBorder(BorderFactory.createEmptyBorder(4, 10, 4, 10));
+        statusLabel = new JLabel("Loading data...");
+        statusLabel.setFont(new Font("Arial", Font.PLAIN, 12));
+        loadProgressBar = new JProgressBar(0, 2);
+        statusPanel.add(statusLabel, BorderLayout.CENTER);
+        statusPanel.add(loadProgressBar, BorderLayout.EAST);
+        
+        // Add tabbed pane and status bar to frame
         add(tabbedPane);
+        add(statusPanel, BorderLayout.SOUTH);
+    }
+    
+    /**
+     * Adds a tab whose panel is built when the tab is first selected
+     * @param title the tab title
+     * @param builder creates the panel
+     * @return the container the panel is added to
+     */
+    private JPanel addTab(String title, Supplier<JPanel> builder) {
+        JPanel container = new JPanel(new BorderLayout());
+        container.setBackground(backgroundColor);
+        tabBuilders.put(container, builder);
+        tabbedPane.addTab(title, container);
+        return container;
+    }
+    
+    /**
+     * Builds the panel of a tab, if it has not been built yet
+     * @param container the tab's container
+     */
+    private void buildTab(Component container) {
+        Supplier<JPanel> builder = tabBuilders.remove(container);
+        if (builder != null) {
+            ((JPanel) container).add(builder.get(), BorderLayout.CENTER);
+            ((JPanel) container).revalidate();
+        }
     }
     
     /**
@@ -150,6 +381,107 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
         return textField;
     }
     
+    /**
+     * Suggests open vacancies while a vacancy number is typed, and fills in the
+     * designation and job type once the number matches an open vacancy. The
+     * lookup runs a short delay after the last key, so typing a number does
+     * one lookup rather than one per key.
+     * @param vacancyField the vacancy number field
+     * @param designationField the field filled with the designation
+     * @param jobTypeField the field filled with the job type
+     */
+    private void addVacancyAutoFill(JTextField vacancyField, JTextField designationField, JTextField jobTypeField) {
+        JPopupMenu suggestionMenu = new JPopupMenu();
+        suggestionMenu.setFocusable(false);
+        // The vacancy whose details were last filled in, to clear them if the number changes
+        Vacancy[] filled = new Vacancy[1];
+        
+        Timer lookupTimer = new Timer(250, e -> {
+            suggestionMenu.setVisible(false);
+            if (!vacancyField.isFocusOwner()) {
+                return;
+            }
+            String text = vacancyField.getText().trim();
+            Vacancy match = fillVacancyDetails(text, filled, designationField, jobTypeField);
+            
+            suggestionMenu.removeAll();
+            for (Vacancy vacancy : vacancyLookupCache.suggest(text, 8)) {
+                if (vacancy == match) {
+                    continue;
+                }
+                JMenuItem item = new JMenuItem(vacancy.toString());
+                item.setFont(new Font("Arial", Font.PLAIN, 13));
+                item.addActionListener(event -> {
+                    vacancyField.setText(String.valueOf(vacancy.getVacancyId()));
+                    vacancyField.setForeground(Color.BLACK);
+                    fillVacancyDetails(vacancyField.getText(), filled, designationField, jobTypeField);
+                });
+                suggestionMenu.add(item);
+            }
+            if (suggestionMenu.getComponentCount() > 0) {
+                suggestionMenu.show(vacancyField, 0, vacancyField.getHeight());
+            }
+        });
+        lookupTimer.setRepeats(false);
+        
+        vacancyField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                lookupTimer.restart();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                lookupTimer.restart();
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                lookupTimer.restart();
+            }
+        });
+        
+        // Leaving the field looks the number up straight away
+        vacancyField.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                lookupTimer.stop();
+                suggestionMenu.setVisible(false);
+                fillVacancyDetails(vacancyField.getText().trim(), filled, designationField, jobTypeField);
+            }
+        });
+    }
+    
+    /**
+     * Fills in the details of the open vacancy with the typed number, or
+     * clears the details filled in earlier if the number no longer matches
+     * @return the open vacancy, or null if the text is not an open vacancy number
+     */
+    private Vacancy fillVacancyDetails(String text, Vacancy[] filled,
+                                       JTextField designationField, JTextField jobTypeField) {
+        Vacancy vacancy = null;
+        try {
+            vacancy = vacancyLookupCache.getOpen(Integer.parseInt(text));
+        } catch (NumberFormatException ex) {
+            // Not a number, such as the placeholder
+        }
+        if (vacancy != null) {
+            designationField.setText(vacancy.getDesignation());
+            designationField.setForeground(Color.BLACK);
+            jobTypeField.setText(vacancy.getJobType());
+            jobTypeField.setForeground(Color.BLACK);
+        } else if (filled[0] != null && designationField.getText().equals(filled[0].getDesignation())
+                   && jobTypeField.getText().equals(filled[0].getJobType())) {
+            // Only clear details the user has not edited since they were filled in
+            designationField.setText("Enter designation");
+            designationField.setForeground(Color.GRAY);
+            jobTypeField.setText("Enter job type");
+            jobTypeField.setForeground(Color.GRAY);
+        }
+        filled[0] = vacancy;
+        return vacancy;
+    }
+    
     /**
      * Creates panel for Full Time Staff
      */
@@ -181,34 +513,8 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
         ftSalaryField = createTextField("Enter salary");
         ftWeeklyHoursField = createTextField("Enter weekly hours");
         
-        // Add vacancy field listener for auto-fill
-        ftVacancyNumberField.addFocusListener(new FocusAdapter() {
-            @Override
-            public void focusLost(FocusEvent e) {
-                try {
-                    String text = ftVacancyNumberField.getText();
-                    if (!text.equals("Enter vacancy number")) {
-                        int vacancyId = Integer.parseInt(text);
-                        for (Vacancy vacancy : vacancyList) {
-                            if (vacancy.getVacancyId() == vacancyId && vacancy.isOpen()) {
-                                ftDesignationField.setText(vacancy.getDesignation());
-                                ftDesignationField.setForeground(Color.BLACK);
-                                ftJobTypeField.setText(vacancy.getJobType());
-                                ftJobTypeField.setForeground(Color.BLACK);
-                                
-                                // Show success message to user
-                                JOptionPane.showMessageDialog(panel,
-                                    "Found vacancy #" + vacancyId + ". Job details auto-filled.",
-                                    "Auto-fill Success", JOptionPane.INFORMATION_MESSAGE);
-                                break;
-                            }
-                        }
-                    }
-                } catch (NumberFormatException ex) {
-                    // Do nothing if the input is not a valid number
-                }
-            }
-        });
+        // Suggest open vacancies and fill in their details as the number is typed
+        addVacancyAutoFill(ftVacancyNumberField, ftDesignationField, ftJobTypeField);
         
         // Initialize checkbox with larger font
         ftJoinedCheckBox = new JCheckBox("Joined");
@@ -287,34 +593,8 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
         ptWagesPerHourField = createTextField("Enter hourly wage");
         ptShiftsField = createTextField("Enter shifts");
         
-        // Add vacancy field listener for auto-fill
-        ptVacancyNumberField.addFocusListener(new FocusAdapter() {
-            @Override
-            public void focusLost(FocusEvent e) {
-                try {
-                    String text = ptVacancyNumberField.getText();
-                    if (!text.equals("Enter vacancy number")) {
-                        int vacancyId = Integer.parseInt(text);
-                        for (Vacancy vacancy : vacancyList) {
-                            if (vacancy.getVacancyId() == vacancyId && vacancy.isOpen()) {
-                                ptDesignationField.setText(vacancy.getDesignation());
-                                ptDesignationField.setForeground(Color.BLACK);
-                                ptJobTypeField.setText(vacancy.getJobType());
-                                ptJobTypeField.setForeground(Color.BLACK);
-                                
-                                // Show success message to user
-                                JOptionPane.showMessageDialog(panel,
-                                    "Found vacancy #" + vacancyId + ". Job details auto-filled.",
-                                    "Auto-fill Success", JOptionPane.INFORMATION_MESSAGE);
-                                break;
-                            }
-                        }
-                    }
-                } catch (NumberFormatException ex) {
-                    // Do nothing if the input is not a valid number
-                }
-            }
-        });
+        // Suggest open vacancies and fill in their details as the number is typed
+        addVacancyAutoFill(ptVacancyNumberField, ptDesignationField, ptJobTypeField);
         
         // Initialize checkbox with larger font
         ptJoinedCheckBox = new JCheckBox("Joined");
@@ -427,21 +707,21 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
         ));
         displayPanel.setBackground(backgroundColor);
         
-        vacancyDisplayArea = new JTextArea(15, 30);
-        vacancyDisplayArea.setEditable(false);
-        vacancyDisplayArea.setFont(new Font("Monospaced", Font.PLAIN, 14));
-        vacancyDisplayArea.setBackground(fieldBgColor);
-        vacancyDisplayArea.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        vacancyListLabel = new JLabel("No vacancies found.");
+        vacancyListLabel.setFont(new Font("Arial", Font.BOLD, 14));
         
-        JScrollPane scrollPane = new JScrollPane(vacancyDisplayArea);
+        JScrollPane scrollPane = new JScrollPane(createRecordTable(vacancyTableModel));
         scrollPane.setBorder(BorderFactory.createLineBorder(borderColor, 1));
         
         displayAllVacanciesButton = createButton("Display All Vacancies");
+        searchOpenVacanciesButton = createButton("Search Open Vacancies");
         JPanel buttonPanel = new JPanel();
         buttonPanel.setBackground(backgroundColor);
         buttonPanel.add(displayAllVacanciesButton);
+        buttonPanel.add(searchOpenVacanciesButton);
         buttonPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 0, 0));
         
+        displayPanel.add(vacancyListLabel, BorderLayout.NORTH);
         displayPanel.add(scrollPane, BorderLayout.CENTER);
         displayPanel.add(buttonPanel, BorderLayout.SOUTH);
         
@@ -453,6 +733,8 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
         panel.add(titlePanel, BorderLayout.NORTH);
         panel.add(contentPanel, BorderLayout.CENTER);
         
+        displayAllVacancies();
+        
         return panel;
     }
     
@@ -471,16 +753,65 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
         titleLabel.setForeground(textColor);
         titlePanel.add(titleLabel);
         
-        // Create display area
-        staffDisplayArea = new JTextArea();
-        staffDisplayArea.setEditable(false);
-        staffDisplayArea.setFont(new Font("Monospaced", Font.PLAIN, 14));
-        staffDisplayArea.setBackground(fieldBgColor);
-        staffDisplayArea.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        // Create staff table, sorted by clicking a column header
+        staffDisplayLabel = new JLabel("No staff members found.");
+        staffDisplayLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        
+        JTable staffTable = createRecordTable(staffTableModel);
+        staffTable.getTableHeader().setToolTipText("Click Vacancy No., Name, Joining Date or Salary to sort");
+        staffTable.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = staffTable.columnAtPoint(e.getPoint());
+                if (column < 0 || !dataLoaded) {
+                    return;
+                }
+                column = staffTable.convertColumnIndexToModel(column);
+                StaffOrderings.SortKey key = staffTableModel.sortKeyAt(column);
+                if (key != null || column == 0) {
+                    staffSortFilter.sortBy(key);
+                }
+            }
+        });
         
-        JScrollPane scrollPane = new JScrollPane(staffDisplayArea);
+        JScrollPane scrollPane = new JScrollPane(staffTable);
         scrollPane.setBorder(BorderFactory.createLineBorder(borderColor, 1));
-        scrollPane.setBorder(BorderFactory.createEmptyBorder(30, 30, 30, 30));
+        
+        // Create name filter
+        staffFilterField = new JTextField(20);
+        staffFilterField.setFont(new Font("Arial", Font.PLAIN, 14));
+        staffFilterField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                filterStaff();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                filterStaff();
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                filterStaff();
+            }
+        });
+        
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        filterPanel.setBackground(backgroundColor);
+        filterPanel.add(createFormLabel("Filter by name:"));
+        filterPanel.add(staffFilterField);
+        
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setBackground(backgroundColor);
+        headerPanel.add(staffDisplayLabel, BorderLayout.WEST);
+        headerPanel.add(filterPanel, BorderLayout.EAST);
+        
+        JPanel tablePanel = new JPanel(new BorderLayout(0, 10));
+        tablePanel.setBackground(backgroundColor);
+        tablePanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 0, 30));
+        tablePanel.add(headerPanel, BorderLayout.NORTH);
+        tablePanel.add(scrollPane, BorderLayout.CENTER);
         
         // Create button panel
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 20));
@@ -494,9 +825,13 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
         
         // Add panels to main panel
         panel.add(titlePanel, BorderLayout.NORTH);
-        panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(tablePanel, BorderLayout.CENTER);
         panel.add(buttonPanel, BorderLayout.SOUTH);
         
+        if (staffSortFilter.isActive()) {
+            updateStaffDisplayLabel();
+        }
+        
         return panel;
     }
     
@@ -532,13 +867,26 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
             headerColor
         ));
         
-        // Create staff list area
-        JTextArea activeStaffListArea = new JTextArea(12, 40);
-        activeStaffListArea.setEditable(false);
-        activeStaffListArea.setFont(new Font("Monospaced", Font.PLAIN, 14));
-        activeStaffListArea.setBackground(fieldBgColor);
+        // Create staff list, kept up to date by its model
+        JList<StaffHire> activeStaffList = new JList<>(activeStaffListModel);
+        activeStaffList.setFont(new Font("Monospaced", Font.PLAIN, 14));
+        activeStaffList.setBackground(fieldBgColor);
+        activeStaffList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        activeStaffList.setVisibleRowCount(12);
+        // A fixed height lets the list lay out only the visible entries
+        activeStaffList.setFixedCellHeight(22);
+        activeStaffList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                StaffHire staff = (StaffHire) value;
+                String text = "ID: " + staff.getVacancyNumber() + " | Name: " + staff.getStaffName() 
+                            + " | Designation: " + staff.getDesignation();
+                return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+            }
+        });
         
-        JScrollPane staffScrollPane = new JScrollPane(activeStaffListArea);
+        JScrollPane staffScrollPane = new JScrollPane(activeStaffList);
         staffScrollPane.setBorder(BorderFactory.createLineBorder(borderColor, 1));
         
         // Create label with larger font
@@ -578,10 +926,8 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
         buttonPanel.setBackground(backgroundColor);
         
         terminateButton = createButton("Terminate Staff");
-        refreshButton = createButton("Refresh List");
         
         buttonPanel.add(terminateButton);
-        buttonPanel.add(refreshButton);
         
         // Add to selection panel
         selectionPanel.add(inputPanel, BorderLayout.NORTH);
@@ -596,12 +942,20 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
         panel.add(contentPanel, BorderLayout.CENTER);
         
         // Setup action listeners
-        refreshButton.addActionListener(e -> updateActiveStaffList(activeStaffListArea));
+        activeStaffList.addListSelectionListener(e -> {
+            StaffHire selected = activeStaffList.getSelectedValue();
+            if (!e.getValueIsAdjusting() && selected != null) {
+                staffIdField.setText(String.valueOf(selected.getVacancyNumber()));
+                staffIdField.setForeground(Color.BLACK);
+            }
+        });
         terminateButton.addActionListener(e -> {
+            if (!checkDataLoaded()) {
+                return;
+            }
             try {
                 int vacancyNumber = Integer.parseInt(staffIdField.getText());
                 terminateStaffById(vacancyNumber);
-                updateActiveStaffList(activeStaffListArea);
                 staffIdField.setText("Enter Vacancy Number");
                 staffIdField.setForeground(Color.GRAY);
             } catch (NumberFormatException ex) {
@@ -611,60 +965,245 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
             }
         });
         
-        // Initialize the active staff list
-        updateActiveStaffList(activeStaffListArea);
+        // Fill the list now if the data is loaded, otherwise once it is
+        if (dataLoaded) {
+            showActiveStaffList();
+        }
+        
+        return panel;
+    }
+    
+    /**
+     * Fills the Terminate Staff list and keeps it up to date from then on
+     */
+    private void showActiveStaffList() {
+        activeStaffListModel.setRecords(staffList);
+        store.addListener(activeStaffListModel);
+    }
+    
+    /**
+     * Creates panel for Payroll Summary
+     */
+    private JPanel createPayrollSummaryPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBackground(backgroundColor);
+        
+        // Create title panel
+        JPanel titlePanel = new JPanel();
+        titlePanel.setBackground(headerColor);
+        JLabel titleLabel = new JLabel("Payroll Summary");
+        titleLabel.setFont(new Font("Arial", Font.BOLD, 20));
+        titleLabel.setForeground(textColor);
+        titlePanel.add(titleLabel);
+        
+        // Create summary area
+        payrollSummaryArea = new JTextArea();
+        payrollSummaryArea.setEditable(false);
+        payrollSummaryArea.setFont(new Font("Monospaced", Font.PLAIN, 14));
+        payrollSummaryArea.setBackground(fieldBgColor);
+        payrollSummaryArea.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        
+        JScrollPane scrollPane = new JScrollPane(payrollSummaryArea);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder(30, 30, 30, 15));
+        
+        // Create payroll run area
+        payrollRunArea = new JTextArea("Press Run Payroll to compute the pay per designation and appointed by.");
+        payrollRunArea.setEditable(false);
+        payrollRunArea.setFont(new Font("Monospaced", Font.PLAIN, 14));
+        payrollRunArea.setBackground(fieldBgColor);
+        payrollRunArea.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        
+        JScrollPane runScrollPane = new JScrollPane(payrollRunArea);
+        runScrollPane.setBorder(BorderFactory.createEmptyBorder(30, 15, 30, 30));
+        
+        JPanel contentPanel = new JPanel(new GridLayout(1, 2));
+        contentPanel.setBackground(backgroundColor);
+        contentPanel.add(scrollPane);
+        contentPanel.add(runScrollPane);
+        
+        // Create button panel
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 20));
+        buttonPanel.setBackground(backgroundColor);
+        
+        partTimeDaysField = new JTextField("22", 4);
+        partTimeDaysField.setFont(new Font("Arial", Font.PLAIN, 14));
+        runPayrollButton = createButton("Run Payroll");
+        
+        buttonPanel.add(createFormLabel("Part Time Days:"));
+        buttonPanel.add(partTimeDaysField);
+        buttonPanel.add(runPayrollButton);
+        
+        // Add panels to main panel
+        panel.add(titlePanel, BorderLayout.NORTH);
+        panel.add(contentPanel, BorderLayout.CENTER);
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+        
+        updatePayrollSummary();
         
         return panel;
     }
     
     /**
-     * Updates the active staff list in the text area
+     * Creates panel showing the console output
      */
-    private void updateActiveStaffList(JTextArea textArea) {
-        textArea.setText("");
+    private JPanel createConsolePanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBackground(backgroundColor);
+        
+        // Create title panel
+        JPanel titlePanel = new JPanel();
+        titlePanel.setBackground(headerColor);
+        JLabel titleLabel = new JLabel("Console");
+        titleLabel.setFont(new Font("Arial", Font.BOLD, 20));
+        titleLabel.setForeground(textColor);
+        titlePanel.add(titleLabel);
+        
+        // Set up console area, which collects lines from the start
+        consoleArea.setEditable(false);
+        consoleArea.setFont(new Font("Monospaced", Font.PLAIN, 13));
+        consoleArea.setBackground(fieldBgColor);
+        consoleArea.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        
+        JScrollPane scrollPane = new JScrollPane(consoleArea);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder(30, 30, 30, 30));
+        
+        // Create button panel
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 20));
+        buttonPanel.setBackground(backgroundColor);
+        
+        clearConsoleButton = createButton("Clear Console");
+        buttonPanel.add(clearConsoleButton);
+        
+        // Add panels to main panel
+        panel.add(titlePanel, BorderLayout.NORTH);
+        panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+        
+        return panel;
+    }
+    
+    /**
+     * Shows the payroll totals and headcounts, which are kept up to date
+     * by PayrollAggregates, so the staff list is not read
+     */
+    private void updatePayrollSummary() {
+        if (payrollSummaryArea == null) {
+            // Not built yet; filled in when the tab is first shown
+            return;
+        }
         StringBuilder sb = new StringBuilder();
+        sb.append("=== PAYROLL SUMMARY ===\n\n");
+        sb.append(String.format("Active Staff: %d%n%n", payrollAggregates.getHeadcount()));
+        sb.append(String.format("Full Time Staff: %d%n", payrollAggregates.getFullTimeCount()));
+        sb.append(String.format("Total Salary: %.2f%n", payrollAggregates.getTotalSalary()));
+        sb.append(String.format("Average Salary: %.2f%n", payrollAggregates.getAverageSalary()));
+        sb.append(String.format("Total Weekly Hours: %d%n%n", payrollAggregates.getTotalWeeklyHours()));
+        sb.append(String.format("Part Time Staff: %d%n", payrollAggregates.getPartTimeCount()));
+        sb.append(String.format("Total Income Per Day: %.2f%n", payrollAggregates.getTotalDailyIncome()));
+        
+        sb.append("\n--- Headcount by Designation ---\n");
+        for (Map.Entry<String, Integer> entry : payrollAggregates.getHeadcountByDesignation().entrySet()) {
+            sb.append(String.format("%-30s %d%n", entry.getKey(), entry.getValue()));
+        }
+        sb.append("\n--- Headcount by Job Type ---\n");
+        for (Map.Entry<String, Integer> entry : payrollAggregates.getHeadcountByJobType().entrySet()) {
+            sb.append(String.format("%-30s %d%n", entry.getKey(), entry.getValue()));
+        }
         
-        for (StaffHire staff : staffList) {
-            if (staff.isActive() && staff instanceof PartTimeStaffHire) {
-                sb.append("ID: ").append(staff.getVacancyNumber())
-                  .append(" | Name: ").append(staff.getStaffName())
-                  .append(" | Designation: ").append(staff.getDesignation())
-                  .append("\n");
+        payrollSummaryArea.setText(sb.toString());
+    }
+    
+    /**
+     * Runs the payroll over all staff and shows the pay per designation and
+     * appointed by. The run is split across the cores while the EDT waits,
+     * so no record changes during it.
+     */
+    private void runPayroll() {
+        int partTimeDays;
+        try {
+            partTimeDays = Integer.parseInt(partTimeDaysField.getText().trim());
+            if (partTimeDays < 0) {
+                throw new NumberFormatException();
             }
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Please enter a valid number of part time days!", 
+                                         "Error", JOptionPane.ERROR_MESSAGE);
+            return;
         }
         
-        if (sb.length() == 0) {
-            sb.append("No active part-time staff found.");
+        long start = System.nanoTime();
+        PayrollEngine.PayrollRun run = payrollEngine.run(staffList, partTimeDays);
+        long elapsed = System.nanoTime() - start;
+        
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== PAYROLL RUN ===\n\n");
+        sb.append(String.format("Staff Paid: %d%n", run.getStaffCount()));
+        sb.append(String.format("Total Pay: %.2f%n", run.getTotalPay()));
+        sb.append(String.format("Computed in %.1f ms%n", elapsed / 1e6));
+        for (PayrollEngine.Group group : run.getGroups()) {
+            sb.append("\n").append(group.getDesignation())
+              .append(" / ").append(group.getAppointedBy()).append("\n");
+            if (group.getFullTimeCount() > 0) {
+                sb.append(String.format("  Full Time: %d staff, pay %.2f%n", 
+                                        group.getFullTimeCount(), group.getFullTimePay()));
+            }
+            if (group.getPartTimeCount() > 0) {
+                sb.append(String.format("  Part Time: %d staff, %d hours, pay %.2f%n", 
+                                        group.getPartTimeCount(), group.getPartTimeHours(), 
+                                        group.getPartTimePay()));
+            }
         }
         
-        textArea.setText(sb.toString());
+        payrollRunArea.setText(sb.toString());
+        payrollRunArea.setCaretPosition(0);
+    }
+    
+    /**
+     * Returns the criteria for active part-time staff, who can be terminated
+     */
+    private RecruitmentQuery.StaffCriteria activePartTimeCriteria() {
+        return new RecruitmentQuery.StaffCriteria().active(true).partTime(true);
+    }
+    
+    /**
+     * Shows the number of open vacancies and active staff on the tab titles,
+     * and the record counts above the tables that show all records
+     */
+    private void updateTabCounts() {
+        tabbedPane.setTitleAt(tabbedPane.indexOfComponent(vacancyPanel),
+            "Vacancy Management (" + store.getOpenVacancyCount() + " open)");
+        tabbedPane.setTitleAt(tabbedPane.indexOfComponent(staffDisplayPanel),
+            "Staff Display (" + store.countStaff(RecruitmentQuery.StaffFlag.ACTIVE) + " active)");
+        tabbedPane.setTitleAt(tabbedPane.indexOfComponent(terminatePanel),
+            "Terminate Staff (" + store.countStaff(activePartTimeCriteria()) + ")");
+        
+        // The list labels show counts too
+        if (staffSortFilter.isActive()) {
+            updateStaffDisplayLabel();
+        }
+        if (vacancyTableModel.isShowingAll()) {
+            displayAllVacancies();
+        }
     }
     
     /**
      * Terminates a staff member by their ID (vacancy number)
      */
     private void terminateStaffById(int vacancyNumber) {
-        for (StaffHire staff : staffList) {
-            if (staff.getVacancyNumber() == vacancyNumber && 
-                staff instanceof PartTimeStaffHire && 
-                staff.isActive()) {
-                
-                PartTimeStaffHire partTimeStaff = (PartTimeStaffHire) staff;
-                partTimeStaff.terminateStaff();
-                
-                // Save data
-                FileHandler.saveStaffData(staffList);
-                
-                JOptionPane.showMessageDialog(this, 
-                    "Staff with ID " + vacancyNumber + " terminated successfully!", 
-                    "Success", JOptionPane.INFORMATION_MESSAGE);
-                return;
-            }
+        try {
+            // The store journals the change
+            store.terminate(vacancyNumber);
+            System.out.println("Staff has been terminated.");
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, 
+                "No active part-time staff found with ID " + vacancyNumber, 
+                "Error", JOptionPane.ERROR_MESSAGE);
+            return;
         }
         
         JOptionPane.showMessageDialog(this, 
-            "No active part-time staff found with ID " + vacancyNumber, 
-            "Error", JOptionPane.ERROR_MESSAGE);
+            "Staff with ID " + vacancyNumber + " terminated successfully!", 
+            "Success", JOptionPane.INFORMATION_MESSAGE);
     }
     
     /**
@@ -677,6 +1216,22 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
         return label;
     }
     
+    /**
+     * Creates a table over a record table model. JTable only asks the model
+     * for the cells of the rows in view.
+     */
+    private JTable createRecordTable(RecordTableModel<?> model) {
+        JTable table = new JTable(model);
+        table.setFont(new Font("Arial", Font.PLAIN, 14));
+        table.setRowHeight(24);
+        table.setFillsViewportHeight(true);
+        table.setBackground(fieldBgColor);
+        table.setGridColor(borderColor);
+        table.getTableHeader().setFont(new Font("Arial", Font.BOLD, 14));
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        return table;
+    }
+    
     /**
      * Creates a styled button
      */
@@ -716,6 +1271,12 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
     public void actionPerformed(ActionEvent e) {
         Object source = e.getSource();
         
+        // Clear buttons work at any time; everything else needs the data
+        if (source != ftClearButton && source != ptClearButton && source != clearVacancyButton &&
+            source != clearConsoleButton && !checkDataLoaded()) {
+            return;
+        }
+        
         // Full Time Staff actions
         if (source == ftAddButton) {
             addFullTimeStaff();
@@ -737,6 +1298,8 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
             clearVacancyFields();
         } else if (source == displayAllVacanciesButton) {
             displayAllVacancies();
+        } else if (source == searchOpenVacanciesButton) {
+            searchOpenVacancies();
         }
         
         // Staff Display actions
@@ -746,6 +1309,16 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
             displayTerminatedStaff();
         }
         
+        // Payroll Summary actions
+        else if (source == runPayrollButton) {
+            runPayroll();
+        }
+        
+        // Console actions
+        else if (source == clearConsoleButton) {
+            console.clearLines();
+        }
+        
         // Terminate actions - handled by lambda in createTerminatePanel
     }
     
@@ -807,41 +1380,20 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
                 return;
             }
             
-            // Check if vacancy number exists in vacancy list
-            boolean vacancyExists = false;
-            for (Vacancy vacancy : vacancyList) {
-                if (vacancy.getVacancyId() == vacancyNumber && vacancy.isOpen()) {
-                    vacancyExists = true;
-                    vacancy.closeVacancy(); // Close the vacancy once staff is hired
-                    break;
-                }
-            }
-            
-            if (!vacancyExists) {
-                JOptionPane.showMessageDialog(this, "No open vacancy found with this number!", 
-                                             "Error", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-            
-            // Check if vacancy number already has staff assigned
-            for (StaffHire staff : staffList) {
-                if (staff.getVacancyNumber() == vacancyNumber && staff.isActive()) {
-                    JOptionPane.showMessageDialog(this, "This vacancy already has an active staff member!", 
-                                                 "Error", JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
-            }
-            
             // Create and add full-time staff
             FullTimeStaffHire fullTimeStaff = new FullTimeStaffHire(vacancyNumber, designation, 
                                                                    jobType, staffName, joiningDate, 
                                                                    qualification, appointedBy, joined, 
                                                                    salary, weeklyHours);
-            staffList.add(fullTimeStaff);
             
-            // Save data
-            FileHandler.saveStaffData(staffList);
-            FileHandler.saveVacancyData(vacancyList);
+            // The store checks the vacancy is open and free, closes it and journals the hire
+            try {
+                store.hire(fullTimeStaff);
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(this, ex.getMessage() + "!", 
+                                             "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
             
             JOptionPane.showMessageDialog(this, "Full-time staff added successfully!", 
                                          "Success", JOptionPane.INFORMATION_MESSAGE);
@@ -914,41 +1466,20 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
                 return;
             }
             
-            // Check if vacancy number exists in vacancy list
-            boolean vacancyExists = false;
-            for (Vacancy vacancy : vacancyList) {
-                if (vacancy.getVacancyId() == vacancyNumber && vacancy.isOpen()) {
-                    vacancyExists = true;
-                    vacancy.closeVacancy(); // Close the vacancy once staff is hired
-                    break;
-                }
-            }
-            
-            if (!vacancyExists) {
-                JOptionPane.showMessageDialog(this, "No open vacancy found with this number!", 
-                                             "Error", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-            
-            // Check if vacancy number already has staff assigned
-            for (StaffHire staff : staffList) {
-                if (staff.getVacancyNumber() == vacancyNumber && staff.isActive()) {
-                    JOptionPane.showMessageDialog(this, "This vacancy already has an active staff member!", 
-                                                 "Error", JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
-            }
-            
             // Create and add part-time staff
             PartTimeStaffHire partTimeStaff = new PartTimeStaffHire(vacancyNumber, designation, 
                                                                    jobType, staffName, joiningDate, 
                                                                    qualification, appointedBy, joined, 
                                                                    workingHour, wagesPerHour, shifts);
-            staffList.add(partTimeStaff);
             
-            // Save data
-            FileHandler.saveStaffData(staffList);
-            FileHandler.saveVacancyData(vacancyList);
+            // The store checks the vacancy is open and free, closes it and journals the hire
+            try {
+                store.hire(partTimeStaff);
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(this, ex.getMessage() + "!", 
+                                             "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
             
             JOptionPane.showMessageDialog(this, "Part-time staff added successfully!", 
                                          "Success", JOptionPane.INFORMATION_MESSAGE);
@@ -986,22 +1517,15 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
                 return;
             }
             
-            // Check if vacancy ID already exists
-            for (Vacancy vacancy : vacancyList) {
-                if (vacancy.getVacancyId() == vacancyId) {
-                    JOptionPane.showMessageDialog(this, "Vacancy ID already exists!", 
-                                                 "Error", JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
+            // Create and add vacancy; the store journals it
+            try {
+                store.addVacancy(vacancyId, designation, jobType);
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(this, "Vacancy ID already exists!", 
+                                             "Error", JOptionPane.ERROR_MESSAGE);
+                return;
             }
             
-            // Create and add vacancy
-            Vacancy vacancy = new Vacancy(vacancyId, designation, jobType);
-            vacancyList.add(vacancy);
-            
-            // Save data
-            FileHandler.saveVacancyData(vacancyList);
-            
             JOptionPane.showMessageDialog(this, "Vacancy added successfully!", 
                                          "Success", JOptionPane.INFORMATION_MESSAGE);
             clearVacancyFields();
@@ -1013,107 +1537,99 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
     }
     
     /**
-     * Method to display all staff
+     * Method to display all staff, in the current sort order
      */
     private void displayAllStaff() {
-        staffDisplayArea.setText("");
-        
+        if (staffFilterField == null || staffFilterField.getText().isEmpty()) {
+            staffSortFilter.apply();
+        } else {
+            // Clearing the filter shows all staff again
+            staffFilterField.setText("");
+        }
+    }
+    
+    /**
+     * Shows the staff whose names start with the text in the filter field
+     */
+    private void filterStaff() {
+        if (dataLoaded) {
+            staffSortFilter.setNamePrefix(staffFilterField.getText());
+        }
+    }
+    
+    /**
+     * Shows which staff are listed, how many, and the sort order
+     */
+    private void updateStaffDisplayLabel() {
+        if (staffDisplayLabel == null) {
+            return;
+        }
         if (staffList.isEmpty()) {
-            staffDisplayArea.setText("No staff members found.");
+            staffDisplayLabel.setText("No staff members found.");
             return;
         }
-        
-        StringBuilder output = new StringBuilder();
-        output.append("=== ALL STAFF MEMBERS ===\n\n");
-        
-        for (int i = 0; i < staffList.size(); i++) {
-            StaffHire staff = staffList.get(i);
-            
-            output.append("Staff #").append(i).append("\n");
-            output.append("Vacancy Number: ").append(staff.getVacancyNumber()).append("\n");
-            output.append("Name: ").append(staff.getStaffName()).append("\n");
-            output.append("Designation: ").append(staff.getDesignation()).append("\n");
-            output.append("Job Type: ").append(staff.getJobType()).append("\n");
-            output.append("Active: ").append(staff.isActive() ? "Yes" : "No").append("\n");
-            
-            if (staff instanceof FullTimeStaffHire) {
-                FullTimeStaffHire ftStaff = (FullTimeStaffHire) staff;
-                output.append("Staff Type: Full Time\n");
-                output.append("Salary: ").append(ftStaff.getSalary()).append("\n");
-                output.append("Weekly Hours: ").append(ftStaff.getWeeklyFractionalHours()).append("\n");
-            } else if (staff instanceof PartTimeStaffHire) {
-                PartTimeStaffHire ptStaff = (PartTimeStaffHire) staff;
-                output.append("Staff Type: Part Time\n");
-                output.append("Working Hours: ").append(ptStaff.getWorkingHour()).append("\n");
-                output.append("Wages Per Hour: ").append(ptStaff.getWagesPerHour()).append("\n");
-                output.append("Shifts: ").append(ptStaff.getShifts()).append("\n");
-                output.append("Terminated: ").append(ptStaff.isTerminated() ? "Yes" : "No").append("\n");
-            }
-            
-            output.append("\n-----------------------------\n\n");
+        StringBuilder label = new StringBuilder();
+        String prefix = staffSortFilter.getNamePrefix();
+        if (prefix.isEmpty()) {
+            label.append("All Staff (").append(staffList.size()).append(")");
+        } else {
+            label.append("Names starting \"").append(prefix).append("\" (")
+                 .append(staffTableModel.getRowCount()).append(" of ").append(staffList.size()).append(")");
         }
-        
-        staffDisplayArea.setText(output.toString());
+        StaffOrderings.SortKey key = staffSortFilter.getSortKey();
+        if (key != null) {
+            label.append(" by ").append(key.getLabel())
+                 .append(staffSortFilter.isDescending() ? " \u25BC" : " \u25B2");
+        }
+        staffDisplayLabel.setText(label.toString());
     }
     
     /**
      * Method to display terminated staff
      */
     private void displayTerminatedStaff() {
-        staffDisplayArea.setText("");
-        
-        StringBuilder output = new StringBuilder();
-        output.append("=== TERMINATED STAFF MEMBERS ===\n\n");
-        
-        boolean found = false;
-        
-        for (int i = 0; i < staffList.size(); i++) {
-            StaffHire staff = staffList.get(i);
-            
-            if (!staff.isActive() && staff instanceof PartTimeStaffHire) {
-                found = true;
-                PartTimeStaffHire ptStaff = (PartTimeStaffHire) staff;
-                
-                output.append("Staff #").append(i).append("\n");
-                output.append("Vacancy Number: ").append(staff.getVacancyNumber()).append("\n");
-                output.append("Designation: ").append(staff.getDesignation()).append("\n");
-                output.append("Job Type: ").append(staff.getJobType()).append("\n");
-                output.append("Terminated: Yes\n");
-                
-                output.append("\n-----------------------------\n\n");
-            }
-        }
-        
-        if (!found) {
-            output.append("No terminated staff members found.");
-        }
-        
-        staffDisplayArea.setText(output.toString());
+        java.util.List<StaffHire> terminated = store.findStaff(
+            new RecruitmentQuery.StaffCriteria().active(false).partTime(true));
+        staffSortFilter.deactivate();
+        staffTableModel.showRows(terminated);
+        staffDisplayLabel.setText(terminated.isEmpty() ? "No terminated staff members found." 
+                                  : "Terminated Staff (" + terminated.size() + ")");
     }
     
     /**
      * Method to display all vacancies
      */
     private void displayAllVacancies() {
-        vacancyDisplayArea.setText("");
-        
-        if (vacancyList.isEmpty()) {
-            vacancyDisplayArea.setText("No vacancies found.");
+        if (!vacancyTableModel.isShowingAll()) {
+            vacancyTableModel.showAll();
+        }
+        if (vacancyListLabel == null) {
             return;
         }
+        vacancyListLabel.setText(vacancyList.isEmpty() ? "No vacancies found." 
+                                 : "All Vacancies (" + store.getOpenVacancyCount() + " open of " 
+                                   + store.getVacancyCount() + ")");
+    }
+    
+    /**
+     * Displays the open vacancies matching the designation and job type
+     * entered in the form; a field left empty matches any value
+     */
+    private void searchOpenVacancies() {
+        String designation = vacancyDesignationField.getText().trim();
+        if (designation.equals("Enter designation") || designation.isEmpty()) designation = null;
         
-        StringBuilder output = new StringBuilder();
-        output.append("=== ALL VACANCIES ===\n\n");
+        String jobType = vacancyJobTypeField.getText().trim();
+        if (jobType.equals("Enter job type") || jobType.isEmpty()) jobType = null;
         
-        for (Vacancy vacancy : vacancyList) {
-            output.append("Vacancy ID: ").append(vacancy.getVacancyId()).append("\n");
-            output.append("Designation: ").append(vacancy.getDesignation()).append("\n");
-            output.append("Job Type: ").append(vacancy.getJobType()).append("\n");
-            output.append("Status: ").append(vacancy.isOpen() ? "Open" : "Closed").append("\n");
-            output.append("\n-----------------------------\n\n");
-        }
+        java.util.List<Vacancy> matches = store.findVacancies(designation, jobType, true);
+        vacancyTableModel.showRows(matches);
         
-        vacancyDisplayArea.setText(output.toString());
+        StringBuilder label = new StringBuilder("Open Vacancies");
+        if (designation != null) label.append(" | ").append(designation);
+        if (jobType != null) label.append(" | ").append(jobType);
+        label.append(" (").append(matches.size()).append(")");
+        vacancyListLabel.setText(matches.isEmpty() ? "No matching open vacancies found." : label.toString());
     }
     
     /**
@@ -1180,23 +1696,163 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
         vacancyJobTypeField.setForeground(Color.GRAY);
     }
     
+    /**
+     * Inner class that refreshes the counts shown on the tabs, the payroll
+     * summary and the vacancy list label after records change, however they
+     * were changed
+     *
+     * Subscribed to the change feed, it only notes on the feed's thread that
+     * something changed, and schedules one refresh on the EDT for all the
+     * changes made until that refresh runs, so a burst of changes costs one
+     * refresh. As each event just sets a flag, it asks for all events at once.
+     */
+    private class CountsRefresher implements Flow.Subscriber<RecordChangeEvent> {
+        private final AtomicBoolean refreshPending = new AtomicBoolean();
+        
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+        
+        @Override
+        public void onNext(RecordChangeEvent event) {
+            if (refreshPending.compareAndSet(false, true)) {
+                SwingUtilities.invokeLater(this::refresh);
+            }
+        }
+        
+        private void refresh() {
+            refreshPending.set(false);
+            updateTabCounts();
+            updatePayrollSummary();
+            if (vacancyTableModel.isShowingAll()) {
+                displayAllVacancies();
+            }
+        }
+        
+        @Override
+        public void onError(Throwable throwable) {
+            System.err.println("Error in change feed: " + throwable.getMessage());
+        }
+        
+        @Override
+        public void onComplete() {
+        }
+    }
+    
     /**
      * Inner class to redirect console output to a text area
+     *
+     * Everything printed, through print, println, printf, format or write,
+     * reaches a ConsoleLineStream under the PrintStream, which echoes it to
+     * the original stream and queues each complete line.
+     * Lines printed on any thread go into a lock-free queue, and a Swing
+     * timer moves them into the text area in one append per frame, so heavy
+     * printing costs the printing thread a queue insert and the EDT one
+     * document change per frame. The text area keeps only the last maxLines
+     * lines: the length of each line is kept in a ring buffer, and the oldest
+     * lines are removed from the start of the document as new ones arrive.
+     * Lines still queued are capped the same way, dropping the oldest.
      */
     private class PrintConsoleToTextArea extends PrintStream {
+        private static final int FRAME_MS = 1000 / 30;
+        
         private JTextArea textArea;
         private PrintStream originalOut;
+        private final int maxLines;
+        
+        // Lines printed but not yet in the text area
+        private final ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        
+        // Length of each line in the text area, oldest first from ringStart; EDT only
+        private final int[] lineLengths;
+        private int ringStart, lineCount;
+        
+        private final Timer drainTimer;
+        
+        /**
+         * Constructor for a console that echoes to the original stream
+         * @param originalOut the stream the lines are also printed to
+         * @param textArea the text area the lines are shown in
+         * @param maxLines the most lines kept in the text area
+         */
+        public PrintConsoleToTextArea(PrintStream originalOut, JTextArea textArea, int maxLines) {
+            this(originalOut, textArea, maxLines, new ConsoleLineStream(originalOut, Charset.defaultCharset()));
+        }
         
-        public PrintConsoleToTextArea(PrintStream originalOut, JTextArea textArea) {
-            super(originalOut);
+        private PrintConsoleToTextArea(PrintStream originalOut, JTextArea textArea, int maxLines,
+                                       ConsoleLineStream lines) {
+            super(lines, true, lines.charset);
             this.originalOut = originalOut;
             this.textArea = textArea;
+            this.maxLines = maxLines;
+            this.lineLengths = new int[maxLines];
+            lines.setLineConsumer(this::enqueue);
+            drainTimer = new Timer(FRAME_MS, e -> drain());
+            drainTimer.start();
         }
         
-        @Override
-        public void println(String x) {
-            textArea.append(x + "\n");
-            originalOut.println(x);
+        private void enqueue(String line) {
+            pending.offer(line);
+            // Only the last maxLines lines are shown, so older queued lines can go
+            if (pendingCount.incrementAndGet() > maxLines && pending.poll() != null) {
+                pendingCount.decrementAndGet();
+            }
+        }
+        
+        /**
+         * Moves the queued lines into the text area and removes the lines over the cap
+         */
+        private void drain() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            StringBuilder batch = new StringBuilder();
+            int removeLength = 0;
+            // Only the lines queued so far, so lines printed meanwhile wait for the next frame
+            int count = pendingCount.get();
+            String line;
+            while (count-- > 0 && (line = pending.poll()) != null) {
+                pendingCount.decrementAndGet();
+                batch.append(line).append('\n');
+                if (lineCount == maxLines) {
+                    removeLength += lineLengths[ringStart];
+                    lineLengths[ringStart] = line.length() + 1;
+                    ringStart = (ringStart + 1) % maxLines;
+                } else {
+                    lineLengths[(ringStart + lineCount++) % maxLines] = line.length() + 1;
+                }
+            }
+            // Lines that arrive and are evicted in the same batch never reach the document
+            int documentLength = textArea.getDocument().getLength();
+            if (removeLength > documentLength) {
+                batch.delete(0, removeLength - documentLength);
+                removeLength = documentLength;
+            }
+            try {
+                textArea.getDocument().remove(0, removeLength);
+            } catch (javax.swing.text.BadLocationException e) {
+                System.err.println("Error trimming console: " + e.getMessage());
+            }
+            textArea.append(batch.toString());
+        }
+        
+        /**
+         * Removes all lines from the text area
+         */
+        public void clearLines() {
+            drain();
+            textArea.setText("");
+            ringStart = 0;
+            lineCount = 0;
+        }
+        
+        /**
+         * Stops moving lines into the text area
+         */
+        public void stopDrain() {
+            drainTimer.stop();
         }
         
         public PrintStream getOriginalOut() {
@@ -1204,6 +1860,66 @@ public class RecruitmentSystem extends JFrame implements ActionListener {
         }
     }
     
+    /**
+     * Output stream under the console that echoes every byte to the original
+     * stream and splits the bytes into lines for the text area. Only used by
+     * its PrintStream, which writes to it with its own lock held.
+     */
+    private static class ConsoleLineStream extends OutputStream {
+        private final PrintStream originalOut;
+        private final Charset charset;
+        // Bytes of the line not yet ended with a newline
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        private Consumer<String> lineConsumer = text -> { };
+        
+        ConsoleLineStream(PrintStream originalOut, Charset charset) {
+            this.originalOut = originalOut;
+            this.charset = charset;
+        }
+        
+        void setLineConsumer(Consumer<String> lineConsumer) {
+            this.lineConsumer = lineConsumer;
+        }
+        
+        @Override
+        public void write(int b) {
+            originalOut.write(b);
+            if (b == '\n') {
+                endLine();
+            } else {
+                line.write(b);
+            }
+        }
+        
+        @Override
+        public void write(byte[] bytes, int off, int len) {
+            originalOut.write(bytes, off, len);
+            int start = off;
+            for (int i = off; i < off + len; i++) {
+                if (bytes[i] == '\n') {
+                    line.write(bytes, start, i - start);
+                    endLine();
+                    start = i + 1;
+                }
+            }
+            line.write(bytes, start, off + len - start);
+        }
+        
+        @Override
+        public void flush() {
+            originalOut.flush();
+        }
+        
+        private void endLine() {
+            String text = line.toString(charset);
+            line.reset();
+            if (text.endsWith("\r")) {
+                text = text.substring(0, text.length() - 1);
+            }
+            lineConsumer.accept(text);
+        }
+    }
+    
     /**
      * Main method
      * @param args command line arguments
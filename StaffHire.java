@@ -1,4 +1,9 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * StaffHire class - base class for the recruitment system
@@ -7,16 +12,40 @@ import java.io.Serializable;
 public class StaffHire implements Serializable {
     private static final long serialVersionUID = 1L;
     
+    // Saved form of the record, unchanged from when every attribute was held as a
+    // String, so records saved by older versions can still be read
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("vacancyNumber", int.class),
+        new ObjectStreamField("designation", String.class),
+        new ObjectStreamField("jobType", String.class),
+        new ObjectStreamField("staffName", String.class),
+        new ObjectStreamField("joiningDate", String.class),
+        new ObjectStreamField("qualification", String.class),
+        new ObjectStreamField("appointedBy", String.class),
+        new ObjectStreamField("joined", boolean.class),
+        new ObjectStreamField("active", boolean.class)
+    };
+    
+    private static final StringDictionary DICTIONARY = StringDictionary.global();
+    
     private int vacancyNumber;
-    private String designation;
-    private String jobType;
     private String staffName;
     private String joiningDate;
     private String qualification;
     private String appointedBy;
     private boolean joined;
+    
+    // Repeated attributes, held as StringDictionary codes
+    private int designationCode;
+    private int jobTypeCode;
     private boolean active;
     
+    // Notified of changes; not saved with the record
+    private transient RecordChangeListener changeListener;
+    
+    // Position of the record in the order records were attached to a RecordChangeDispatcher
+    private transient int ordinal;
+    
     /**
      * Constructor for the StaffHire class
      * @param vacancyNumber the vacancy number
@@ -32,8 +61,8 @@ public class StaffHire implements Serializable {
                     String staffName, String joiningDate, String qualification, 
                     String appointedBy, boolean joined) {
         this.vacancyNumber = vacancyNumber;
-        this.designation = designation;
-        this.jobType = jobType;
+        this.designationCode = DICTIONARY.intern(designation);
+        this.jobTypeCode = DICTIONARY.intern(jobType);
         this.staffName = staffName;
         this.joiningDate = joiningDate;
         this.qualification = qualification;
@@ -48,23 +77,37 @@ public class StaffHire implements Serializable {
     }
     
     public void setVacancyNumber(int vacancyNumber) {
+        int oldValue = this.vacancyNumber;
         this.vacancyNumber = vacancyNumber;
+        fireChanged("vacancyNumber", oldValue, vacancyNumber);
     }
     
     public String getDesignation() {
-        return designation;
+        return DICTIONARY.get(designationCode);
     }
     
     public void setDesignation(String designation) {
-        this.designation = designation;
+        String oldValue = getDesignation();
+        this.designationCode = DICTIONARY.intern(designation);
+        fireChanged("designation", oldValue, designation);
+    }
+    
+    int getDesignationCode() {
+        return designationCode;
     }
     
     public String getJobType() {
-        return jobType;
+        return DICTIONARY.get(jobTypeCode);
     }
     
     public void setJobType(String jobType) {
-        this.jobType = jobType;
+        String oldValue = getJobType();
+        this.jobTypeCode = DICTIONARY.intern(jobType);
+        fireChanged("jobType", oldValue, jobType);
+    }
+    
+    int getJobTypeCode() {
+        return jobTypeCode;
     }
     
     public String getStaffName() {
@@ -72,7 +115,9 @@ public class StaffHire implements Serializable {
     }
     
     public void setStaffName(String staffName) {
+        String oldValue = this.staffName;
         this.staffName = staffName;
+        fireChanged("staffName", oldValue, staffName);
     }
     
     public String getJoiningDate() {
@@ -80,7 +125,9 @@ public class StaffHire implements Serializable {
     }
     
     public void setJoiningDate(String joiningDate) {
+        String oldValue = this.joiningDate;
         this.joiningDate = joiningDate;
+        fireChanged("joiningDate", oldValue, joiningDate);
     }
     
     public String getQualification() {
@@ -88,7 +135,9 @@ public class StaffHire implements Serializable {
     }
     
     public void setQualification(String qualification) {
+        String oldValue = this.qualification;
         this.qualification = qualification;
+        fireChanged("qualification", oldValue, qualification);
     }
     
     public String getAppointedBy() {
@@ -96,7 +145,9 @@ public class StaffHire implements Serializable {
     }
     
     public void setAppointedBy(String appointedBy) {
+        String oldValue = this.appointedBy;
         this.appointedBy = appointedBy;
+        fireChanged("appointedBy", oldValue, appointedBy);
     }
     
     public boolean isJoined() {
@@ -104,7 +155,9 @@ public class StaffHire implements Serializable {
     }
     
     public void setJoined(boolean joined) {
+        boolean oldValue = this.joined;
         this.joined = joined;
+        fireChanged("joined", oldValue, joined);
     }
     
     public boolean isActive() {
@@ -112,7 +165,73 @@ public class StaffHire implements Serializable {
     }
     
     public void setActive(boolean active) {
+        boolean oldValue = this.active;
         this.active = active;
+        fireChanged("active", oldValue, active);
+    }
+    
+    /**
+     * Writes the record in its saved form
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("vacancyNumber", vacancyNumber);
+        fields.put("designation", getDesignation());
+        fields.put("jobType", getJobType());
+        fields.put("staffName", staffName);
+        fields.put("joiningDate", joiningDate);
+        fields.put("qualification", qualification);
+        fields.put("appointedBy", appointedBy);
+        fields.put("joined", joined);
+        fields.put("active", active);
+        out.writeFields();
+    }
+    
+    /**
+     * Reads the record from its saved form
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        vacancyNumber = fields.get("vacancyNumber", 0);
+        designationCode = DICTIONARY.intern((String) fields.get("designation", null));
+        jobTypeCode = DICTIONARY.intern((String) fields.get("jobType", null));
+        staffName = (String) fields.get("staffName", null);
+        joiningDate = (String) fields.get("joiningDate", null);
+        qualification = (String) fields.get("qualification", null);
+        appointedBy = (String) fields.get("appointedBy", null);
+        joined = fields.get("joined", false);
+        active = fields.get("active", false);
+    }
+    
+    /**
+     * Sets the listener notified when a property of this record changes
+     * @param listener the listener, or null for none
+     */
+    void setChangeListener(RecordChangeListener listener) {
+        this.changeListener = listener;
+    }
+    
+    /**
+     * Returns the position of this record in the order records were added
+     */
+    int getOrdinal() {
+        return ordinal;
+    }
+    
+    void setOrdinal(int ordinal) {
+        this.ordinal = ordinal;
+    }
+    
+    /**
+     * Tells the listener that a property has changed, if its value differs
+     * @param property the name of the property
+     * @param oldValue the value before the change
+     * @param newValue the value after the change
+     */
+    protected void fireChanged(String property, Object oldValue, Object newValue) {
+        if (changeListener != null && !Objects.equals(oldValue, newValue)) {
+            changeListener.staffChanged(this, property, oldValue);
+        }
     }
     
     /**
@@ -120,12 +239,12 @@ public class StaffHire implements Serializable {
      */
     public void display() {
         System.out.println("Vacancy Number: " + vacancyNumber);
-        System.out.println("Designation: " + designation);
-        System.out.println("Job Type: " + jobType);
+        System.out.println("Designation: " + getDesignation());
+        System.out.println("Job Type: " + getJobType());
         System.out.println("Staff Name: " + staffName);
         System.out.println("Joining Date: " + joiningDate);
-        System.out.println("Qualification: " + qualification);
-        System.out.println("Appointed By: " + appointedBy);
+        System.out.println("Qualification: " + getQualification());
+        System.out.println("Appointed By: " + getAppointedBy());
         System.out.println("Joined: " + (joined ? "Yes" : "No"));
         System.out.println("Active: " + (active ? "Yes" : "No"));
     }
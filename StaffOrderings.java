@@ -0,0 +1,340 @@
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * StaffOrderings class - staff records kept sorted by several fields
+ *
+ * For each sort key there is an array of staff ordinals sorted by that
+ * field, ties broken by ordinal. An array is sorted once, the first time it
+ * is asked for, and then kept sorted as records are added and changed: a
+ * change takes the record out at its old position, found by binary search
+ * on the old value, and inserts it at its new one. Reading an ordering
+ * never sorts again.
+ *
+ * Building an ordering sorts each record's value, or its rank among the
+ * distinct values, packed with its ordinal into a long array.
+ *
+ * Strings sort without regard to case, and missing values (null, or the
+ * salary of a part-time staff member) sort last. The record list must hold
+ * the record with ordinal i at position i; add this to the
+ * RecordChangeDispatcher the records are attached to. Not thread-safe.
+ */
+public class StaffOrderings implements RecordChangeListener {
+
+    /**
+     * Fields the staff can be sorted by
+     */
+    public enum SortKey {
+        VACANCY_NUMBER("vacancyNumber", "Vacancy Number"),
+        NAME("staffName", "Name"),
+        SALARY("salary", "Salary"),
+        JOINING_DATE("joiningDate", "Joining Date");
+
+        private final String property;
+        private final String label;
+
+        SortKey(String property, String label) {
+            this.property = property;
+            this.label = label;
+        }
+
+        /**
+         * Returns the name of the record property this key sorts by
+         */
+        public String getProperty() {
+            return property;
+        }
+
+        /**
+         * Returns the name of the field for display
+         */
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * Returns the value of this field for a record, or null if it has none
+         */
+        Object valueOf(StaffHire staff) {
+            switch (this) {
+                case VACANCY_NUMBER: return staff.getVacancyNumber();
+                case NAME: return staff.getStaffName();
+                case SALARY: return staff instanceof FullTimeStaffHire ? ((FullTimeStaffHire) staff).getSalary() : null;
+                default: return staff.getJoiningDate();
+            }
+        }
+    }
+
+    private List<StaffHire> records = List.of();
+
+    // Sorted ordinals per key, and how many of each array are in use
+    private final EnumMap<SortKey, int[]> orders = new EnumMap<>(SortKey.class);
+    private final EnumMap<SortKey, Integer> sizes = new EnumMap<>(SortKey.class);
+
+    /**
+     * Sets the list of all records. Orderings are sorted again when next asked for.
+     */
+    public void setRecords(List<StaffHire> records) {
+        this.records = records;
+        orders.clear();
+        sizes.clear();
+    }
+
+    /**
+     * Sets the list of all records and sorts every ordering up front. May
+     * run on a loading thread, before the orderings are handed to the EDT.
+     */
+    public void prepare(List<StaffHire> records) {
+        setRecords(records);
+        for (SortKey key : SortKey.values()) {
+            build(key);
+        }
+    }
+
+    /**
+     * Returns the ordinals sorted by a key. The array is shared and changes
+     * as records change; only the first size(key) entries are used.
+     */
+    public int[] getOrder(SortKey key) {
+        int[] order = orders.get(key);
+        if (order == null) {
+            order = build(key);
+        }
+        return order;
+    }
+
+    /**
+     * Returns the number of records in an ordering
+     */
+    public int size(SortKey key) {
+        getOrder(key);
+        return sizes.get(key);
+    }
+
+    /**
+     * Returns the range of positions in the NAME ordering of the records
+     * whose name starts with the prefix, ignoring case
+     * @return {from, to}, from inclusive and to exclusive
+     */
+    public int[] findNamePrefix(String prefix) {
+        int[] order = getOrder(SortKey.NAME);
+        int size = sizes.get(SortKey.NAME);
+        return new int[] {
+            searchPrefix(order, size, prefix, false),
+            searchPrefix(order, size, prefix, true)
+        };
+    }
+
+    // Building and maintaining the orderings
+
+    private int[] build(SortKey key) {
+        // Sort the value (or its rank among the distinct values) and the
+        // ordinal packed into longs, which needs no comparator or boxing
+        int count = records.size();
+        long[] packed = new long[count];
+        if (key == SortKey.VACANCY_NUMBER) {
+            for (int i = 0; i < count; i++) {
+                packed[i] = ((long) records.get(i).getVacancyNumber() << 32) | i;
+            }
+        } else {
+            int[] ranks = key == SortKey.SALARY ? rankSalaries() : rankStrings(key);
+            for (int i = 0; i < count; i++) {
+                packed[i] = ((long) ranks[i] << 32) | i;
+            }
+        }
+        Arrays.parallelSort(packed);
+        int[] order = new int[Math.max(16, count + count / 8)];
+        for (int i = 0; i < count; i++) {
+            order[i] = (int) packed[i];
+        }
+        orders.put(key, order);
+        sizes.put(key, count);
+        return order;
+    }
+
+    /**
+     * Returns the rank of each record's salary among the distinct salaries;
+     * staff without a salary rank last
+     */
+    private int[] rankSalaries() {
+        int count = records.size();
+        double[] salaries = new double[count];
+        int salaryCount = 0;
+        for (StaffHire staff : records) {
+            if (staff instanceof FullTimeStaffHire) {
+                salaries[salaryCount++] = ((FullTimeStaffHire) staff).getSalary();
+            }
+        }
+        // Sorted distinct salaries, in Double.compareTo order like compareValues
+        Arrays.parallelSort(salaries, 0, salaryCount);
+        int distinct = 0;
+        for (int i = 0; i < salaryCount; i++) {
+            if (distinct == 0 || Double.compare(salaries[distinct - 1], salaries[i]) != 0) {
+                salaries[distinct++] = salaries[i];
+            }
+        }
+        int[] ranks = new int[count];
+        for (int i = 0; i < count; i++) {
+            StaffHire staff = records.get(i);
+            ranks[i] = staff instanceof FullTimeStaffHire
+                ? Arrays.binarySearch(salaries, 0, distinct, ((FullTimeStaffHire) staff).getSalary())
+                : distinct;
+        }
+        return ranks;
+    }
+
+    /**
+     * Returns the rank of each record's value for a string key among the
+     * distinct values; values equal ignoring case share a rank and null
+     * ranks last
+     */
+    private int[] rankStrings(SortKey key) {
+        int count = records.size();
+        String[] values = new String[count];
+        HashMap<String, Integer> rankOf = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            values[i] = (String) key.valueOf(records.get(i));
+            if (values[i] != null) {
+                rankOf.put(values[i], 0);
+            }
+        }
+        String[] distinct = rankOf.keySet().toArray(new String[0]);
+        Arrays.parallelSort(distinct, String.CASE_INSENSITIVE_ORDER);
+        int rank = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (i > 0 && String.CASE_INSENSITIVE_ORDER.compare(distinct[i - 1], distinct[i]) != 0) {
+                rank++;
+            }
+            rankOf.put(distinct[i], rank);
+        }
+        int[] ranks = new int[count];
+        for (int i = 0; i < count; i++) {
+            ranks[i] = values[i] == null ? rank + 1 : rankOf.get(values[i]);
+        }
+        return ranks;
+    }
+
+    @Override
+    public void staffAdded(StaffHire staff) {
+        for (SortKey key : orders.keySet()) {
+            insert(key, key.valueOf(staff), staff.getOrdinal());
+        }
+    }
+
+    @Override
+    public void staffRemoved(StaffHire staff) {
+        for (SortKey key : orders.keySet()) {
+            remove(key, key.valueOf(staff), staff.getOrdinal());
+        }
+    }
+
+    @Override
+    public void staffChanged(StaffHire staff, String property, Object oldValue) {
+        for (SortKey key : orders.keySet()) {
+            if (key.property.equals(property)) {
+                remove(key, oldValue, staff.getOrdinal());
+                insert(key, key.valueOf(staff), staff.getOrdinal());
+            }
+        }
+    }
+
+    private void insert(SortKey key, Object value, int ordinal) {
+        int[] order = orders.get(key);
+        int size = sizes.get(key);
+        int pos = -search(key, order, size, value, ordinal) - 1;
+        if (pos < 0) {
+            return;
+        }
+        if (size == order.length) {
+            order = Arrays.copyOf(order, size * 2);
+            orders.put(key, order);
+        }
+        System.arraycopy(order, pos, order, pos + 1, size - pos);
+        order[pos] = ordinal;
+        sizes.put(key, size + 1);
+    }
+
+    private void remove(SortKey key, Object value, int ordinal) {
+        int[] order = orders.get(key);
+        int size = sizes.get(key);
+        int pos = search(key, order, size, value, ordinal);
+        if (pos < 0) {
+            return;
+        }
+        System.arraycopy(order, pos + 1, order, pos, size - pos - 1);
+        sizes.put(key, size - 1);
+    }
+
+    /**
+     * Binary search for a value and ordinal
+     * @return the position, or -(insertion point) - 1 if not present
+     */
+    private int search(SortKey key, int[] order, int size, Object value, int ordinal) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int other = order[mid];
+            if (other == ordinal) {
+                // The record itself, which may already hold its new value
+                return mid;
+            }
+            int cmp = compare(key.valueOf(records.get(other)), other, value, ordinal);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Returns the first position whose name starts with the prefix (or comes
+     * after it), or with after set, the first position whose name comes after it
+     */
+    private int searchPrefix(int[] order, int size, String prefix, boolean after) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = comparePrefix(records.get(order[mid]).getStaffName(), prefix);
+            if (cmp < 0 || (after && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int comparePrefix(String name, String prefix) {
+        if (name == null) {
+            return 1;
+        }
+        if (name.regionMatches(true, 0, prefix, 0, prefix.length())) {
+            return 0;
+        }
+        return String.CASE_INSENSITIVE_ORDER.compare(name, prefix);
+    }
+
+    private static int compare(Object a, int aOrdinal, Object b, int bOrdinal) {
+        int cmp = compareValues(a, b);
+        return cmp != 0 ? cmp : Integer.compare(aOrdinal, bOrdinal);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareValues(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : 1) : -1;
+        }
+        if (a instanceof String) {
+            return String.CASE_INSENSITIVE_ORDER.compare((String) a, (String) b);
+        }
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+}
@@ -0,0 +1,201 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import javax.swing.SwingUtilities;
+
+/**
+ * StaffSortFilter class - sorts and filters the rows of the staff table
+ *
+ * Shows all staff sorted by one of the StaffOrderings keys, ascending or
+ * descending, and optionally only those whose name starts with a prefix.
+ * The rows are read off the orderings, which are already sorted, and the
+ * names matching a prefix are found by binary search in the name ordering,
+ * so changing the sort or typing a filter takes a copy of the matching
+ * ordinals rather than a sort.
+ *
+ * When a record is added, or a field the rows are sorted or filtered by
+ * changes, the rows are worked out again once the current event is done.
+ * Without a sort key or filter the table shows all records directly and is
+ * updated row by row. Must be used on the EDT.
+ */
+public class StaffSortFilter implements RecordChangeListener {
+    private final StaffTableModel model;
+    private final StaffOrderings orderings;
+
+    // Current view; a null sort key is the order the records were added in
+    private StaffOrderings.SortKey sortKey;
+    private boolean descending;
+    private String namePrefix = "";
+
+    // False while the table shows something else, such as the terminated staff
+    private boolean active = true;
+    private boolean refreshPending;
+    private Runnable refreshListener;
+
+    /**
+     * Constructor for the sort and filter of a staff table
+     * @param model the table model whose rows are set
+     * @param orderings the orderings of the same records
+     */
+    public StaffSortFilter(StaffTableModel model, StaffOrderings orderings) {
+        this.model = model;
+        this.orderings = orderings;
+    }
+
+    /**
+     * Sets a callback run after the rows are worked out again
+     */
+    public void setRefreshListener(Runnable refreshListener) {
+        this.refreshListener = refreshListener;
+    }
+
+    /**
+     * Sorts by a key; sorting again by the same key reverses the order
+     * @param key the key, or null for the order records were added in
+     */
+    public void sortBy(StaffOrderings.SortKey key) {
+        if (key != null && key == sortKey) {
+            descending = !descending;
+        } else {
+            sortKey = key;
+            descending = false;
+        }
+        apply();
+    }
+
+    /**
+     * Shows only staff whose name starts with the prefix, ignoring case
+     * @param prefix the prefix, or empty to show all staff
+     */
+    public void setNamePrefix(String prefix) {
+        namePrefix = prefix == null ? "" : prefix.trim();
+        apply();
+    }
+
+    public StaffOrderings.SortKey getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public String getNamePrefix() {
+        return namePrefix;
+    }
+
+    /**
+     * Returns true if the table shows the sorted and filtered staff
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Stops setting the rows, while the table shows other records
+     */
+    public void deactivate() {
+        active = false;
+    }
+
+    /**
+     * Sets the rows of the table for the current sort and filter
+     */
+    public void apply() {
+        active = true;
+        refreshPending = false;
+        if (sortKey == null && namePrefix.isEmpty()) {
+            if (!model.isShowingAll()) {
+                model.showAll();
+            }
+        } else {
+            model.showOrdinals(computeRows());
+        }
+        if (refreshListener != null) {
+            refreshListener.run();
+        }
+    }
+
+    /**
+     * Returns the ordinals of the staff to show, in order
+     */
+    private int[] computeRows() {
+        int[] rows;
+        if (namePrefix.isEmpty()) {
+            rows = Arrays.copyOf(orderings.getOrder(sortKey), orderings.size(sortKey));
+        } else {
+            int[] range = orderings.findNamePrefix(namePrefix);
+            int[] byName = orderings.getOrder(StaffOrderings.SortKey.NAME);
+            if (sortKey == StaffOrderings.SortKey.NAME) {
+                rows = Arrays.copyOfRange(byName, range[0], range[1]);
+            } else {
+                BitSet matches = new BitSet();
+                for (int i = range[0]; i < range[1]; i++) {
+                    matches.set(byName[i]);
+                }
+                // The set bits are already in the order records were added in
+                rows = sortKey == null ? matches.stream().toArray() : inSortOrder(matches, range[1] - range[0]);
+            }
+        }
+        if (descending) {
+            for (int i = 0, j = rows.length - 1; i < j; i++, j--) {
+                int swap = rows[i];
+                rows[i] = rows[j];
+                rows[j] = swap;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Walks the current sort order and keeps the ordinals that match
+     */
+    private int[] inSortOrder(BitSet matches, int matchCount) {
+        int[] order = orderings.getOrder(sortKey);
+        int size = orderings.size(sortKey);
+        int[] rows = new int[matchCount];
+        int count = 0;
+        for (int i = 0; i < size && count < matchCount; i++) {
+            if (matches.get(order[i])) {
+                rows[count++] = order[i];
+            }
+        }
+        return rows;
+    }
+
+    // Changes
+
+    @Override
+    public void staffAdded(StaffHire staff) {
+        if (sortKey != null || !namePrefix.isEmpty()) {
+            scheduleRefresh();
+        }
+    }
+
+    @Override
+    public void staffRemoved(StaffHire staff) {
+        staffAdded(staff);
+    }
+
+    @Override
+    public void staffChanged(StaffHire staff, String property, Object oldValue) {
+        if ((sortKey != null && sortKey.getProperty().equals(property))
+                || (!namePrefix.isEmpty() && property.equals("staffName"))) {
+            scheduleRefresh();
+        }
+    }
+
+    /**
+     * Works out the rows again after the current event, once for all the
+     * changes it makes (terminating staff changes several fields)
+     */
+    private void scheduleRefresh() {
+        if (active && !refreshPending) {
+            refreshPending = true;
+            SwingUtilities.invokeLater(() -> {
+                if (active && refreshPending) {
+                    apply();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * StaffTableModel class - table model showing staff records
+ *
+ * One row per staff member with the common details and the full-time or
+ * part-time details; cells that do not apply to the type of staff are
+ * empty. Add it to the RecordChangeDispatcher to keep the rows up to date.
+ */
+public class StaffTableModel extends RecordTableModel<StaffHire> implements RecordChangeListener {
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] COLUMN_NAMES = {
+        "Staff #", "Vacancy No.", "Name", "Joining Date", "Designation", "Job Type", "Staff Type", "Active",
+        "Salary", "Weekly Hours", "Working Hours", "Wages/Hour", "Shifts", "Terminated"
+    };
+    private static final Class<?>[] COLUMN_CLASSES = {
+        Integer.class, Integer.class, String.class, String.class, String.class, String.class, String.class,
+        Boolean.class, Double.class, Integer.class, Integer.class, Double.class, String.class, Boolean.class
+    };
+
+    /**
+     * Constructor for an empty model
+     */
+    public StaffTableModel() {
+        super(COLUMN_NAMES, COLUMN_CLASSES);
+    }
+
+    @Override
+    protected Object getValue(StaffHire staff, int column) {
+        switch (column) {
+            case 0: return staff.getOrdinal();
+            case 1: return staff.getVacancyNumber();
+            case 2: return staff.getStaffName();
+            case 3: return staff.getJoiningDate();
+            case 4: return staff.getDesignation();
+            case 5: return staff.getJobType();
+            case 6: return staff instanceof FullTimeStaffHire ? "Full Time"
+                         : staff instanceof PartTimeStaffHire ? "Part Time" : null;
+            case 7: return staff.isActive();
+            default: break;
+        }
+        if (staff instanceof FullTimeStaffHire) {
+            FullTimeStaffHire ftStaff = (FullTimeStaffHire) staff;
+            switch (column) {
+                case 8: return ftStaff.getSalary();
+                case 9: return ftStaff.getWeeklyFractionalHours();
+                default: return null;
+            }
+        }
+        if (staff instanceof PartTimeStaffHire) {
+            PartTimeStaffHire ptStaff = (PartTimeStaffHire) staff;
+            switch (column) {
+                case 10: return ptStaff.getWorkingHour();
+                case 11: return ptStaff.getWagesPerHour();
+                case 12: return ptStaff.getShifts();
+                case 13: return ptStaff.isTerminated();
+                default: return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the key the staff can be sorted by for a column, or null if
+     * the column is not sortable. The Staff # column is the order records
+     * were added in, which is the unsorted order.
+     */
+    public StaffOrderings.SortKey sortKeyAt(int column) {
+        switch (column) {
+            case 1: return StaffOrderings.SortKey.VACANCY_NUMBER;
+            case 2: return StaffOrderings.SortKey.NAME;
+            case 3: return StaffOrderings.SortKey.JOINING_DATE;
+            case 8: return StaffOrderings.SortKey.SALARY;
+            default: return null;
+        }
+    }
+
+    @Override
+    protected int ordinalOf(StaffHire staff) {
+        return staff.getOrdinal();
+    }
+
+    @Override
+    public void staffAdded(StaffHire staff) {
+        recordAdded(staff);
+    }
+
+    @Override
+    public void staffRemoved(StaffHire staff) {
+        recordRemoved(staff);
+    }
+
+    @Override
+    public void staffChanged(StaffHire staff, String property, Object oldValue) {
+        recordChanged(staff);
+    }
+}
@@ -0,0 +1,119 @@
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * StringDictionary class - maps repeated strings to small int codes
+ *
+ * Records store the low-cardinality attributes designation, job type and
+ * shifts as codes from the global dictionary, so each distinct value is
+ * held in memory once. The dictionary never drops a value, so free text such
+ * as names, qualification and appointed by must not go into it. Codes are
+ * handed out in order starting from 0 and never change or get reused;
+ * null is always code -1.
+ *
+ * Every code also has a folded code, the code of the value trimmed and in
+ * lower case, so values that differ only in case or surrounding spaces can
+ * be compared as ints. Thread-safe: lookups do not lock, and adding a new
+ * value locks the dictionary.
+ */
+public class StringDictionary {
+    public static final int NULL_CODE = -1;
+
+    private static final StringDictionary GLOBAL = new StringDictionary();
+
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[64];
+    private volatile int[] foldedCodes = new int[64];
+    private volatile int size;
+
+    /**
+     * Returns the dictionary shared by all records
+     */
+    public static StringDictionary global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Returns the code for a value, adding the value if it is new
+     * @param value the value, may be null
+     * @return the code
+     */
+    public int intern(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : add(value);
+    }
+
+    private synchronized int add(String value) {
+        Integer existing = codes.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        // Add the folded value first, so this value's slot is not taken meanwhile
+        String folded = fold(value);
+        int foldedCode = folded.equals(value) ? NULL_CODE : intern(folded);
+
+        int code = size;
+        if (code == values.length) {
+            values = Arrays.copyOf(values, code * 2);
+            foldedCodes = Arrays.copyOf(foldedCodes, code * 2);
+        }
+        values[code] = value;
+        // A value that is already folded is its own folded code
+        foldedCodes[code] = foldedCode == NULL_CODE ? code : foldedCode;
+        size = code + 1;
+        // Publish the code only once its slots are filled in
+        codes.put(value, code);
+        return code;
+    }
+
+    /**
+     * Returns the code for a value without adding it
+     * @return the code, or -2 if the value is not in the dictionary
+     */
+    public int codeOf(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : -2;
+    }
+
+    /**
+     * Returns the value for a code
+     * @param code the code, or -1 for null
+     */
+    public String get(int code) {
+        return code == NULL_CODE ? null : values[code];
+    }
+
+    /**
+     * Returns the code of the value trimmed and in lower case. Null folds
+     * to the same code as the empty string.
+     */
+    public int foldedCode(int code) {
+        return code == NULL_CODE ? intern("") : foldedCodes[code];
+    }
+
+    /**
+     * Returns the folded code of a value without adding it
+     * @return the folded code, or -2 if no value folding the same way is in the dictionary
+     */
+    public int foldedCodeOf(String value) {
+        return codeOf(value == null ? "" : fold(value));
+    }
+
+    /**
+     * Returns the number of distinct values
+     */
+    public int size() {
+        return size;
+    }
+
+    private static String fold(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,4 +1,11 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
 
 /**
  * Vacancy class - represents a job vacancy in the recruitment system
@@ -6,10 +13,39 @@ import java.io.Serializable;
 public class Vacancy implements Serializable {
     private static final long serialVersionUID = 1L;
     
+    // Saved form of the vacancy, unchanged from when every attribute was held as a
+    // String, so vacancies saved by older versions can still be read
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("vacancyId", int.class),
+        new ObjectStreamField("designation", String.class),
+        new ObjectStreamField("jobType", String.class),
+        new ObjectStreamField("isOpen", boolean.class)
+    };
+    
+    private static final StringDictionary DICTIONARY = StringDictionary.global();
+    
+    // Compare-and-set access to isOpen, so that only one hire can claim the vacancy
+    private static final VarHandle IS_OPEN;
+    static {
+        try {
+            IS_OPEN = MethodHandles.lookup().findVarHandle(Vacancy.class, "isOpen", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
     private int vacancyId;
-    private String designation;
-    private String jobType;
-    private boolean isOpen;
+    private volatile boolean isOpen;
+    
+    // Repeated attributes, held as StringDictionary codes
+    private int designationCode;
+    private int jobTypeCode;
+    
+    // Notified of changes; not saved with the record
+    private transient RecordChangeListener changeListener;
+    
+    // Position of the vacancy in the order records were attached to a RecordChangeDispatcher
+    private transient int ordinal;
     
     /**
      * Constructor for the Vacancy class
@@ -19,8 +55,8 @@ public class Vacancy implements Serializable {
      */
     public Vacancy(int vacancyId, String designation, String jobType) {
         this.vacancyId = vacancyId;
-        this.designation = designation;
-        this.jobType = jobType;
+        this.designationCode = DICTIONARY.intern(designation);
+        this.jobTypeCode = DICTIONARY.intern(jobType);
         this.isOpen = true;
     }
     
@@ -30,23 +66,37 @@ public class Vacancy implements Serializable {
     }
     
     public void setVacancyId(int vacancyId) {
+        int oldValue = this.vacancyId;
         this.vacancyId = vacancyId;
+        fireChanged("vacancyId", oldValue, vacancyId);
     }
     
     public String getDesignation() {
-        return designation;
+        return DICTIONARY.get(designationCode);
     }
     
     public void setDesignation(String designation) {
-        this.designation = designation;
+        String oldValue = getDesignation();
+        this.designationCode = DICTIONARY.intern(designation);
+        fireChanged("designation", oldValue, designation);
+    }
+    
+    int getDesignationCode() {
+        return designationCode;
     }
     
     public String getJobType() {
-        return jobType;
+        return DICTIONARY.get(jobTypeCode);
     }
     
     public void setJobType(String jobType) {
-        this.jobType = jobType;
+        String oldValue = getJobType();
+        this.jobTypeCode = DICTIONARY.intern(jobType);
+        fireChanged("jobType", oldValue, jobType);
+    }
+    
+    int getJobTypeCode() {
+        return jobTypeCode;
     }
     
     public boolean isOpen() {
@@ -54,21 +104,101 @@ public class Vacancy implements Serializable {
     }
     
     public void setOpen(boolean isOpen) {
+        boolean oldValue = this.isOpen;
         this.isOpen = isOpen;
+        fireChanged("open", oldValue, isOpen);
     }
     
     /**
      * Closes the vacancy
      */
     public void closeVacancy() {
-        this.isOpen = false;
+        setOpen(false);
     }
     
     /**
      * Opens the vacancy
      */
     public void openVacancy() {
-        this.isOpen = true;
+        setOpen(true);
+    }
+    
+    /**
+     * Closes the vacancy if it is open, as one atomic step, without telling
+     * the listener yet. Of any number of threads claiming an open vacancy at
+     * once, exactly one succeeds. The claim must then be committed or released.
+     * Until it is, isOpen already returns false while the listener, and any
+     * index kept by it, still has the vacancy as open.
+     * @return true if this call closed the vacancy
+     */
+    boolean claim() {
+        return IS_OPEN.compareAndSet(this, true, false);
+    }
+    
+    /**
+     * Tells the listener that a claimed vacancy is now closed
+     */
+    void commitClaim() {
+        fireChanged("open", true, false);
+    }
+    
+    /**
+     * Opens a claimed vacancy again, when what it was claimed for did not go
+     * ahead. The listener was never told it closed, so is not told now.
+     */
+    void releaseClaim() {
+        isOpen = true;
+    }
+    
+    /**
+     * Writes the vacancy in its saved form
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("vacancyId", vacancyId);
+        fields.put("designation", getDesignation());
+        fields.put("jobType", getJobType());
+        fields.put("isOpen", isOpen);
+        out.writeFields();
+    }
+    
+    /**
+     * Reads the vacancy from its saved form
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        vacancyId = fields.get("vacancyId", 0);
+        designationCode = DICTIONARY.intern((String) fields.get("designation", null));
+        jobTypeCode = DICTIONARY.intern((String) fields.get("jobType", null));
+        isOpen = fields.get("isOpen", false);
+    }
+    
+    /**
+     * Sets the listener notified when a property of this vacancy changes
+     * @param listener the listener, or null for none
+     */
+    void setChangeListener(RecordChangeListener listener) {
+        this.changeListener = listener;
+    }
+    
+    /**
+     * Returns the position of this vacancy in the order records were added
+     */
+    int getOrdinal() {
+        return ordinal;
+    }
+    
+    void setOrdinal(int ordinal) {
+        this.ordinal = ordinal;
+    }
+    
+    /**
+     * Tells the listener that a property has changed, if its value differs
+     */
+    private void fireChanged(String property, Object oldValue, Object newValue) {
+        if (changeListener != null && !Objects.equals(oldValue, newValue)) {
+            changeListener.vacancyChanged(this, property, oldValue);
+        }
     }
     
     /**
@@ -76,8 +206,8 @@ public class Vacancy implements Serializable {
      */
     public void display() {
         System.out.println("Vacancy ID: " + vacancyId);
-        System.out.println("Designation: " + designation);
-        System.out.println("Job Type: " + jobType);
+        System.out.println("Designation: " + getDesignation());
+        System.out.println("Job Type: " + getJobType());
         System.out.println("Status: " + (isOpen ? "Open" : "Closed"));
     }
     
@@ -86,6 +216,6 @@ public class Vacancy implements Serializable {
      */
     @Override
     public String toString() {
-        return "Vacancy #" + vacancyId + " - " + designation + " (" + jobType + ") - " + (isOpen ? "Open" : "Closed");
+        return "Vacancy #" + vacancyId + " - " + getDesignation() + " (" + getJobType() + ") - " + (isOpen ? "Open" : "Closed");
     }
 } 
\ No newline at end of file
@@ -0,0 +1,137 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * VacancyLookupCache class - open vacancies by ID for the auto-fill
+ *
+ * Holds the open vacancies in an IntObjectMap by ID and their IDs in a
+ * sorted array, so a typed vacancy number is looked up in constant time,
+ * and the open vacancies whose ID starts with the digits typed so far are
+ * found with a few binary searches (one per extra digit). Kept up to date
+ * through RecordChangeListener as vacancies are added, filled and
+ * reopened. Where two open vacancies share an ID the first one is kept.
+ * Not thread-safe; used on the EDT.
+ */
+public class VacancyLookupCache implements RecordChangeListener {
+    private IntObjectMap<Vacancy> openById = new IntObjectMap<>();
+    private int[] openIds = new int[16];
+    private int size;
+
+    /**
+     * Fills the cache with the open vacancies in the list
+     */
+    public void setVacancies(List<Vacancy> vacancies) {
+        openById = new IntObjectMap<>(vacancies.size());
+        for (Vacancy vacancy : vacancies) {
+            if (vacancy.isOpen() && !openById.containsKey(vacancy.getVacancyId())) {
+                openById.put(vacancy.getVacancyId(), vacancy);
+            }
+        }
+        openIds = new int[Math.max(16, openById.size() + openById.size() / 8)];
+        size = 0;
+        openById.forEachValue(vacancy -> openIds[size++] = vacancy.getVacancyId());
+        Arrays.sort(openIds, 0, size);
+    }
+
+    /**
+     * Returns the open vacancy with the given ID, or null
+     */
+    public Vacancy getOpen(int vacancyId) {
+        return openById.get(vacancyId);
+    }
+
+    /**
+     * Returns the number of open vacancies
+     */
+    public int getOpenCount() {
+        return size;
+    }
+
+    /**
+     * Returns open vacancies whose ID starts with the given digits, in order of ID
+     * @param digits the digits typed so far
+     * @param limit the most vacancies to return
+     */
+    public List<Vacancy> suggest(String digits, int limit) {
+        ArrayList<Vacancy> result = new ArrayList<>();
+        if (digits.isEmpty() || digits.length() > 10 || !digits.chars().allMatch(Character::isDigit)) {
+            return result;
+        }
+        long prefix = Long.parseLong(digits);
+        if (prefix > Integer.MAX_VALUE) {
+            return result;
+        }
+        // IDs starting with the digits are the prefix itself, then the ranges
+        // [prefix * 10, prefix * 10 + 10), [prefix * 100, prefix * 100 + 100), ...
+        // A leading zero only matches 0 itself.
+        long from = prefix;
+        long width = 1;
+        while (from <= Integer.MAX_VALUE && result.size() < limit) {
+            int index = lowerBound((int) from);
+            long to = from + width;
+            while (index < size && openIds[index] < to && result.size() < limit) {
+                result.add(openById.get(openIds[index++]));
+            }
+            if (prefix == 0) {
+                break;
+            }
+            from *= 10;
+            width *= 10;
+        }
+        return result;
+    }
+
+    private int lowerBound(int id) {
+        int index = Arrays.binarySearch(openIds, 0, size, id);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    // Changes
+
+    @Override
+    public void vacancyAdded(Vacancy vacancy) {
+        if (vacancy.isOpen()) {
+            add(vacancy);
+        }
+    }
+
+    @Override
+    public void vacancyChanged(Vacancy vacancy, String property, Object oldValue) {
+        if (property.equals("open")) {
+            if (vacancy.isOpen()) {
+                add(vacancy);
+            } else {
+                remove(vacancy, vacancy.getVacancyId());
+            }
+        } else if (property.equals("vacancyId") && vacancy.isOpen()) {
+            remove(vacancy, (Integer) oldValue);
+            add(vacancy);
+        }
+    }
+
+    private void add(Vacancy vacancy) {
+        int id = vacancy.getVacancyId();
+        if (openById.containsKey(id)) {
+            return;
+        }
+        openById.put(id, vacancy);
+        int index = lowerBound(id);
+        if (size == openIds.length) {
+            openIds = Arrays.copyOf(openIds, size * 2);
+        }
+        System.arraycopy(openIds, index, openIds, index + 1, size - index);
+        openIds[index] = id;
+        size++;
+    }
+
+    private void remove(Vacancy vacancy, int id) {
+        if (openById.get(id) != vacancy) {
+            return;
+        }
+        openById.remove(id);
+        int index = lowerBound(id);
+        System.arraycopy(openIds, index + 1, openIds, index, size - index - 1);
+        size--;
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * VacancyTableModel class - table model showing vacancies
+ *
+ * One row per vacancy with its ID, designation, job type and status.
+ * Add it to the RecordChangeDispatcher to keep the rows up to date.
+ */
+public class VacancyTableModel extends RecordTableModel<Vacancy> implements RecordChangeListener {
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] COLUMN_NAMES = {"Vacancy ID", "Designation", "Job Type", "Status"};
+    private static final Class<?>[] COLUMN_CLASSES = {Integer.class, String.class, String.class, String.class};
+
+    /**
+     * Constructor for an empty model
+     */
+    public VacancyTableModel() {
+        super(COLUMN_NAMES, COLUMN_CLASSES);
+    }
+
+    @Override
+    protected Object getValue(Vacancy vacancy, int column) {
+        switch (column) {
+            case 0: return vacancy.getVacancyId();
+            case 1: return vacancy.getDesignation();
+            case 2: return vacancy.getJobType();
+            case 3: return vacancy.isOpen() ? "Open" : "Closed";
+            default: return null;
+        }
+    }
+
+    @Override
+    protected int ordinalOf(Vacancy vacancy) {
+        return vacancy.getOrdinal();
+    }
+
+    @Override
+    public void vacancyAdded(Vacancy vacancy) {
+        recordAdded(vacancy);
+    }
+
+    @Override
+    public void vacancyChanged(Vacancy vacancy, String property, Object oldValue) {
+        recordChanged(vacancy);
+    }
+}